@@ -0,0 +1,74 @@
+// Dashboard session load test (k6 - https://k6.io)
+//
+// Simulates many concurrent dashboard sessions: every virtual user logs in once and then
+// keeps polling the endpoints a dashboard renders. Run it once per threading mode with the
+// same heap (-Xmx) and pool size, and compare throughput, p95 latency and error rate:
+//
+//   VIRTUAL_THREADS_ENABLED=false java -Xmx512m -jar target/rbac-system-*.jar
+//   k6 run -e BASE_URL=http://localhost:8080 -e SESSIONS=2000 loadtest/dashboard-sessions.js
+//
+//   VIRTUAL_THREADS_ENABLED=true java -Xmx512m -jar target/rbac-system-*.jar
+//   k6 run -e BASE_URL=http://localhost:8080 -e SESSIONS=2000 loadtest/dashboard-sessions.js
+
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const USERNAME = __ENV.USERNAME || 'superadmin';
+const PASSWORD = __ENV.PASSWORD || 'SuperAdmin@123';
+const SESSIONS = parseInt(__ENV.SESSIONS || '2000', 10);
+const THINK_TIME = parseFloat(__ENV.THINK_TIME || '1');
+
+export const options = {
+    scenarios: {
+        dashboards: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '1m', target: SESSIONS },
+                { duration: '3m', target: SESSIONS },
+                { duration: '30s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+        http_req_duration: ['p(95)<500'],
+    },
+};
+
+// One token per virtual user, obtained on its first iteration
+let token = null;
+
+function login() {
+    const res = http.post(`${BASE_URL}/api/v1/auth/login`,
+        JSON.stringify({ username: USERNAME, password: PASSWORD }),
+        { headers: { 'Content-Type': 'application/json' }, tags: { name: 'login' } });
+    check(res, { 'login ok': (r) => r.status === 200 });
+    const cookie = res.cookies.auth_token;
+    return cookie && cookie.length > 0 ? cookie[0].value : null;
+}
+
+export default function () {
+    if (!token) {
+        token = login();
+        if (!token) {
+            sleep(THINK_TIME);
+            return;
+        }
+    }
+
+    const params = { headers: { Authorization: `Bearer ${token}` } };
+
+    const responses = http.batch([
+        ['GET', `${BASE_URL}/api/v1/authorization/me`, null, Object.assign({ tags: { name: 'me' } }, params)],
+        ['GET', `${BASE_URL}/api/v1/users?page=0&size=20`, null, Object.assign({ tags: { name: 'users' } }, params)],
+        ['GET', `${BASE_URL}/api/v1/devices?page=0&size=20`, null, Object.assign({ tags: { name: 'devices' } }, params)],
+        ['GET', `${BASE_URL}/api/v1/vehicles?page=0&size=20`, null, Object.assign({ tags: { name: 'vehicles' } }, params)],
+    ]);
+
+    responses.forEach((res) => check(res, { 'status is 2xx': (r) => r.status >= 200 && r.status < 300 }));
+
+    sleep(THINK_TIME);
+}
@@ -96,6 +96,8 @@ public class DataInitializer implements CommandLineRunner {
                 "Push configuration updates", Permission.PermissionCategory.DEVICE_MANAGEMENT);
         createPermission("DEVICE_BULK_OPERATIONS", "Bulk Operations",
                 "Mass device operations", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        createPermission("DEVICE_HEARTBEAT", "Report Heartbeat",
+                "Ingest device heartbeats", Permission.PermissionCategory.DEVICE_MANAGEMENT);
 
         // Vehicle Management
         createPermission("VEHICLE_READ", "Read Vehicle",
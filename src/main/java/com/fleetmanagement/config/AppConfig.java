@@ -1,11 +1,5 @@
 package com.fleetmanagement.config;
 
-import java.util.Arrays;
-import java.util.HashSet;
-import java.util.Set;
-
-import org.modelmapper.ModelMapper;
-import org.modelmapper.convention.MatchingStrategies;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,7 +7,6 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
-import org.modelmapper.Converter;
 
 /**
  * Application Configuration
@@ -41,31 +34,6 @@ public class AppConfig {
         };
     }
 
-    /**
-     * Configure ModelMapper for DTO conversions
-     * Optimized for performance with strict matching strategy
-     */
-    @Bean
-    public ModelMapper modelMapper() {
-        ModelMapper mapper = new ModelMapper();
-
-        mapper.getConfiguration()
-                .setMatchingStrategy(MatchingStrategies.STRICT)
-                .setFieldMatchingEnabled(true)
-                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
-
-        // ✅ Converter for Hibernate PersistentSet -> HashSet
-        Converter<Set<?>, Set<?>> setConverter = ctx -> {
-            if (ctx.getSource() == null)
-                return null;
-            return new HashSet<>(ctx.getSource());
-        };
-
-        mapper.addConverter(setConverter);
-
-        return mapper;
-    }
-
     /**
      * Configure password encoder for security
      * Using BCrypt with strength 12 for enhanced security
@@ -0,0 +1,15 @@
+package com.fleetmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableAsync;
+
+/**
+ * Async Configuration
+ * @Async work runs on Spring Boot's applicationTaskExecutor, which follows spring.threads.virtual.enabled:
+ * a virtual thread per task when enabled, the bounded platform pool otherwise.
+ * Executors added to the application should be obtained from that bean instead of being created directly
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+}
@@ -0,0 +1,16 @@
+package com.fleetmanagement.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Configuration
+ * @Scheduled work runs on Spring Boot's taskScheduler, which follows spring.threads.virtual.enabled
+ * like the async executor. On platform threads its pool (spring.task.scheduling.pool.size) is sized so a
+ * slow rebuild never delays the short-interval flushes. Jobs run on every replica, so each one must be
+ * safe to run concurrently
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
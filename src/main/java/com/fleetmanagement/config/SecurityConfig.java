@@ -18,6 +18,7 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import com.fleetmanagement.security.JwtAuthenticationEntryPoint;
 import com.fleetmanagement.security.JwtAuthenticationFilter;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 
 /**
@@ -49,6 +50,9 @@ public class SecurityConfig {
 
                 // ✅ Set permissions on endpoints
                 .authorizeHttpRequests(auth -> auth
+                        // Re-dispatch of a streaming response (exports) - the request itself was already authorized
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints
                         .requestMatchers("/api/v1/auth/**").permitAll()
                         .requestMatchers("/api/v1/devices/register/sms").permitAll() // SMS device registration
@@ -61,7 +65,7 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/users/**")
                         .hasAnyAuthority("SUPER_ADMIN", "USER_READ", "USER_CREATE", "USER_UPDATE", "USER_DELETE")
                         .requestMatchers("/api/v1/devices/**")
-                        .hasAnyAuthority("SUPER_ADMIN", "DEVICE_READ", "DEVICE_REGISTER", "DEVICE_ASSIGN")
+                        .hasAnyAuthority("SUPER_ADMIN", "DEVICE_READ", "DEVICE_REGISTER", "DEVICE_ASSIGN", "DEVICE_HEARTBEAT")
                         .requestMatchers("/api/v1/vehicles/**")
                         .hasAnyAuthority("SUPER_ADMIN", "VEHICLE_READ", "VEHICLE_CREATE", "VEHICLE_UPDATE")
                         .requestMatchers("/api/v1/permissions/**")
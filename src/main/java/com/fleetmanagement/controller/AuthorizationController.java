@@ -0,0 +1,70 @@
+package com.fleetmanagement.controller;
+
+import com.fleetmanagement.dto.request.AuthorizationCheckRequest;
+import com.fleetmanagement.dto.response.AuthorizationCheckResponse;
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.dto.response.UserPermissionsResponse;
+import com.fleetmanagement.security.PermissionCheck;
+import com.fleetmanagement.security.PermissionSnapshot;
+import com.fleetmanagement.service.PermissionService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Authorization Controller
+ * Lets gateways and the UI evaluate many permission checks with a single call
+ */
+@RestController
+@RequestMapping("/api/v1/authorization")
+@RequiredArgsConstructor
+@Slf4j
+public class AuthorizationController {
+
+    private final PermissionService permissionService;
+
+    /**
+     * Evaluate a batch of (user, permission, scope) checks
+     * Checks without userId apply to the authenticated user
+     */
+    @PostMapping(value = "/check", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<AuthorizationCheckResponse> check(
+            @Valid @RequestBody AuthorizationCheckRequest request,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+
+        UUID currentUserId = currentUser.getId();
+        log.debug("API call: CheckPermissions ({} checks) by {}", request.getChecks().size(), currentUserId);
+
+        List<PermissionCheck> checks = request.getChecks().stream()
+                .map(check -> new PermissionCheck(
+                        check.getUserId() != null ? check.getUserId() : currentUserId,
+                        check.getPermission(),
+                        check.getScopeId()))
+                .toList();
+
+        return ResponseEntity.ok(new AuthorizationCheckResponse(permissionService.checkPermissions(currentUserId, checks)));
+    }
+
+    /**
+     * Everything the authenticated user can do - used by the frontend on navigation
+     */
+    @GetMapping(value = "/me", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<UserPermissionsResponse> me(@AuthenticationPrincipal UserLoginResponse currentUser) {
+        Set<String> permissions = permissionService.getAllUserPermissions(currentUser.getId());
+
+        return ResponseEntity.ok(UserPermissionsResponse.builder()
+                .userId(currentUser.getId())
+                .tenantId(currentUser.getTenantId())
+                .superAdmin(permissions.contains(PermissionSnapshot.SUPER_ADMIN))
+                .permissions(permissions)
+                .build());
+    }
+}
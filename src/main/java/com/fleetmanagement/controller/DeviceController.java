@@ -1,10 +1,21 @@
 package com.fleetmanagement.controller;
 
+import com.fleetmanagement.dto.request.BulkDeviceRequestDto;
 import com.fleetmanagement.dto.request.DeviceRequestDto;
+import com.fleetmanagement.dto.request.HeartbeatRequestDto;
+import com.fleetmanagement.dto.request.SmsRegistrationRequestDto;
+import com.fleetmanagement.dto.response.BulkDeviceResponseDto;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.dto.response.DeviceLivenessResponseDto;
 import com.fleetmanagement.dto.response.DeviceResponseDto;
+import com.fleetmanagement.dto.response.HeartbeatResponseDto;
+import com.fleetmanagement.dto.response.SmsRegistrationResponseDto;
 import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.service.ExportService;
 import com.fleetmanagement.service.DeviceService;
+import com.fleetmanagement.service.HeartbeatService;
+import com.fleetmanagement.service.SmsRegistrationService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 
@@ -12,6 +23,8 @@ import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -19,6 +32,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -32,6 +46,9 @@ import java.util.UUID;
 public class DeviceController {
 
     private final DeviceService deviceService;
+    private final ExportService exportService;
+    private final HeartbeatService heartbeatService;
+    private final SmsRegistrationService smsRegistrationService;
 
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_REGISTER')")
@@ -43,6 +60,46 @@ public class DeviceController {
         return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_REGISTER')")
+    public ResponseEntity<BulkDeviceResponseDto> createDevices(
+            @Valid @RequestBody BulkDeviceRequestDto requestDto,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        BulkDeviceResponseDto responseDto = deviceService.createDevices(currentUserId, requestDto);
+        HttpStatus status = responseDto.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return new ResponseEntity<>(responseDto, status);
+    }
+
+    @PostMapping(value = "/heartbeats", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_HEARTBEAT')")
+    public ResponseEntity<HeartbeatResponseDto> recordHeartbeats(
+            @Valid @RequestBody HeartbeatRequestDto requestDto,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        HeartbeatResponseDto responseDto = heartbeatService.record(currentUserId, requestDto);
+        return new ResponseEntity<>(responseDto, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Anonymous at the security layer - gateways authenticate with their shared token
+     */
+    @PostMapping(value = "/register/sms", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<SmsRegistrationResponseDto> registerBySms(
+            @RequestHeader(value = "X-Gateway-Token", required = false) String gatewayToken,
+            @Valid @RequestBody SmsRegistrationRequestDto requestDto) {
+        if (!smsRegistrationService.isTrustedGateway(gatewayToken)) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        SmsRegistrationResponseDto responseDto = smsRegistrationService.submit(requestDto);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.ACCEPTED);
+        if (responseDto.getDeferred() > 0) {
+            // The rest of the lot was queued; only the deferred messages are to be sent again
+            response.header(HttpHeaders.RETRY_AFTER, "1");
+        }
+        return response.body(responseDto);
+    }
+
     @PutMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_UPDATE')")
     public ResponseEntity<DeviceResponseDto> updateDevice(
@@ -89,6 +146,42 @@ public class DeviceController {
         return ResponseEntity.ok(devices);
     }
 
+    @GetMapping(value = "/scroll", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_READ')")
+    public ResponseEntity<CursorPage<DeviceResponseDto>> scrollDevices(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        return ResponseEntity.ok(deviceService.scrollDevices(currentUserId, tenantId, cursor, size));
+    }
+
+    @GetMapping(value = "/liveness", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_READ')")
+    public ResponseEntity<DeviceLivenessResponseDto> getLiveness(
+            @RequestParam(required = false) UUID tenantId,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        return ResponseEntity.ok(deviceService.getLiveness(currentUserId, tenantId));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_READ')")
+    public ResponseEntity<StreamingResponseBody> exportDevices(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        StreamingResponseBody body = exportService.export(
+                currentUser.getId(), tenantId, ExportService.Dataset.DEVICES, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName(ExportService.Dataset.DEVICES)).build().toString())
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN','DEVICE_DELETE')")
     public ResponseEntity<Void> deleteDevice(
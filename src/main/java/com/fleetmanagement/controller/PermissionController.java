@@ -1,6 +1,7 @@
 package com.fleetmanagement.controller;
 
 import com.fleetmanagement.dto.request.PermissionRequestDto;
+import com.fleetmanagement.dto.response.CursorPage;
 import com.fleetmanagement.dto.response.PermissionResponseDto;
 import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.entity.Permission;
@@ -79,6 +80,16 @@ public class PermissionController {
         return ResponseEntity.ok(permissions);
     }
 
+    @GetMapping(value = "/scroll", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'PERMISSION_READ')")
+    public ResponseEntity<CursorPage<PermissionResponseDto>> scrollPermissions(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID userId = currentUser.getId();
+        return ResponseEntity.ok(permissionManagementService.scrollPermissions(userId, cursor, size));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'PERMISSION_DELETE')")
     public ResponseEntity<Void> deletePermission(
@@ -1,6 +1,7 @@
 package com.fleetmanagement.controller;
 
 import com.fleetmanagement.dto.request.RoleRequestDto;
+import com.fleetmanagement.dto.response.CursorPage;
 import com.fleetmanagement.dto.response.RoleResponseDto;
 import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.entity.Role;
@@ -71,6 +72,17 @@ public class RoleController {
         return ResponseEntity.ok(roles);
     }
 
+    @GetMapping(value = "/scroll", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ROLE_READ')")
+    public ResponseEntity<CursorPage<RoleResponseDto>> scrollRoles(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        return ResponseEntity.ok(roleService.scrollRoles(currentUserId, tenantId, cursor, size));
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ROLE_DELETE')")
     public ResponseEntity<Void> deleteRole(@PathVariable UUID id,
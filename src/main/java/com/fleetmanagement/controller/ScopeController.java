@@ -0,0 +1,51 @@
+package com.fleetmanagement.controller;
+
+import com.fleetmanagement.dto.request.ScopeNodeRequestDto;
+import com.fleetmanagement.dto.response.ScopeNodeResponseDto;
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.service.ScopeService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * REST Controller for managing region and fleet scopes
+ */
+@RestController
+@RequestMapping("/api/v1/scopes")
+@RequiredArgsConstructor
+public class ScopeController {
+
+    private final ScopeService scopeService;
+
+    @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ROLE_CREATE')")
+    public ResponseEntity<ScopeNodeResponseDto> createScope(@Valid @RequestBody ScopeNodeRequestDto requestDto,
+        @AuthenticationPrincipal UserLoginResponse currentUser) {
+        ScopeNodeResponseDto responseDto = scopeService.createScope(currentUser.getId(), requestDto);
+        return new ResponseEntity<>(responseDto, HttpStatus.CREATED);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ROLE_READ')")
+    public ResponseEntity<List<ScopeNodeResponseDto>> getScopes(@RequestParam(required = false) UUID tenantId,
+        @AuthenticationPrincipal UserLoginResponse currentUser) {
+        return ResponseEntity.ok(scopeService.getScopes(currentUser.getId(), tenantId));
+    }
+
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ROLE_DELETE')")
+    public ResponseEntity<Void> deleteScope(@PathVariable UUID id,
+        @AuthenticationPrincipal UserLoginResponse currentUser) {
+        scopeService.deleteScope(currentUser.getId(), id);
+        return ResponseEntity.noContent().build();
+    }
+}
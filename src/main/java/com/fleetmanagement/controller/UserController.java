@@ -1,9 +1,13 @@
 package com.fleetmanagement.controller;
 
+import com.fleetmanagement.dto.request.AssignmentDeltaRequest;
 import com.fleetmanagement.dto.request.CreateUserRequest;
 import com.fleetmanagement.dto.request.UpdateUserRequest;
+import com.fleetmanagement.dto.response.AssignmentDeltaResponse;
+import com.fleetmanagement.dto.response.CursorPage;
 import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.dto.response.UserResponse;
+import com.fleetmanagement.service.ExportService;
 import com.fleetmanagement.service.UserService;
 // import io.swagger.v3.oas.annotations.Operation;
 // import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,11 +20,14 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Set;
 import java.util.UUID;
@@ -38,6 +45,7 @@ import java.util.UUID;
 public class UserController {
 
     private final UserService userService;
+    private final ExportService exportService;
 
     @PostMapping
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'USER_CREATE')")
@@ -81,6 +89,37 @@ public class UserController {
         return ResponseEntity.ok(page);
     }
 
+    @GetMapping("/scroll")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'USER_READ')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<CursorPage<UserResponse>> scrollUsers(
+            @AuthenticationPrincipal UserLoginResponse currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        UUID currentUserId = currentUser.getId();
+        UUID tenantId = currentUser.getTenantId();
+        log.info("API call: ScrollUsers tenant:{} by {}", tenantId, currentUserId);
+        return ResponseEntity.ok(userService.scrollUsers(tenantId, currentUserId, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'USER_READ')")
+    @SecurityRequirement(name = "bearerAuth")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        StreamingResponseBody body = exportService.export(
+                currentUser.getId(), tenantId, ExportService.Dataset.USERS, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName(ExportService.Dataset.USERS)).build().toString())
+                .body(body);
+    }
+
     @PutMapping("/{userId}")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'USER_UPDATE')")
     // @Operation(summary = "Update user", description = "Update user information")
@@ -151,6 +190,48 @@ public class UserController {
         return ResponseEntity.ok(response);
     }
 
+    @PatchMapping("/{userId}/roles")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ASSIGN_ROLE')")
+    // @Operation(summary = "Update roles", description = "Add and remove roles of a user without resending the full set")
+    public ResponseEntity<AssignmentDeltaResponse> updateRoles(
+            @PathVariable UUID userId,
+            @Valid @RequestBody AssignmentDeltaRequest delta,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+
+        UUID currentUserId = currentUser.getId();
+        log.info("API call: UpdateRoles +{} -{} for {} by {}", delta.getAdd().size(), delta.getRemove().size(), userId, currentUserId);
+        AssignmentDeltaResponse response = userService.updateRoles(userId, delta, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/{userId}/devices")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ASSIGN_DEVICE')")
+    // @Operation(summary = "Update devices", description = "Add and remove devices of a user without resending the full set")
+    public ResponseEntity<AssignmentDeltaResponse> updateDevices(
+            @PathVariable UUID userId,
+            @Valid @RequestBody AssignmentDeltaRequest delta,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+
+        UUID currentUserId = currentUser.getId();
+        log.info("API call: UpdateDevices +{} -{} for {} by {}", delta.getAdd().size(), delta.getRemove().size(), userId, currentUserId);
+        AssignmentDeltaResponse response = userService.updateDevices(userId, delta, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PatchMapping("/{userId}/vehicles")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'ASSIGN_VEHICLE')")
+    // @Operation(summary = "Update vehicles", description = "Add and remove vehicles of a user without resending the full set")
+    public ResponseEntity<AssignmentDeltaResponse> updateVehicles(
+            @PathVariable UUID userId,
+            @Valid @RequestBody AssignmentDeltaRequest delta,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+
+        UUID currentUserId = currentUser.getId();
+        log.info("API call: UpdateVehicles +{} -{} for {} by {}", delta.getAdd().size(), delta.getRemove().size(), userId, currentUserId);
+        AssignmentDeltaResponse response = userService.updateVehicles(userId, delta, currentUserId);
+        return ResponseEntity.ok(response);
+    }
+
     @PatchMapping("/reset-password")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'USER_RESET_PASSWORD')")
     public ResponseEntity<String> resetPassword(
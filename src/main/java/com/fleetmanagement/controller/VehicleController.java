@@ -1,8 +1,11 @@
 package com.fleetmanagement.controller;
 
 import com.fleetmanagement.dto.request.VehicleRequestDto;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.dto.response.VehicleResponseDto;
 import com.fleetmanagement.entity.Vehicle;
+import com.fleetmanagement.service.ExportService;
 import com.fleetmanagement.service.VehicleService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,11 +13,15 @@ import lombok.RequiredArgsConstructor;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.UUID;
 
@@ -27,6 +34,7 @@ import java.util.UUID;
 public class VehicleController {
 
     private final VehicleService vehicleService;
+    private final ExportService exportService;
 
     @PostMapping(produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_CREATE')")
@@ -39,15 +47,18 @@ public class VehicleController {
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_UPDATE')")
     public ResponseEntity<VehicleResponseDto> updateVehicle(
             @PathVariable UUID id,
-            @Valid @RequestBody VehicleRequestDto requestDto) {
-        VehicleResponseDto responseDto = vehicleService.updateVehicle(id, requestDto);
+            @Valid @RequestBody VehicleRequestDto requestDto,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        VehicleResponseDto responseDto = vehicleService.updateVehicle(currentUser.getId(), id, requestDto);
         return ResponseEntity.ok(responseDto);
     }
 
     @GetMapping(value = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_READ')")
-    public ResponseEntity<VehicleResponseDto> getVehicleById(@PathVariable UUID id) {
-        VehicleResponseDto responseDto = vehicleService.getVehicleById(id);
+    public ResponseEntity<VehicleResponseDto> getVehicleById(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        VehicleResponseDto responseDto = vehicleService.getVehicleById(currentUser.getId(), id);
         return ResponseEntity.ok(responseDto);
     }
 
@@ -62,16 +73,47 @@ public class VehicleController {
             @RequestParam(required = false) Vehicle.VehicleType vehicleType,
             @RequestParam(required = false) Integer startYear,
             @RequestParam(required = false) Integer endYear,
-            @ParameterObject Pageable pageable) {
+            @ParameterObject Pageable pageable,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
         Page<VehicleResponseDto> vehicles = vehicleService.getAllVehicles(
-                tenantId, status, fleetId, brand, model, vehicleType, startYear, endYear, pageable);
+                currentUserId, tenantId, status, fleetId, brand, model, vehicleType, startYear, endYear, pageable);
         return ResponseEntity.ok(vehicles);
     }
 
+    @GetMapping(value = "/scroll", produces = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_READ')")
+    public ResponseEntity<CursorPage<VehicleResponseDto>> scrollVehicles(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        UUID currentUserId = currentUser.getId();
+        return ResponseEntity.ok(vehicleService.scrollVehicles(currentUserId, tenantId, cursor, size));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_READ')")
+    public ResponseEntity<StreamingResponseBody> exportVehicles(
+            @RequestParam(required = false) UUID tenantId,
+            @RequestParam(required = false) String format,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        ExportService.Format exportFormat = ExportService.Format.of(format);
+        StreamingResponseBody body = exportService.export(
+                currentUser.getId(), tenantId, ExportService.Dataset.VEHICLES, exportFormat);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(exportFormat.fileName(ExportService.Dataset.VEHICLES)).build().toString())
+                .body(body);
+    }
+
     @DeleteMapping("/{id}")
     @PreAuthorize("hasAnyAuthority('SUPER_ADMIN', 'VEHICLE_DELETE')")
-    public ResponseEntity<Void> deleteVehicle(@PathVariable UUID id) {
-        vehicleService.deleteVehicle(id);
+    public ResponseEntity<Void> deleteVehicle(
+            @PathVariable UUID id,
+            @AuthenticationPrincipal UserLoginResponse currentUser) {
+        vehicleService.deleteVehicle(currentUser.getId(), id);
         return ResponseEntity.noContent().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.fleetmanagement.dto.request;
+
+import com.fasterxml.jackson.annotation.JsonSetter;
+import com.fasterxml.jackson.annotation.Nulls;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DTO for an incremental assignment change - ids to add to and to remove from a user's current set
+ * Ids already assigned (add) or not assigned (remove) are ignored; a null set is read as empty
+ */
+@Data
+public class AssignmentDeltaRequest {
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    @Size(max = 5000, message = "At most 5000 ids to add per request")
+    private Set<UUID> add = new HashSet<>();
+
+    @JsonSetter(nulls = Nulls.AS_EMPTY)
+    @Size(max = 5000, message = "At most 5000 ids to remove per request")
+    private Set<UUID> remove = new HashSet<>();
+}
@@ -0,0 +1,36 @@
+package com.fleetmanagement.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * DTO for batch authorization checks
+ * Results are returned in the same order as the checks
+ */
+@Data
+public class AuthorizationCheckRequest {
+
+    @NotEmpty(message = "At least one check is required")
+    @Size(max = 500, message = "At most 500 checks per request")
+    private List<@Valid Check> checks;
+
+    @Data
+    public static class Check {
+
+        /**
+         * User to check, defaults to the authenticated user
+         */
+        private UUID userId;
+
+        @NotBlank(message = "Permission code is required")
+        private String permission;
+
+        private UUID scopeId;
+    }
+}
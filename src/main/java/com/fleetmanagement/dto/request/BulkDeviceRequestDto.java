@@ -0,0 +1,22 @@
+package com.fleetmanagement.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for registering a lot of devices in one request
+ * With allOrNothing a single failing item rejects the whole lot; otherwise every valid item is created
+ */
+@Data
+public class BulkDeviceRequestDto {
+
+    @NotEmpty(message = "At least one device is required")
+    @Size(max = 5000, message = "At most 5000 devices per request")
+    private List<@Valid DeviceRequestDto> devices;
+
+    private boolean allOrNothing;
+}
@@ -0,0 +1,34 @@
+package com.fleetmanagement.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for a lot of device heartbeats relayed by a gateway
+ */
+@Data
+public class HeartbeatRequestDto {
+
+    @NotEmpty(message = "At least one heartbeat is required")
+    @Size(max = 10000, message = "At most 10000 heartbeats per request")
+    private List<@Valid Heartbeat> heartbeats;
+
+    @Data
+    public static class Heartbeat {
+
+        @NotBlank(message = "IMEI is required")
+        @Size(max = 20, message = "IMEI cannot exceed 20 characters")
+        private String imei;
+
+        /**
+         * When the device reported; the time of receipt when absent
+         */
+        private LocalDateTime timestamp;
+    }
+}
@@ -30,5 +30,10 @@ public class RoleRequestDto {
     @NotNull(message = "Scope type is required")
     private Role.ScopeType scopeType;
 
+    /**
+     * Region or fleet node the role grants on - required for FLEET and REGIONAL roles
+     */
+    private UUID scopeId;
+
     private Set<UUID> permissionIds;
 }
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.fleetmanagement.dto.request;
+
+import com.fleetmanagement.entity.Role;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * DTO for creating region and fleet scopes
+ */
+@Data
+public class ScopeNodeRequestDto {
+
+    @NotNull(message = "Tenant ID is required")
+    private UUID tenantId;
+
+    /**
+     * Enclosing region, null to place the node directly below the tenant
+     */
+    private UUID parentId;
+
+    @NotNull(message = "Scope type is required")
+    private Role.ScopeType scopeType;
+
+    @NotBlank(message = "Scope name is required")
+    @Size(max = 100, message = "Scope name must not exceed 100 characters")
+    private String name;
+}
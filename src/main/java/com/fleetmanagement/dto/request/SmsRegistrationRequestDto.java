@@ -0,0 +1,36 @@
+package com.fleetmanagement.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * DTO for a lot of installer SMS relayed by a gateway
+ * Each text reads "REG &lt;imei&gt; &lt;model&gt; [&lt;sim number&gt;]"
+ */
+@Data
+public class SmsRegistrationRequestDto {
+
+    @NotEmpty(message = "At least one message is required")
+    @Size(max = 5000, message = "At most 5000 messages per request")
+    private List<@Valid Message> messages;
+
+    @Data
+    public static class Message {
+
+        /**
+         * The installer's phone number
+         */
+        @NotBlank(message = "Sender is required")
+        @Size(max = 20, message = "Sender cannot exceed 20 characters")
+        private String from;
+
+        @NotBlank(message = "Text is required")
+        @Size(max = 160, message = "Text cannot exceed 160 characters")
+        private String text;
+    }
+}
@@ -0,0 +1,17 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the outcome of an incremental assignment change - join rows actually inserted and deleted
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AssignmentDeltaResponse {
+
+    private int added;
+    private int removed;
+}
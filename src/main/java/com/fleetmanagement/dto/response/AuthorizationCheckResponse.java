@@ -0,0 +1,18 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for batch authorization check results, one entry per requested check in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationCheckResponse {
+
+    private List<Boolean> results;
+}
@@ -0,0 +1,40 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for bulk device registration results, one entry per requested device in request order
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeviceResponseDto {
+
+    private int created;
+    private int failed;
+    private List<Result> results;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Result {
+
+        private int index;
+        private String imei;
+        private boolean success;
+
+        /**
+         * The created device, null on failure
+         */
+        private DeviceResponseDto device;
+
+        /**
+         * Why the device was not created, null on success
+         */
+        private String error;
+    }
+}
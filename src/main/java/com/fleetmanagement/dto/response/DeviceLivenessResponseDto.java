@@ -0,0 +1,20 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * DTO for the live ONLINE/OFFLINE split of a tenant's reporting devices (all tenants when tenantId is null)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeviceLivenessResponseDto {
+
+    private UUID tenantId;
+    private int online;
+    private int offline;
+}
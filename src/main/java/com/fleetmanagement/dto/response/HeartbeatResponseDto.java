@@ -0,0 +1,26 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO acknowledging buffered heartbeats - they reach Device.lastHeartbeat with the next flush
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HeartbeatResponseDto {
+
+    private int accepted;
+
+    /**
+     * Heartbeats of devices outside the caller's tenant, or of unknown devices - dropped
+     */
+    private int rejected;
+
+    /**
+     * Distinct devices waiting for the next flush on this instance
+     */
+    private int pending;
+}
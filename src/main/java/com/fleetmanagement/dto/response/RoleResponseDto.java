@@ -19,6 +19,7 @@ public class RoleResponseDto {
     private Boolean active;
     private UUID tenantId;
     private Role.ScopeType scopeType;
+    private UUID scopeId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private UUID createdBy;
@@ -0,0 +1,28 @@
+package com.fleetmanagement.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fleetmanagement.entity.Role;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response DTO for region and fleet scopes
+ */
+@Data
+public class ScopeNodeResponseDto {
+
+    private UUID id;
+
+    private UUID tenantId;
+
+    private UUID parentId;
+
+    private Role.ScopeType scopeType;
+
+    private String name;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,29 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO acknowledging installer SMS - accepted registrations are persisted asynchronously
+ * Deferred messages did not fit in the queue and should be sent again; resending accepted ones is harmless
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SmsRegistrationResponseDto {
+
+    private int accepted;
+
+    /**
+     * IMEIs already registered or waiting in the queue
+     */
+    private int duplicates;
+
+    /**
+     * Texts that are not a registration
+     */
+    private int rejected;
+
+    private int deferred;
+}
@@ -22,6 +22,8 @@ public class UserLoginResponse implements UserDetails {
     private String password;
     private UUID tenantId;
     private Collection<? extends GrantedAuthority> authorities;
+    private Long authorizationVersion;
+    private String authorizationEpoch;
 
     @Override
     public boolean isAccountNonExpired() {
@@ -0,0 +1,24 @@
+package com.fleetmanagement.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * DTO describing what the authenticated user can do
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserPermissionsResponse {
+
+    private UUID userId;
+    private UUID tenantId;
+    private boolean superAdmin;
+    private Set<String> permissions;
+}
@@ -0,0 +1,51 @@
+package com.fleetmanagement.entity;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Authorization Change - read-only row of the authz_change_log change feed
+ * One row per tenant partition of the authorization graph touched by a change, or a full reload marker
+ * Written by database triggers (see V5__authorization_change_log.sql), never by the application
+ */
+@Entity
+@Immutable
+@Table(name = "authz_change_log", indexes = {
+        @Index(name = "idx_authz_change_log_changed_at", columnList = "changed_at")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuthorizationChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * Partition to reload - null for global roles and users
+     */
+    @Column(name = "tenant_id")
+    private UUID tenantId;
+
+    @Column(name = "full_reload", nullable = false)
+    private boolean fullReload;
+
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+}
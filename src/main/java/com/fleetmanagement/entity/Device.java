@@ -22,7 +22,9 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Device Entity - Represents GPS tracking devices
@@ -81,6 +83,9 @@ public class Device {
     @Column(name = "expiry_at")
     private LocalDateTime expiryAt;
 
+    @Column(name = "expiry_notified_at")
+    private LocalDateTime expiryNotifiedAt;
+
     @CreationTimestamp
     @Column(name = "installed_at", nullable = false, updatable = false)
     private LocalDateTime installedAt;
@@ -96,12 +101,16 @@ public class Device {
     private UUID modifiedBy;
 
     @ManyToMany(mappedBy = "devices", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<User> users;
 
     @OneToOne(mappedBy = "device", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Vehicle vehicle;
 
     public enum DeviceStatus {
-        REGISTERED, ACTIVE, INACTIVE, MAINTENANCE, DECOMMISSIONED
+        REGISTERED, ACTIVE, INACTIVE, MAINTENANCE, DECOMMISSIONED, EXPIRED
     }
 }
\ No newline at end of file
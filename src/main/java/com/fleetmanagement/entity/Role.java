@@ -60,6 +60,12 @@ public class Role {
     @Builder.Default
     private ScopeType scopeType = ScopeType.TENANT;
 
+    /**
+     * Region or fleet a FLEET / REGIONAL role grants on - null for TENANT and GLOBAL roles
+     */
+    @Column(name = "scope_id")
+    private UUID scopeId;
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,65 @@
+package com.fleetmanagement.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Scope Node - a region or fleet below a tenant
+ * Nodes form a tree per tenant (tenant -> regions -> fleets); vehicles hang off a fleet through Vehicle.fleetId
+ * and FLEET / REGIONAL roles are bound to a node through Role.scopeId
+ */
+@Entity
+@Table(name = "scope_nodes", indexes = {
+        @Index(name = "idx_scope_node_tenant", columnList = "tenant_id"),
+        @Index(name = "idx_scope_node_parent", columnList = "parent_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class ScopeNode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    @Column(name = "id")
+    @EqualsAndHashCode.Include
+    private UUID id;
+
+    @NotNull(message = "Tenant ID is required")
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    /**
+     * Enclosing region, null for nodes directly below the tenant
+     */
+    @Column(name = "parent_id")
+    private UUID parentId;
+
+    @NotNull(message = "Scope type is required")
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scope_type", nullable = false, length = 20)
+    private Role.ScopeType scopeType;
+
+    @NotBlank(message = "Scope name is required")
+    @Size(max = 100, message = "Scope name must not exceed 100 characters")
+    @Column(nullable = false, length = 100)
+    private String name;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
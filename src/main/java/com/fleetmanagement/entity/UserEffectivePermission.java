@@ -0,0 +1,53 @@
+package com.fleetmanagement.entity;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * User Effective Permission - read-only row of the user_effective_permissions projection
+ * One row per (active user, active permission granted through an active role)
+ * Maintained by database triggers (see V2__user_effective_permissions.sql), never written by the application
+ */
+@Entity
+@Immutable
+@Table(name = "user_effective_permissions", indexes = {
+        @Index(name = "idx_uep_user_code", columnList = "user_id, permission_code", unique = true),
+        @Index(name = "idx_uep_permission", columnList = "permission_id")
+})
+@IdClass(UserEffectivePermission.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserEffectivePermission {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Id
+    @Column(name = "permission_id")
+    private UUID permissionId;
+
+    @Column(name = "permission_code", nullable = false, length = 100)
+    private String permissionCode;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID userId;
+        private UUID permissionId;
+    }
+}
@@ -24,7 +24,9 @@ import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 /**
  * Vehicle Entity - Represents fleet vehicles with device assignments
@@ -95,9 +97,13 @@ public class Vehicle {
 
     @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
     @JoinColumn(name = "device_id")
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Device device;
 
     @ManyToMany(mappedBy = "vehicles", fetch = FetchType.LAZY)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Set<User> users;
 
     public enum VehicleType {
@@ -0,0 +1,23 @@
+package com.fleetmanagement.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published by DeviceExpiryService once the device's transition has committed
+ * Delivered at most once, on the sweeper's thread; listeners doing I/O should be @Async
+ */
+public record DeviceExpiryEvent(UUID deviceId, String imei, UUID tenantId, LocalDateTime expiryAt, Kind kind) {
+
+    public enum Kind {
+        /**
+         * The device expires within the notice period
+         */
+        EXPIRING_SOON,
+
+        /**
+         * The device's expiry passed and its status is now EXPIRED
+         */
+        EXPIRED
+    }
+}
@@ -0,0 +1,17 @@
+package com.fleetmanagement.event;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Published when a device goes ONLINE or OFFLINE - see DeviceLivenessTracker
+ * Delivered on the tracker's thread; listeners doing I/O should be @Async
+ *
+ * @param lastHeartbeat the latest heartbeat known when the transition happened
+ */
+public record DeviceLivenessEvent(UUID deviceId, String imei, UUID tenantId, State state, LocalDateTime lastHeartbeat) {
+
+    public enum State {
+        ONLINE, OFFLINE
+    }
+}
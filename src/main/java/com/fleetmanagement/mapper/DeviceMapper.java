@@ -5,63 +5,54 @@ import com.fleetmanagement.dto.response.DeviceResponseDto;
 import com.fleetmanagement.entity.Device;
 import com.fleetmanagement.entity.User;
 
-import lombok.RequiredArgsConstructor;
-
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.stream.Collectors;
+import java.util.UUID;
+
+import static com.fleetmanagement.mapper.MappingSupport.idsOf;
+import static com.fleetmanagement.mapper.MappingSupport.references;
 
 /**
  * Mapper for converting between Device entity and DTOs
  */
 @Component
-@RequiredArgsConstructor
 public class DeviceMapper {
 
-    private final ModelMapper modelMapper;
-
     public Device toEntity(DeviceRequestDto dto) {
-        Device device = modelMapper.map(dto, Device.class);
+        Device device = new Device();
+        copyFields(dto, device);
 
         if (dto.getUserIds() != null && !dto.getUserIds().isEmpty()) {
-            device.setUsers(dto.getUserIds().stream()
-                    .map(id -> {
-                        User user = new User();
-                        user.setId(id);
-                        return user;
-                    })
-                    .collect(Collectors.toSet()));
+            device.setUsers(references(dto.getUserIds(), DeviceMapper::userReference));
         }
 
         return device;
     }
 
     public void updateEntityFromDto(DeviceRequestDto dto, Device device) {
-        modelMapper.map(dto, device);
-
-        if (dto.getUserIds() != null) {
-            device.setUsers(dto.getUserIds().stream()
-                    .map(id -> {
-                        User user = new User();
-                        user.setId(id);
-                        return user;
-                    })
-                    .collect(Collectors.toSet()));
-        } else {
-            device.setUsers(null);
-        }
+        copyFields(dto, device);
+        device.setUsers(references(dto.getUserIds(), DeviceMapper::userReference));
     }
 
 
     public DeviceResponseDto toResponseDto(Device device) {
-        DeviceResponseDto response = modelMapper.map(device, DeviceResponseDto.class);
-
-        if (device.getUsers() != null) {
-            response.setUserIds(device.getUsers().stream()
-                    .map(User::getId)
-                    .collect(Collectors.toSet()));
-        }
+        DeviceResponseDto response = new DeviceResponseDto();
+        response.setId(device.getId());
+        response.setImei(device.getImei());
+        response.setDeviceModel(device.getDeviceModel());
+        response.setFirmwareVersion(device.getFirmwareVersion());
+        response.setSimNumber(device.getSimNumber());
+        response.setStatus(device.getStatus());
+        response.setTenantId(device.getTenantId());
+        response.setRegisteredBySms(device.getRegisteredBySms());
+        response.setInstallerPhone(device.getInstallerPhone());
+        response.setLastHeartbeat(device.getLastHeartbeat());
+        response.setExpiryAt(device.getExpiryAt());
+        response.setInstalledAt(device.getInstalledAt());
+        response.setUpdatedAt(device.getUpdatedAt());
+        response.setCreatedBy(device.getCreatedBy());
+
+        response.setUserIds(idsOf(device.getUsers(), User::getId));
 
         if (device.getVehicle() != null) {
             response.setVehicleId(device.getVehicle().getId());
@@ -69,4 +60,27 @@ public class DeviceMapper {
 
         return response;
     }
-}
\ No newline at end of file
+
+    /**
+     * Copy every scalar request field, nulls included
+     */
+    private static void copyFields(DeviceRequestDto dto, Device device) {
+        device.setImei(dto.getImei());
+        device.setDeviceModel(dto.getDeviceModel());
+        device.setFirmwareVersion(dto.getFirmwareVersion());
+        device.setSimNumber(dto.getSimNumber());
+        device.setStatus(dto.getStatus());
+        device.setTenantId(dto.getTenantId());
+        device.setRegisteredBySms(dto.getRegisteredBySms());
+        device.setInstallerPhone(dto.getInstallerPhone());
+        device.setExpiryAt(dto.getExpiryAt());
+        device.setCreatedBy(dto.getCreatedBy());
+        device.setModifiedBy(dto.getModifiedBy());
+    }
+
+    private static User userReference(UUID id) {
+        User user = new User();
+        user.setId(id);
+        return user;
+    }
+}
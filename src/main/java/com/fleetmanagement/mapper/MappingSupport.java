@@ -0,0 +1,49 @@
+package com.fleetmanagement.mapper;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Shared helpers for the hand-written mappers
+ * Plain loops into presized sets - no streams or collectors on the per-entity path
+ */
+final class MappingSupport {
+
+    private MappingSupport() {
+    }
+
+    /**
+     * Collect the ids of related entities, null when the relation is null
+     */
+    static <T> Set<UUID> idsOf(Collection<T> entities, Function<T, UUID> id) {
+        if (entities == null) {
+            return null;
+        }
+        Set<UUID> ids = new HashSet<>(capacity(entities.size()));
+        for (T entity : entities) {
+            ids.add(id.apply(entity));
+        }
+        return ids;
+    }
+
+    /**
+     * Build id-only references for the given ids, null when the ids are null
+     */
+    static <T> Set<T> references(Collection<UUID> ids, Function<UUID, T> reference) {
+        if (ids == null) {
+            return null;
+        }
+        Set<T> references = new HashSet<>(capacity(ids.size()));
+        for (UUID id : ids) {
+            references.add(reference.apply(id));
+        }
+        return references;
+    }
+
+    private static int capacity(int size) {
+        return Math.max(16, (int) (size / 0.75f) + 1);
+    }
+}
@@ -3,69 +3,66 @@ package com.fleetmanagement.mapper;
 import com.fleetmanagement.dto.request.PermissionRequestDto;
 import com.fleetmanagement.dto.response.PermissionResponseDto;
 import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
 
-import lombok.RequiredArgsConstructor;
-
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
+import static com.fleetmanagement.mapper.MappingSupport.idsOf;
+import static com.fleetmanagement.mapper.MappingSupport.references;
+
 
 
 @Component
-@RequiredArgsConstructor
 public class PermissionMapper {
 
-    private final ModelMapper modelMapper;
-
     public Permission toEntity(PermissionRequestDto dto) {
-        Permission response = modelMapper.map(dto, Permission.class);
+        Permission response = new Permission();
+        copyFields(dto, response);
 
         if(dto.getRoleIds() != null && !dto.getRoleIds().isEmpty()) {
-            Set<com.fleetmanagement.entity.Role> roles = dto.getRoleIds().stream()
-                    .map(id -> {
-                        com.fleetmanagement.entity.Role role = new com.fleetmanagement.entity.Role();
-                        role.setId(id);
-                        return role;
-                    })
-                    .collect(Collectors.toSet());
-            response.setRoles(roles);
+            response.setRoles(references(dto.getRoleIds(), PermissionMapper::roleReference));
         }
         return response;
     }
 
     public void updateEntityFromDto(PermissionRequestDto dto, Permission permission) {
-        modelMapper.map(dto, permission);
-
-        if(dto.getRoleIds() != null) {
-            Set<com.fleetmanagement.entity.Role> roles = dto.getRoleIds().stream()
-                    .map(id -> {
-                        com.fleetmanagement.entity.Role role = new com.fleetmanagement.entity.Role();
-                        role.setId(id);
-                        return role;
-                    })
-                    .collect(Collectors.toSet());
-            permission.setRoles(roles);
-        } else {
-            permission.setRoles(null);
-        }
-
-
+        copyFields(dto, permission);
+        permission.setRoles(references(dto.getRoleIds(), PermissionMapper::roleReference));
     }
 
     public PermissionResponseDto toResponseDto(Permission permission) {
-        PermissionResponseDto response = modelMapper.map(permission, PermissionResponseDto.class);
-
-        if (permission.getRoles() != null) {
-            Set<UUID> roleIds = permission.getRoles().stream()
-                    .map(role -> role.getId())
-                    .collect(java.util.stream.Collectors.toSet());
-            response.setRoleIds(roleIds);
-        }
+        PermissionResponseDto response = new PermissionResponseDto();
+        response.setId(permission.getId());
+        response.setCode(permission.getCode());
+        response.setName(permission.getName());
+        response.setDescription(permission.getDescription());
+        response.setCategory(permission.getCategory());
+        response.setActive(permission.getActive());
+        response.setRequiresScope(permission.getRequiresScope());
+        response.setCreatedAt(permission.getCreatedAt());
+
+        response.setRoleIds(idsOf(permission.getRoles(), Role::getId));
 
         return response;
     }
+
+    /**
+     * Copy every scalar request field, nulls included
+     */
+    private static void copyFields(PermissionRequestDto dto, Permission permission) {
+        permission.setCode(dto.getCode());
+        permission.setName(dto.getName());
+        permission.setDescription(dto.getDescription());
+        permission.setCategory(dto.getCategory());
+        permission.setActive(dto.getActive());
+        permission.setRequiresScope(dto.getRequiresScope());
+    }
+
+    private static Role roleReference(UUID id) {
+        Role role = new Role();
+        role.setId(id);
+        return role;
+    }
 }
\ No newline at end of file
@@ -5,68 +5,68 @@ import com.fleetmanagement.dto.response.RoleResponseDto;
 import com.fleetmanagement.entity.Permission;
 import com.fleetmanagement.entity.Role;
 
-import lombok.RequiredArgsConstructor;
-
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
 import java.util.UUID;
 
+import static com.fleetmanagement.mapper.MappingSupport.idsOf;
+import static com.fleetmanagement.mapper.MappingSupport.references;
+
 
 @Component
-@RequiredArgsConstructor
 public class RoleMapper {
 
-
-    private final ModelMapper modelMapper;
-
     public RoleResponseDto toResponseDto(Role role) {
-        RoleResponseDto response = modelMapper.map(role, RoleResponseDto.class);
-
-        if (role.getPermissions() != null) {
-            Set<UUID> permissionIds = role.getPermissions().stream()
-                    .map(Permission::getId)
-                    .collect(java.util.stream.Collectors.toSet());
-            response.setPermissionIds(permissionIds);
-        }
+        RoleResponseDto response = new RoleResponseDto();
+        response.setId(role.getId());
+        response.setName(role.getName());
+        response.setDescription(role.getDescription());
+        response.setActive(role.getActive());
+        response.setTenantId(role.getTenantId());
+        response.setScopeType(role.getScopeType());
+        response.setScopeId(role.getScopeId());
+        response.setCreatedAt(role.getCreatedAt());
+        response.setUpdatedAt(role.getUpdatedAt());
+        response.setCreatedBy(role.getCreatedBy());
+
+        response.setPermissionIds(idsOf(role.getPermissions(), Permission::getId));
 
         return response;
     }
 
     public Role toEntity(RoleRequestDto dto) {
 
-        Role response = modelMapper.map(dto, Role.class);
+        Role response = new Role();
+        copyFields(dto, response);
 
         if(dto.getPermissionIds() != null && !dto.getPermissionIds().isEmpty()) {
-            Set<Permission> permissions = dto.getPermissionIds().stream()
-                    .map(id -> {
-                        Permission permission = new Permission();
-                        permission.setId(id);
-                        return permission;
-                    })
-                    .collect(java.util.stream.Collectors.toSet());
-            response.setPermissions(permissions);
+            response.setPermissions(references(dto.getPermissionIds(), RoleMapper::permissionReference));
         }
         return response;
     }
 
     public void updateEntityFromDto(RoleRequestDto dto, Role role) {
 
-        modelMapper.map(dto, role);
-
-        if(dto.getPermissionIds() != null) {
-            Set<Permission> permissions = dto.getPermissionIds().stream()
-                    .map(id -> {
-                        Permission permission = new Permission();
-                        permission.setId(id);
-                        return permission;
-                    })
-                    .collect(java.util.stream.Collectors.toSet());
-            role.setPermissions(permissions);
-        } else {
-            role.setPermissions(null);
-        }
+        copyFields(dto, role);
+        role.setPermissions(references(dto.getPermissionIds(), RoleMapper::permissionReference));
+    }
+
+    /**
+     * Copy every scalar request field, nulls included
+     */
+    private static void copyFields(RoleRequestDto dto, Role role) {
+        role.setName(dto.getName());
+        role.setDescription(dto.getDescription());
+        role.setActive(dto.getActive());
+        role.setTenantId(dto.getTenantId());
+        role.setScopeType(dto.getScopeType());
+        role.setScopeId(dto.getScopeId());
+    }
+
+    private static Permission permissionReference(UUID id) {
+        Permission permission = new Permission();
+        permission.setId(id);
+        return permission;
     }
 
-}
\ No newline at end of file
+}
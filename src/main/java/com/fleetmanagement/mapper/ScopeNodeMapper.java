@@ -0,0 +1,33 @@
+package com.fleetmanagement.mapper;
+
+import com.fleetmanagement.dto.request.ScopeNodeRequestDto;
+import com.fleetmanagement.dto.response.ScopeNodeResponseDto;
+import com.fleetmanagement.entity.ScopeNode;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mapper for converting between ScopeNode entity and DTOs
+ */
+@Component
+public class ScopeNodeMapper {
+
+    public ScopeNodeResponseDto toResponseDto(ScopeNode node) {
+        ScopeNodeResponseDto response = new ScopeNodeResponseDto();
+        response.setId(node.getId());
+        response.setTenantId(node.getTenantId());
+        response.setParentId(node.getParentId());
+        response.setScopeType(node.getScopeType());
+        response.setName(node.getName());
+        response.setCreatedAt(node.getCreatedAt());
+        return response;
+    }
+
+    public ScopeNode toEntity(ScopeNodeRequestDto dto) {
+        return ScopeNode.builder()
+                .tenantId(dto.getTenantId())
+                .parentId(dto.getParentId())
+                .scopeType(dto.getScopeType())
+                .name(dto.getName())
+                .build();
+    }
+}
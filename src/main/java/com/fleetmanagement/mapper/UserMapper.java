@@ -7,81 +7,62 @@ import com.fleetmanagement.entity.Device;
 import com.fleetmanagement.entity.Role;
 import com.fleetmanagement.entity.User;
 import com.fleetmanagement.entity.Vehicle;
-import lombok.RequiredArgsConstructor;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+import static com.fleetmanagement.mapper.MappingSupport.idsOf;
+import static com.fleetmanagement.mapper.MappingSupport.references;
+
+/**
+ * Mapper for converting between User entity and DTOs
+ * Hand-written field copies - list endpoints map hundreds of users per request
+ */
 @Component
-@RequiredArgsConstructor
 public class UserMapper {
 
-    private final ModelMapper modelMapper;
-
-    public UserResponse toResponseDto(User user){
-        UserResponse response = modelMapper.map(user, UserResponse.class);
-
-        if (user.getRoles() != null) {
-            Set<UUID> roleIds = user.getRoles().stream()
-                    .map(Role::getId)
-                    .collect(Collectors.toSet());
-            response.setRoleIds(roleIds);
-        }
-
-        if (user.getDevices() != null) {
-            Set<UUID> deviceIds = user.getDevices().stream()
-                    .map(Device::getId)
-                    .collect(Collectors.toSet());
-            response.setDevicesIds(deviceIds);
-        }
-
-        if (user.getVehicles() != null) {
-            Set<UUID> vehicleIds = user.getVehicles().stream()
-                    .map(Vehicle::getId)
-                    .collect(Collectors.toSet());
-            response.setVehiclesIds(vehicleIds);
-        }
+    public UserResponse toResponseDto(User user) {
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setUsername(user.getUsername());
+        response.setEmail(user.getEmail());
+        response.setFirstName(user.getFirstName());
+        response.setLastName(user.getLastName());
+        response.setFullName(user.getFullName());
+        response.setPhoneNumber(user.getPhoneNumber());
+        response.setActive(user.getActive());
+        response.setLastLogin(user.getLastLogin());
+        response.setCreatedAt(user.getCreatedAt());
+        response.setUpdatedAt(user.getUpdatedAt());
+        response.setCreatedBy(user.getCreatedBy());
+        response.setModifiedBy(user.getModifiedBy());
+
+        response.setRoleIds(idsOf(user.getRoles(), Role::getId));
+        response.setDevicesIds(idsOf(user.getDevices(), Device::getId));
+        response.setVehiclesIds(idsOf(user.getVehicles(), Vehicle::getId));
 
         return response;
     }
 
-    public User toEntity(CreateUserRequest userRequest){
-        User user = modelMapper.map(userRequest, User.class);
+    public User toEntity(CreateUserRequest userRequest) {
+        User user = new User();
+        user.setUsername(userRequest.getUsername());
+        user.setEmail(userRequest.getEmail());
+        user.setFirstName(userRequest.getFirstName());
+        user.setLastName(userRequest.getLastName());
+        user.setPassword(userRequest.getPassword());
+        user.setPhoneNumber(userRequest.getPhoneNumber());
 
         if (userRequest.getRoleIds() != null && !userRequest.getRoleIds().isEmpty()) {
-            Set<Role> roles = userRequest.getRoleIds().stream()
-                    .map(id -> {
-                        Role role = new Role();
-                        role.setId(id);
-                        return role;
-                    })
-                    .collect(Collectors.toSet());
-            user.setRoles(roles);
+            user.setRoles(references(userRequest.getRoleIds(), UserMapper::roleReference));
         }
 
         if (userRequest.getDeviceIds() != null && !userRequest.getDeviceIds().isEmpty()) {
-            Set<Device> devices = userRequest.getDeviceIds().stream()
-                    .map(id -> {
-                        Device device = new Device();
-                        device.setId(id);
-                        return device;
-                    })
-                    .collect(Collectors.toSet());
-            user.setDevices(devices);
+            user.setDevices(references(userRequest.getDeviceIds(), UserMapper::deviceReference));
         }
 
         if (userRequest.getVehicleIds() != null && !userRequest.getVehicleIds().isEmpty()) {
-            Set<Vehicle> vehicles = userRequest.getVehicleIds().stream()
-                    .map(id -> {
-                        Vehicle vehicle = new Vehicle();
-                        vehicle.setId(id);
-                        return vehicle;
-                    })
-                    .collect(Collectors.toSet());
-            user.setVehicles(vehicles);
+            user.setVehicles(references(userRequest.getVehicleIds(), UserMapper::vehicleReference));
         }
 
         return user;
@@ -89,48 +70,34 @@ public class UserMapper {
 
     public void updateEntityFromDto(UpdateUserRequest dto, User user) {
         // Map simple fields
-        modelMapper.map(dto, user);
-
-        // Update roles
-        if (dto.getRoleIds() != null) {
-            Set<Role> roles = dto.getRoleIds().stream()
-                    .map(id -> {
-                        Role role = new Role();
-                        role.setId(id);
-                        return role;
-                    })
-                    .collect(Collectors.toSet());
-            user.setRoles(roles);
-        } else {
-            user.setRoles(null);
-        }
+        user.setEmail(dto.getEmail());
+        user.setFirstName(dto.getFirstName());
+        user.setLastName(dto.getLastName());
+        user.setPassword(dto.getPassword());
+        user.setPhoneNumber(dto.getPhoneNumber());
+        user.setTenantId(dto.getTenantId());
+
+        // Update roles, devices and vehicles - a null set clears the relation
+        user.setRoles(references(dto.getRoleIds(), UserMapper::roleReference));
+        user.setDevices(references(dto.getDeviceIds(), UserMapper::deviceReference));
+        user.setVehicles(references(dto.getVehicleIds(), UserMapper::vehicleReference));
+    }
 
-        // Update devices
-        if (dto.getDeviceIds() != null) {
-            Set<Device> devices = dto.getDeviceIds().stream()
-                    .map(id -> {
-                        Device device = new Device();
-                        device.setId(id);
-                        return device;
-                    })
-                    .collect(Collectors.toSet());
-            user.setDevices(devices);
-        } else {
-            user.setDevices(null);
-        }
+    private static Role roleReference(UUID id) {
+        Role role = new Role();
+        role.setId(id);
+        return role;
+    }
 
-        // Update vehicles
-        if (dto.getVehicleIds() != null) {
-            Set<Vehicle> vehicles = dto.getVehicleIds().stream()
-                    .map(id -> {
-                        Vehicle vehicle = new Vehicle();
-                        vehicle.setId(id);
-                        return vehicle;
-                    })
-                    .collect(Collectors.toSet());
-            user.setVehicles(vehicles);
-        } else {
-            user.setVehicles(null);
-        }
+    private static Device deviceReference(UUID id) {
+        Device device = new Device();
+        device.setId(id);
+        return device;
+    }
+
+    private static Vehicle vehicleReference(UUID id) {
+        Vehicle vehicle = new Vehicle();
+        vehicle.setId(id);
+        return vehicle;
     }
 }
@@ -10,12 +10,11 @@ import com.fleetmanagement.repository.UserRepository;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Component;
 
 import java.util.Set;
-import java.util.UUID;
-import java.util.stream.Collectors;
+
+import static com.fleetmanagement.mapper.MappingSupport.idsOf;
 
 /**
  * Mapper for converting between Vehicle entity and DTOs
@@ -26,11 +25,11 @@ public class VehicleMapper {
 
     private final UserRepository userRepository;
     private final DeviceRepository deviceRepository;
-    private final ModelMapper modelMapper;
 
 
     public Vehicle toEntity(VehicleRequestDto dto) {
-        Vehicle vehicle = modelMapper.map(dto, Vehicle.class);
+        Vehicle vehicle = new Vehicle();
+        copyFields(dto, vehicle);
 
         if (dto.getDeviceId() != null) {
             Device device = deviceRepository.findById(dto.getDeviceId())
@@ -50,7 +49,7 @@ public class VehicleMapper {
     }
 
     public void updateEntityFromDto(VehicleRequestDto dto, Vehicle vehicle) {
-        modelMapper.map(dto, vehicle);
+        copyFields(dto, vehicle);
 
         if (dto.getDeviceId() != null) {
             Device device = deviceRepository.findById(dto.getDeviceId())
@@ -72,20 +71,42 @@ public class VehicleMapper {
     }
 
     public VehicleResponseDto toResponseDto(Vehicle vehicle) {
-        VehicleResponseDto response = modelMapper.map(vehicle, VehicleResponseDto.class);
+        VehicleResponseDto response = new VehicleResponseDto();
+        response.setId(vehicle.getId());
+        response.setLicensePlate(vehicle.getLicensePlate());
+        response.setBrand(vehicle.getBrand());
+        response.setModel(vehicle.getModel());
+        response.setYear(vehicle.getYear());
+        response.setVin(vehicle.getVin());
+        response.setVehicleType(vehicle.getVehicleType());
+        response.setStatus(vehicle.getStatus());
+        response.setTenantId(vehicle.getTenantId());
+        response.setFleetId(vehicle.getFleetId());
+        response.setCreatedAt(vehicle.getCreatedAt());
+        response.setUpdatedAt(vehicle.getUpdatedAt());
 
         if(vehicle.getDevice() != null) {
             response.setDeviceId(vehicle.getDevice().getId());
         }
 
-        if(vehicle.getUsers() != null) {
-            Set<UUID> userIds = vehicle.getUsers().stream()
-                    .map(User::getId)
-                    .collect(Collectors.toSet());
-            response.setUserIds(userIds);
-        }
+        response.setUserIds(idsOf(vehicle.getUsers(), User::getId));
 
         return response;
     }
 
+    /**
+     * Copy every scalar request field, nulls included
+     */
+    private static void copyFields(VehicleRequestDto dto, Vehicle vehicle) {
+        vehicle.setLicensePlate(dto.getLicensePlate());
+        vehicle.setBrand(dto.getBrand());
+        vehicle.setModel(dto.getModel());
+        vehicle.setYear(dto.getYear());
+        vehicle.setVin(dto.getVin());
+        vehicle.setVehicleType(dto.getVehicleType());
+        vehicle.setStatus(dto.getStatus());
+        vehicle.setTenantId(dto.getTenantId());
+        vehicle.setFleetId(dto.getFleetId());
+    }
+
 }
\ No newline at end of file
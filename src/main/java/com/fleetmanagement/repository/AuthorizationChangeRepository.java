@@ -0,0 +1,40 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.AuthorizationChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Authorization Change Repository
+ * Incremental reads of the trigger-maintained authz_change_log feed
+ */
+@Repository
+public interface AuthorizationChangeRepository extends JpaRepository<AuthorizationChange, Long> {
+
+    /**
+     * Next changes after the watermark, oldest first
+     */
+    List<AuthorizationChange> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Highest id written so far, 0 when the feed is empty
+     */
+    @Query("SELECT COALESCE(MAX(c.id), 0) FROM AuthorizationChange c")
+    long findMaxId();
+
+    /**
+     * Prune changes every replica has long consumed
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM AuthorizationChange c WHERE c.changedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
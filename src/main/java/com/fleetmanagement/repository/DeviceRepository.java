@@ -1,23 +1,44 @@
 package com.fleetmanagement.repository;
 
 import com.fleetmanagement.entity.Device;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Device Repository with optimized queries for scalability
  * Includes custom queries for device management and SMS registration
  */
 @Repository
-public interface DeviceRepository extends JpaRepository<Device, UUID> {
+public interface DeviceRepository extends JpaRepository<Device, UUID>, JpaSpecificationExecutor<Device> {
+
+    /**
+     * Lock timeout Hibernate renders as SKIP LOCKED
+     */
+    String SKIP_LOCKED = "-2";
 
     /**
      * Find device by IMEI
@@ -29,6 +50,18 @@ public interface DeviceRepository extends JpaRepository<Device, UUID> {
      */
     boolean existsByImei(String imei);
 
+    /**
+     * Which of the given IMEIs are already registered - one query for a whole lot
+     */
+    @Query("SELECT d.imei FROM Device d WHERE d.imei IN :imeis")
+    Set<String> findExistingImeis(@Param("imeis") Collection<String> imeis);
+
+    /**
+     * Which of the given IMEIs belong to devices of the tenant
+     */
+    @Query("SELECT d.imei FROM Device d WHERE d.tenantId = :tenantId AND d.imei IN :imeis")
+    Set<String> findImeisInTenant(@Param("tenantId") UUID tenantId, @Param("imeis") Collection<String> imeis);
+
     /**
      * Find devices by status with pagination
      */
@@ -98,4 +131,111 @@ public interface DeviceRepository extends JpaRepository<Device, UUID> {
      */
     @Query("SELECT d FROM Device d WHERE d.expiryAt BETWEEN :now AND :futureTime")
     Page<Device> findDevicesExpiringSoon(@Param("now") LocalDateTime now, @Param("futureTime") LocalDateTime futureTime, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Liveness state of every device that has reported, read through a cursor - see DeviceLivenessTracker
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT d.id AS id, d.imei AS imei, d.tenantId AS tenantId, d.lastHeartbeat AS lastHeartbeat
+    FROM Device d
+    WHERE d.lastHeartbeat IS NOT NULL AND d.status <> com.fleetmanagement.entity.Device.DeviceStatus.DECOMMISSIONED
+    """)
+    Stream<DeviceLivenessRow> streamLiveness();
+
+    /**
+     * Same as streamLiveness for the given devices
+     */
+    @Query("""
+    SELECT d.id AS id, d.imei AS imei, d.tenantId AS tenantId, d.lastHeartbeat AS lastHeartbeat
+    FROM Device d
+    WHERE d.id IN :ids AND d.status <> com.fleetmanagement.entity.Device.DeviceStatus.DECOMMISSIONED
+    """)
+    List<DeviceLivenessRow> findLivenessByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Same as streamLiveness for the given IMEIs, whether they have reported or not
+     */
+    @Query("""
+    SELECT d.id AS id, d.imei AS imei, d.tenantId AS tenantId, d.lastHeartbeat AS lastHeartbeat
+    FROM Device d
+    WHERE d.imei IN :imeis AND d.status <> com.fleetmanagement.entity.Device.DeviceStatus.DECOMMISSIONED
+    """)
+    List<DeviceLivenessRow> findLivenessByImeiIn(@Param("imeis") Collection<String> imeis);
+
+    /**
+     * Claim devices due to expire, oldest first - SELECT ... FOR UPDATE SKIP LOCKED
+     * Rows locked by another sweeper are skipped rather than waited for; the claim holds until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("""
+    SELECT d FROM Device d
+    WHERE d.expiryAt <= :now AND d.status NOT IN (com.fleetmanagement.entity.Device.DeviceStatus.EXPIRED,
+                                                   com.fleetmanagement.entity.Device.DeviceStatus.DECOMMISSIONED)
+    ORDER BY d.expiryAt
+    """)
+    List<Device> claimDueForExpiry(@Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Same as claimDueForExpiry for devices expiring within (now, until] that were not notified yet
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("""
+    SELECT d FROM Device d
+    WHERE d.expiryAt > :now AND d.expiryAt <= :until AND d.expiryNotifiedAt IS NULL
+      AND d.status NOT IN (com.fleetmanagement.entity.Device.DeviceStatus.EXPIRED,
+                           com.fleetmanagement.entity.Device.DeviceStatus.DECOMMISSIONED)
+    ORDER BY d.expiryAt
+    """)
+    List<Device> claimDueForNotice(@Param("now") LocalDateTime now, @Param("until") LocalDateTime until, Limit limit);
+
+    @Modifying
+    @Query("""
+    UPDATE Device d SET d.status = com.fleetmanagement.entity.Device.DeviceStatus.EXPIRED, d.updatedAt = :now
+    WHERE d.id IN :ids
+    """)
+    int markExpired(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Device d SET d.expiryNotifiedAt = :now WHERE d.id IN :ids")
+    int markExpiryNotified(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * IMEI, vehicle and tenant of every device, read through a cursor - see DeviceImeiIndex
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("""
+    SELECT d.id AS id, d.imei AS imei, v.id AS vehicleId, d.tenantId AS tenantId
+    FROM Device d LEFT JOIN d.vehicle v
+    """)
+    Stream<DeviceResolutionRow> streamResolution();
+
+    /**
+     * Keyset windows over a tenant's devices, or over all devices - see KeysetCursor
+     */
+    Window<Device> findByTenantId(UUID tenantId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Device> findBy(ScrollPosition position, Sort sort, Limit limit);
+
+    interface DeviceLivenessRow {
+        UUID getId();
+
+        String getImei();
+
+        UUID getTenantId();
+
+        LocalDateTime getLastHeartbeat();
+    }
+
+    interface DeviceResolutionRow {
+        UUID getId();
+
+        String getImei();
+
+        UUID getVehicleId();
+
+        UUID getTenantId();
+    }
+}
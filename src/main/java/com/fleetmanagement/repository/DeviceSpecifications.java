@@ -0,0 +1,82 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.Device;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Device Specifications - composable filters for DeviceRepository
+ * Every factory returns null for an absent filter, so Specification.allOf skips it and all
+ * supplied filters end up ANDed into a single query
+ */
+public final class DeviceSpecifications {
+
+    private DeviceSpecifications() {
+    }
+
+    public static Specification<Device> inTenant(UUID tenantId) {
+        return tenantId == null ? null : (root, query, cb) -> cb.equal(root.get("tenantId"), tenantId);
+    }
+
+    public static Specification<Device> hasImei(String imei) {
+        return imei == null ? null : (root, query, cb) -> cb.equal(root.get("imei"), imei);
+    }
+
+    public static Specification<Device> hasStatus(Device.DeviceStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Device> hasModel(String deviceModel) {
+        return deviceModel == null ? null : (root, query, cb) -> cb.equal(root.get("deviceModel"), deviceModel);
+    }
+
+    public static Specification<Device> hasInstallerPhone(String installerPhone) {
+        return installerPhone == null ? null : (root, query, cb) -> cb.equal(root.get("installerPhone"), installerPhone);
+    }
+
+    public static Specification<Device> registeredBySms(Boolean registeredBySms) {
+        return registeredBySms == null ? null : (root, query, cb) -> cb.equal(root.get("registeredBySms"), registeredBySms);
+    }
+
+    /**
+     * Device installed in the vehicle - the vehicle owns the foreign key
+     */
+    public static Specification<Device> inVehicle(UUID vehicleId) {
+        return vehicleId == null ? null : (root, query, cb) -> cb.equal(root.join("vehicle").get("id"), vehicleId);
+    }
+
+    /**
+     * Device assigned to the user - joining on one user id yields at most one row per device
+     */
+    public static Specification<Device> assignedTo(UUID userId) {
+        return userId == null ? null : (root, query, cb) -> cb.equal(root.join("users").get("id"), userId);
+    }
+
+    public static Specification<Device> lastHeartbeatBefore(LocalDateTime time) {
+        return time == null ? null : (root, query, cb) -> cb.lessThan(root.get("lastHeartbeat"), time);
+    }
+
+    public static Specification<Device> expiresBefore(LocalDateTime time) {
+        return time == null ? null : (root, query, cb) -> cb.lessThan(root.get("expiryAt"), time);
+    }
+
+    /**
+     * Expiry within [start, end]; either bound may be left open
+     */
+    public static Specification<Device> expiresBetween(LocalDateTime start, LocalDateTime end) {
+        if (start == null && end == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (start == null) {
+                return cb.lessThanOrEqualTo(root.get("expiryAt"), end);
+            }
+            if (end == null) {
+                return cb.greaterThanOrEqualTo(root.get("expiryAt"), start);
+            }
+            return cb.between(root.get("expiryAt"), start, end);
+        };
+    }
+}
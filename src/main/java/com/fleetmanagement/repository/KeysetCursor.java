@@ -0,0 +1,79 @@
+package com.fleetmanagement.repository;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keyset Cursor - opaque seek token over (timestamp sort key, id)
+ * The token carries the last row of a window, so the next window is a "WHERE (key, id) > (?, ?)"
+ * seek on a composite index instead of an OFFSET scan, and no COUNT query is needed
+ */
+public final class KeysetCursor {
+
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 500;
+
+    private static final String ID = "id";
+    private static final String SEPARATOR = "|";
+
+    private KeysetCursor() {
+    }
+
+    /**
+     * Ascending order on the sort key with the id as unique tie-breaker
+     */
+    public static Sort sort(String sortProperty) {
+        return Sort.by(Sort.Order.asc(sortProperty), Sort.Order.asc(ID));
+    }
+
+    /**
+     * Window size, clamped to 1..MAX_SIZE
+     */
+    public static Limit limit(Integer size) {
+        int requested = size != null ? size : DEFAULT_SIZE;
+        return Limit.of(Math.max(1, Math.min(requested, MAX_SIZE)));
+    }
+
+    /**
+     * Decode a client cursor; no cursor starts at the beginning
+     */
+    public static ScrollPosition decode(String cursor, String sortProperty) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortProperty, LocalDateTime.parse(raw.substring(0, separator)));
+            keys.put(ID, UUID.fromString(raw.substring(separator + 1)));
+            return ScrollPosition.forward(keys);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Cursor pointing after the last row of the window, null when there is nothing further
+     */
+    public static String next(Window<?> window, String sortProperty) {
+        if (window.isEmpty() || !window.hasNext()) {
+            return null;
+        }
+
+        Map<String, ?> keys = ((KeysetScrollPosition) window.positionAt(window.size() - 1)).getKeys();
+        String raw = keys.get(sortProperty) + SEPARATOR + keys.get(ID);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,9 +1,14 @@
 package com.fleetmanagement.repository;
 
 import com.fleetmanagement.entity.Permission;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -18,7 +23,7 @@ import java.util.UUID;
  * Includes custom queries for permission management operations
  */
 @Repository
-public interface PermissionRepository extends JpaRepository<Permission, UUID> {
+public interface PermissionRepository extends JpaRepository<Permission, UUID>, JpaSpecificationExecutor<Permission> {
 
     /**
      * Find permission by code
@@ -72,4 +77,9 @@ public interface PermissionRepository extends JpaRepository<Permission, UUID> {
     List<Permission> findByActiveTrueOrderByCategory();
 
     Set<Permission> findAllByIdIn(Set<UUID> ids);
-}
\ No newline at end of file
+
+    /**
+     * Keyset windows over active permissions - see KeysetCursor
+     */
+    Window<Permission> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+}
@@ -0,0 +1,44 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.Permission;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Permission Specifications - composable filters for PermissionRepository
+ * Every factory returns null for an absent filter, so Specification.allOf skips it
+ */
+public final class PermissionSpecifications {
+
+    private PermissionSpecifications() {
+    }
+
+    public static Specification<Permission> isActive() {
+        return (root, query, cb) -> cb.isTrue(root.get("active"));
+    }
+
+    public static Specification<Permission> hasCode(String code) {
+        return code == null ? null : (root, query, cb) -> cb.equal(root.get("code"), code);
+    }
+
+    public static Specification<Permission> inCategory(Permission.PermissionCategory category) {
+        return category == null ? null : (root, query, cb) -> cb.equal(root.get("category"), category);
+    }
+
+    public static Specification<Permission> requiresScope(Boolean requiresScope) {
+        return requiresScope == null ? null : (root, query, cb) -> cb.equal(root.get("requiresScope"), requiresScope);
+    }
+
+    public static Specification<Permission> nameContains(String name) {
+        return name == null ? null : (root, query, cb) ->
+                cb.like(cb.lower(root.get("name")), "%" + name.toLowerCase() + "%");
+    }
+
+    /**
+     * Permission granted by the role - joining on one role id yields at most one row per permission
+     */
+    public static Specification<Permission> grantedByRole(UUID roleId) {
+        return roleId == null ? null : (root, query, cb) -> cb.equal(root.join("roles").get("id"), roleId);
+    }
+}
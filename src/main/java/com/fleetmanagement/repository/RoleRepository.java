@@ -1,13 +1,19 @@
 package com.fleetmanagement.repository;
 
 import com.fleetmanagement.entity.Role;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -88,4 +94,76 @@ public interface RoleRepository extends JpaRepository<Role, UUID> {
      * Find roles by tenant ID and scope type with active status
      */
     Page<Role> findByTenantIdAndScopeTypeAndActiveTrue(@Param("tenantId") UUID tenantId, @Param("scopeType") Role.ScopeType scopeType, Pageable pageable);
-}
\ No newline at end of file
+
+    /**
+     * Keyset windows over a tenant's active roles, or over all active roles - see KeysetCursor
+     */
+    Window<Role> findByTenantIdAndActiveTrue(UUID tenantId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Role> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Roles with their permissions, one IN query for a whole assignment
+     */
+    @Query("SELECT DISTINCT r FROM Role r LEFT JOIN FETCH r.permissions WHERE r.id IN :ids")
+    List<Role> findWithPermissionsByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Active permission codes of every active role - one row per (role, code), a null code for empty roles
+     */
+    @Query("""
+    SELECT r.id AS roleId, r.tenantId AS tenantId, r.scopeId AS scopeId, p.code AS permissionCode
+    FROM Role r
+    LEFT JOIN r.permissions p ON p.active = true
+    WHERE r.active = true
+    """)
+    List<RoleGrantRow> findAllRoleGrants();
+
+    /**
+     * Same as findAllRoleGrants for the roles of one tenant
+     */
+    @Query("""
+    SELECT r.id AS roleId, r.tenantId AS tenantId, r.scopeId AS scopeId, p.code AS permissionCode
+    FROM Role r
+    LEFT JOIN r.permissions p ON p.active = true
+    WHERE r.active = true AND r.tenantId = :tenantId
+    """)
+    List<RoleGrantRow> findRoleGrantsByTenantId(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Same as findAllRoleGrants for the global roles (no tenant)
+     */
+    @Query("""
+    SELECT r.id AS roleId, r.tenantId AS tenantId, r.scopeId AS scopeId, p.code AS permissionCode
+    FROM Role r
+    LEFT JOIN r.permissions p ON p.active = true
+    WHERE r.active = true AND r.tenantId IS NULL
+    """)
+    List<RoleGrantRow> findGlobalRoleGrants();
+
+    /**
+     * Same as findAllRoleGrants for the roles bound to a region or fleet
+     */
+    @Query("""
+    SELECT r.id AS roleId, r.tenantId AS tenantId, r.scopeId AS scopeId, p.code AS permissionCode
+    FROM Role r
+    LEFT JOIN r.permissions p ON p.active = true
+    WHERE r.active = true AND r.scopeId IS NOT NULL
+    """)
+    List<RoleGrantRow> findScopedRoleGrants();
+
+    /**
+     * Check whether any role is bound to a scope node
+     */
+    boolean existsByScopeId(UUID scopeId);
+
+    interface RoleGrantRow {
+        UUID getRoleId();
+
+        UUID getTenantId();
+
+        UUID getScopeId();
+
+        String getPermissionCode();
+    }
+}
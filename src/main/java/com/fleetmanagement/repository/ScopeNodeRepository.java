@@ -0,0 +1,26 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.ScopeNode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Scope Node Repository
+ * The whole tree is small and read at once by ScopeHierarchy
+ */
+@Repository
+public interface ScopeNodeRepository extends JpaRepository<ScopeNode, UUID> {
+
+    /**
+     * Nodes of a tenant
+     */
+    List<ScopeNode> findByTenantIdOrderByName(UUID tenantId);
+
+    /**
+     * Check whether a node still has child nodes
+     */
+    boolean existsByParentId(UUID parentId);
+}
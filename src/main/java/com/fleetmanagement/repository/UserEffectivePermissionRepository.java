@@ -0,0 +1,61 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.UserEffectivePermission;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * User Effective Permission Repository
+ * Narrow reads of the trigger-maintained user_effective_permissions projection
+ */
+@Repository
+public interface UserEffectivePermissionRepository
+        extends JpaRepository<UserEffectivePermission, UserEffectivePermission.Key> {
+
+    /**
+     * Tenant, status and permission codes of a user in one indexed scan
+     * Returns one row per permission, a single row with a null code when the user has none,
+     * and no rows when the user does not exist
+     * Active scoped roles (not part of the projection) come along as a second, normally empty, column
+     */
+    @Query("""
+    SELECT u.id AS userId, u.tenantId AS tenantId, u.active AS active, e.permissionCode AS permissionCode,
+           sr.id AS scopedRoleId
+    FROM User u
+    LEFT JOIN UserEffectivePermission e ON e.userId = u.id
+    LEFT JOIN u.roles sr ON sr.scopeId IS NOT NULL AND sr.active = true
+    WHERE u.id = :userId
+    """)
+    List<EffectivePermissionRow> findEffectivePermissions(@Param("userId") UUID userId);
+
+    /**
+     * Same as findEffectivePermissions for many users in one IN query
+     */
+    @Query("""
+    SELECT u.id AS userId, u.tenantId AS tenantId, u.active AS active, e.permissionCode AS permissionCode,
+           sr.id AS scopedRoleId
+    FROM User u
+    LEFT JOIN UserEffectivePermission e ON e.userId = u.id
+    LEFT JOIN u.roles sr ON sr.scopeId IS NOT NULL AND sr.active = true
+    WHERE u.id IN :userIds
+    """)
+    List<EffectivePermissionRow> findEffectivePermissionsIn(@Param("userIds") Collection<? extends UUID> userIds);
+
+    interface EffectivePermissionRow {
+        UUID getUserId();
+
+        UUID getTenantId();
+
+        Boolean getActive();
+
+        String getPermissionCode();
+
+        UUID getScopedRoleId();
+    }
+}
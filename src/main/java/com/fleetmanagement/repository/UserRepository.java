@@ -1,13 +1,20 @@
 package com.fleetmanagement.repository;
 
 import com.fleetmanagement.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
@@ -35,16 +42,38 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     boolean existsByUsername(String username);
 
-    @Query("""
-    SELECT DISTINCT u FROM User u
-    LEFT JOIN FETCH u.roles
-    LEFT JOIN FETCH u.devices
-    LEFT JOIN FETCH u.vehicles
-    WHERE u.tenantId = :tenantId AND u.active = true
-    """)
-    Page<User> findAllWithRelations(@Param("tenantId") UUID tenantId,Pageable pageable);
+    /**
+     * Page over the ids of a tenant's active users - phase one of the two-phase listing
+     * Narrow and index-backed; relations are loaded afterwards for just these ids
+     */
+    @Query(value = "SELECT u.id FROM User u WHERE u.tenantId = :tenantId AND u.active = true",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.tenantId = :tenantId AND u.active = true")
+    Page<UUID> findActiveIdsByTenantId(@Param("tenantId") UUID tenantId, Pageable pageable);
 
+    /**
+     * Phase two: one IN query per collection, so rows never multiply roles x devices x vehicles
+     * All three run in the same persistence context and initialize the same user instances
+     */
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.roles WHERE u.id IN :ids")
+    List<User> findWithRolesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.devices WHERE u.id IN :ids")
+    List<User> findWithDevicesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Query("SELECT DISTINCT u FROM User u LEFT JOIN FETCH u.vehicles WHERE u.id IN :ids")
+    List<User> findWithVehiclesByIdIn(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Users other than the given one already assigned to each device / vehicle - one grouped query per lot
+     * Targets without other assignments have no row
+     */
+    @Query("SELECT d.id AS targetId, COUNT(u) AS assignments FROM User u JOIN u.devices d "
+            + "WHERE d.id IN :deviceIds AND u.id <> :userId GROUP BY d.id")
+    List<AssignmentCount> countOtherDeviceAssignments(@Param("deviceIds") Collection<UUID> deviceIds, @Param("userId") UUID userId);
 
+    @Query("SELECT v.id AS targetId, COUNT(u) AS assignments FROM User u JOIN u.vehicles v "
+            + "WHERE v.id IN :vehicleIds AND u.id <> :userId GROUP BY v.id")
+    List<AssignmentCount> countOtherVehicleAssignments(@Param("vehicleIds") Collection<UUID> vehicleIds, @Param("userId") UUID userId);
 
     @Query("""
     SELECT u FROM User u
@@ -123,5 +152,101 @@ public interface UserRepository extends JpaRepository<User, UUID> {
 
     Optional<User> findByIdAndActiveTrue(UUID id);
 
+    /**
+     * Find ids of users holding a specific role (for permission invalidation)
+     */
+    @Query("SELECT u.id FROM User u JOIN u.roles r WHERE r.id = :roleId")
+    Set<UUID> findIdsByRoleId(@Param("roleId") UUID roleId);
+
+    /**
+     * Find ids of users granted a specific permission through any role (for permission invalidation)
+     */
+    @Query("SELECT DISTINCT u.id FROM User u JOIN u.roles r JOIN r.permissions p WHERE p.id = :permissionId")
+    Set<UUID> findIdsByPermissionId(@Param("permissionId") UUID permissionId);
+
     Set<User> findAllByIdIn(Set<UUID> userIds);
-}
\ No newline at end of file
+
+    /**
+     * Keyset windows over a tenant's active users - see KeysetCursor
+     */
+    Window<User> findByTenantIdAndActiveTrue(UUID tenantId, ScrollPosition position, Sort sort, Limit limit);
+
+    /**
+     * Incremental assignment changes written straight to the join tables
+     * Only the given rows are touched; the user's collections are neither loaded nor rewritten
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_roles (user_id, role_id) SELECT :userId, r.id FROM roles r "
+            + "WHERE r.id IN :roleIds ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addRoles(@Param("userId") UUID userId, @Param("roleIds") Collection<UUID> roleIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_roles WHERE user_id = :userId AND role_id IN :roleIds", nativeQuery = true)
+    int removeRoles(@Param("userId") UUID userId, @Param("roleIds") Collection<UUID> roleIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_devices (user_id, device_id) SELECT :userId, d.id FROM devices d "
+            + "WHERE d.id IN :deviceIds ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addDevices(@Param("userId") UUID userId, @Param("deviceIds") Collection<UUID> deviceIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_devices WHERE user_id = :userId AND device_id IN :deviceIds", nativeQuery = true)
+    int removeDevices(@Param("userId") UUID userId, @Param("deviceIds") Collection<UUID> deviceIds);
+
+    @Modifying
+    @Query(value = "INSERT INTO user_vehicles (user_id, vehicle_id) SELECT :userId, v.id FROM vehicles v "
+            + "WHERE v.id IN :vehicleIds ON CONFLICT DO NOTHING", nativeQuery = true)
+    int addVehicles(@Param("userId") UUID userId, @Param("vehicleIds") Collection<UUID> vehicleIds);
+
+    @Modifying
+    @Query(value = "DELETE FROM user_vehicles WHERE user_id = :userId AND vehicle_id IN :vehicleIds", nativeQuery = true)
+    int removeVehicles(@Param("userId") UUID userId, @Param("vehicleIds") Collection<UUID> vehicleIds);
+
+    /**
+     * Role ids of every user - one row per (user, role), a null role for users without roles
+     */
+    @Query("""
+    SELECT u.id AS userId, u.tenantId AS tenantId, u.active AS active, r.id AS roleId
+    FROM User u
+    LEFT JOIN u.roles r
+    """)
+    List<RoleMembershipRow> findAllRoleMemberships();
+
+    /**
+     * Same as findAllRoleMemberships for the users of one tenant
+     */
+    @Query("""
+    SELECT u.id AS userId, u.tenantId AS tenantId, u.active AS active, r.id AS roleId
+    FROM User u
+    LEFT JOIN u.roles r
+    WHERE u.tenantId = :tenantId
+    """)
+    List<RoleMembershipRow> findRoleMembershipsByTenantId(@Param("tenantId") UUID tenantId);
+
+    /**
+     * Same as findAllRoleMemberships for the global users (no tenant)
+     */
+    @Query("""
+    SELECT u.id AS userId, u.tenantId AS tenantId, u.active AS active, r.id AS roleId
+    FROM User u
+    LEFT JOIN u.roles r
+    WHERE u.tenantId IS NULL
+    """)
+    List<RoleMembershipRow> findGlobalRoleMemberships();
+
+    interface RoleMembershipRow {
+        UUID getUserId();
+
+        UUID getTenantId();
+
+        Boolean getActive();
+
+        UUID getRoleId();
+    }
+
+    interface AssignmentCount {
+        UUID getTargetId();
+
+        Long getAssignments();
+    }
+}
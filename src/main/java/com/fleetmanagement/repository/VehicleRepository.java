@@ -1,9 +1,14 @@
 package com.fleetmanagement.repository;
 
 import com.fleetmanagement.entity.Vehicle;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -16,7 +21,7 @@ import java.util.UUID;
  * Includes custom queries for vehicle and fleet management operations
  */
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, UUID> {
+public interface VehicleRepository extends JpaRepository<Vehicle, UUID>, JpaSpecificationExecutor<Vehicle> {
 
     /**
      * Find vehicle by license plate
@@ -117,4 +122,11 @@ public interface VehicleRepository extends JpaRepository<Vehicle, UUID> {
      * Check if VIN exists
      */
     boolean existsByVin(String vin);
-}
\ No newline at end of file
+
+    /**
+     * Keyset windows over a tenant's vehicles, or over all vehicles - see KeysetCursor
+     */
+    Window<Vehicle> findByTenantId(UUID tenantId, ScrollPosition position, Sort sort, Limit limit);
+
+    Window<Vehicle> findBy(ScrollPosition position, Sort sort, Limit limit);
+}
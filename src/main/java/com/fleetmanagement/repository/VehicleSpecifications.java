@@ -0,0 +1,58 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.Vehicle;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.UUID;
+
+/**
+ * Vehicle Specifications - composable filters for VehicleRepository
+ * Every factory returns null for an absent filter, so Specification.allOf skips it
+ */
+public final class VehicleSpecifications {
+
+    private VehicleSpecifications() {
+    }
+
+    public static Specification<Vehicle> inTenant(UUID tenantId) {
+        return tenantId == null ? null : (root, query, cb) -> cb.equal(root.get("tenantId"), tenantId);
+    }
+
+    public static Specification<Vehicle> hasStatus(Vehicle.VehicleStatus status) {
+        return status == null ? null : (root, query, cb) -> cb.equal(root.get("status"), status);
+    }
+
+    public static Specification<Vehicle> inFleet(UUID fleetId) {
+        return fleetId == null ? null : (root, query, cb) -> cb.equal(root.get("fleetId"), fleetId);
+    }
+
+    public static Specification<Vehicle> hasBrand(String brand) {
+        return brand == null ? null : (root, query, cb) -> cb.equal(root.get("brand"), brand);
+    }
+
+    public static Specification<Vehicle> hasModel(String model) {
+        return model == null ? null : (root, query, cb) -> cb.equal(root.get("model"), model);
+    }
+
+    public static Specification<Vehicle> hasType(Vehicle.VehicleType vehicleType) {
+        return vehicleType == null ? null : (root, query, cb) -> cb.equal(root.get("vehicleType"), vehicleType);
+    }
+
+    /**
+     * Model year within [startYear, endYear]; either bound may be left open
+     */
+    public static Specification<Vehicle> yearBetween(Integer startYear, Integer endYear) {
+        if (startYear == null && endYear == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (startYear == null) {
+                return cb.lessThanOrEqualTo(root.get("year"), endYear);
+            }
+            if (endYear == null) {
+                return cb.greaterThanOrEqualTo(root.get("year"), startYear);
+            }
+            return cb.between(root.get("year"), startYear, endYear);
+        };
+    }
+}
@@ -0,0 +1,155 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.entity.AuthorizationChange;
+import com.fleetmanagement.repository.AuthorizationChangeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+/**
+ * Authorization Change Feed
+ * Keeps the AuthorizationGraph of this replica in step with the database by polling the trigger-written
+ * authz_change_log incrementally: every poll reads the rows after the watermark, reloads the partitions
+ * they name and evicts exactly the users whose snapshot changed
+ *
+ * Ids are taken from a sequence before commit, so a lower id can become visible after a higher one.
+ * The watermark only advances over contiguous ids; a gap is waited for up to gap-timeout (rolled back
+ * transactions leave permanent gaps), and a periodic full resync covers anything skipped
+ */
+@Component
+@ConditionalOnProperty(name = "app.permissions.graph.enabled", havingValue = "true")
+@Slf4j
+public class AuthorizationChangeFeed {
+
+    private final AuthorizationChangeRepository changeRepository;
+    private final AuthorizationGraph graph;
+    private final PermissionSnapshotCache snapshotCache;
+    private final AuthorizationVersionRegistry versionRegistry;
+    private final int batchSize;
+    private final Duration gapTimeout;
+    private final Duration retention;
+
+    private final TreeSet<Long> appliedAboveWatermark = new TreeSet<>();
+    private long watermark = -1;
+    private long gapSince;
+
+    public AuthorizationChangeFeed(
+            AuthorizationChangeRepository changeRepository,
+            AuthorizationGraph graph,
+            PermissionSnapshotCache snapshotCache,
+            AuthorizationVersionRegistry versionRegistry,
+            @Value("${app.permissions.graph.batch-size:500}") int batchSize,
+            @Value("${app.permissions.graph.gap-timeout:30s}") Duration gapTimeout,
+            @Value("${app.permissions.graph.retention:1d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.graph = graph;
+        this.snapshotCache = snapshotCache;
+        this.versionRegistry = versionRegistry;
+        this.batchSize = batchSize;
+        this.gapTimeout = gapTimeout;
+        this.retention = retention;
+    }
+
+    /**
+     * Build the graph once the application is up
+     * The watermark is read first: changes committed during the load are replayed, which is idempotent
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        long start = changeRepository.findMaxId();
+        graph.loadAll();
+        watermark = start;
+        log.info("Authorization change feed started at change: {}", start);
+    }
+
+    /**
+     * Apply the changes committed since the last poll
+     *
+     * @return number of change rows applied
+     */
+    @Scheduled(fixedDelayString = "${app.permissions.graph.poll-interval:1s}")
+    public synchronized int poll() {
+        if (watermark < 0) {
+            return 0;
+        }
+
+        // Step 1: Collect the partitions named by changes not applied yet
+        List<AuthorizationChange> changes = changeRepository.findByIdGreaterThanOrderByIdAsc(watermark, Limit.of(batchSize));
+        Set<UUID> tenantIds = new HashSet<>();
+        boolean fullReload = false;
+        int applied = 0;
+        for (AuthorizationChange change : changes) {
+            if (appliedAboveWatermark.add(change.getId())) {
+                fullReload |= change.isFullReload();
+                tenantIds.add(change.getTenantId());
+                applied++;
+            }
+        }
+
+        // Step 2: Reload them and evict the users whose permissions changed
+        if (fullReload) {
+            evict(graph.loadAll());
+        } else if (!tenantIds.isEmpty()) {
+            evict(graph.reload(tenantIds));
+        }
+
+        // Step 3: Move the watermark over the contiguous prefix
+        advanceWatermark();
+        return applied;
+    }
+
+    /**
+     * Safety net for changes skipped over a gap - rebuild everything and prune consumed changes
+     */
+    @Scheduled(initialDelayString = "${app.permissions.graph.resync-interval:15m}",
+            fixedDelayString = "${app.permissions.graph.resync-interval:15m}")
+    public synchronized void resync() {
+        if (watermark < 0) {
+            return;
+        }
+        evict(graph.loadAll());
+        int pruned = changeRepository.deleteOlderThan(LocalDateTime.now().minus(retention));
+        log.debug("Authorization graph resynced, {} consumed changes pruned", pruned);
+    }
+
+    private void evict(Set<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        snapshotCache.evictAll(userIds);
+        userIds.forEach(versionRegistry::invalidateUser);
+        log.debug("Authorization changes applied for {} users", userIds.size());
+    }
+
+    private void advanceWatermark() {
+        while (!appliedAboveWatermark.isEmpty()) {
+            long next = appliedAboveWatermark.first();
+            if (next != watermark + 1) {
+                // A transaction holding a lower id has not committed yet - wait for it, but not forever
+                long now = System.nanoTime();
+                if (gapSince == 0) {
+                    gapSince = now;
+                }
+                if (now - gapSince < gapTimeout.toNanos()) {
+                    return;
+                }
+                log.warn("Skipping authorization change ids {}..{} not committed after {}", watermark + 1, next - 1, gapTimeout);
+            }
+            watermark = appliedAboveWatermark.pollFirst();
+            gapSince = 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Authorization Context - what the authenticated caller may do during one request
+ * Resolved once from the authenticated principal so services do not re-query the caller
+ *
+ * @param snapshot permission snapshot of the caller, taken when the request was authenticated
+ */
+public record AuthorizationContext(PermissionSnapshot snapshot) {
+
+    /**
+     * Build context from the principal set up by JwtAuthenticationFilter
+     * Its authorities are the caller's effective permission codes; scoped ones are left to the
+     * service checks that resolve the resource's fleet or region
+     */
+    public static AuthorizationContext from(UserLoginResponse principal, PermissionRegistry registry) {
+        PermissionSet.Builder builder = PermissionSet.builder();
+        if (principal.getAuthorities() != null) {
+            principal.getAuthorities().stream()
+                    .filter(authority -> !(authority instanceof ScopedAuthority))
+                    .map(GrantedAuthority::getAuthority)
+                    .filter(Objects::nonNull)
+                    .forEach(code -> builder.add(registry.intern(code)));
+        }
+
+        return new AuthorizationContext(PermissionSnapshot.of(
+                principal.getId(), principal.getTenantId(), true, builder.build(), registry));
+    }
+
+    public UUID userId() {
+        return snapshot.userId();
+    }
+
+    public UUID tenantId() {
+        return snapshot.tenantId();
+    }
+
+    public boolean isSuperAdmin() {
+        return snapshot.isSuperAdmin();
+    }
+
+    public PermissionSet permissions() {
+        return snapshot.permissions();
+    }
+
+    public boolean isFor(UUID userId) {
+        return userId != null && userId.equals(snapshot.userId());
+    }
+}
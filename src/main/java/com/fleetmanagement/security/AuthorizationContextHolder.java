@@ -0,0 +1,57 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Authorization Context Holder
+ * Resolves the AuthorizationContext of the current request once and keeps it as a request attribute
+ * Outside of a request (schedulers, startup) no context is available and callers fall back to the database
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthorizationContextHolder {
+
+    private static final String ATTRIBUTE = AuthorizationContext.class.getName();
+
+    private final PermissionRegistry permissionRegistry;
+
+    /**
+     * Context of the authenticated caller, if any
+     */
+    public Optional<AuthorizationContext> current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return Optional.empty();
+        }
+
+        Object cached = attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (cached instanceof AuthorizationContext context) {
+            return Optional.of(context);
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof UserLoginResponse principal)) {
+            return Optional.empty();
+        }
+
+        AuthorizationContext context = AuthorizationContext.from(principal, permissionRegistry);
+        attributes.setAttribute(ATTRIBUTE, context, RequestAttributes.SCOPE_REQUEST);
+        return Optional.of(context);
+    }
+
+    /**
+     * Context of the current request, only when it belongs to the given user
+     */
+    public Optional<AuthorizationContext> currentFor(UUID userId) {
+        return current().filter(context -> context.isFor(userId));
+    }
+}
@@ -0,0 +1,322 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.repository.RoleRepository;
+import com.fleetmanagement.repository.RoleRepository.RoleGrantRow;
+import com.fleetmanagement.repository.UserRepository;
+import com.fleetmanagement.repository.UserRepository.RoleMembershipRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Authorization Graph
+ * In-memory, tenant-partitioned copy of roles -> permission bitsets and users -> role ids, from which
+ * every user's PermissionSnapshot is precomputed. Lets PermissionService evaluate without touching the database
+ *
+ * Each partition is an immutable value swapped atomically on reload; readers never lock. Writers (the
+ * change feed) reload whole partitions, serialized on this instance. Global roles (no tenant) live in
+ * their own partition and may be held by users of any tenant, so reloading it re-derives every partition
+ *
+ * Opt-in through app.permissions.graph.enabled; kept fresh by AuthorizationChangeFeed. A user the graph
+ * cannot answer for (disabled, not loaded yet, unknown or marked stale) returns null and is resolved
+ * from the projection by the caller
+ */
+@Component
+@Slf4j
+public class AuthorizationGraph {
+
+    /**
+     * Partition key of global roles and users - ConcurrentHashMap does not take null keys
+     */
+    private static final UUID GLOBAL = new UUID(0L, 0L);
+
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final PermissionRegistry permissionRegistry;
+    private final boolean enabled;
+
+    private final Map<UUID, Partition> partitions = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> userPartitions = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    public AuthorizationGraph(
+            RoleRepository roleRepository,
+            UserRepository userRepository,
+            PermissionRegistry permissionRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${app.permissions.graph.enabled:false}") boolean enabled) {
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.permissionRegistry = permissionRegistry;
+        this.enabled = enabled;
+        Gauge.builder("permission.graph.users", userPartitions, Map::size).register(meterRegistry);
+        Gauge.builder("permission.graph.partitions", partitions, Map::size).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Precomputed snapshot of a user, or null when the graph cannot answer for them
+     */
+    public PermissionSnapshot snapshot(UUID userId) {
+        if (!loaded) {
+            return null;
+        }
+        UUID key = userPartitions.get(userId);
+        if (key == null) {
+            return null;
+        }
+        Partition partition = partitions.get(key);
+        Member member = partition != null ? partition.users().get(userId) : null;
+        return member != null ? member.snapshot() : null;
+    }
+
+    /**
+     * Stop answering for users changed by this replica until the change feed has reloaded their partition
+     * Their checks fall back to the projection, which already reflects the committed change
+     */
+    public void markStale(Collection<UUID> userIds) {
+        if (loaded) {
+            userPartitions.keySet().removeAll(userIds);
+        }
+    }
+
+    /**
+     * Build (or rebuild) every partition
+     *
+     * @return users whose snapshot changed
+     */
+    public synchronized Set<UUID> loadAll() {
+        Map<UUID, RoleGrants> roles = groupRoles(roleRepository.findAllRoleGrants());
+        Map<UUID, Map<UUID, MemberRow>> members = groupMembers(userRepository.findAllRoleMemberships());
+
+        Map<UUID, PermissionSet> globalRoles = roles.getOrDefault(GLOBAL, RoleGrants.NONE).roles();
+        Set<UUID> keys = new HashSet<>(roles.keySet());
+        keys.addAll(members.keySet());
+
+        Set<UUID> changed = new HashSet<>();
+        for (UUID key : keys) {
+            replace(key, build(roles.getOrDefault(key, RoleGrants.NONE), members.getOrDefault(key, Map.of()), globalRoles),
+                    changed);
+        }
+        for (UUID key : List.copyOf(partitions.keySet())) {
+            if (!keys.contains(key)) {
+                replace(key, null, changed);
+            }
+        }
+
+        loaded = true;
+        log.info("Authorization graph loaded: {} partitions, {} users", partitions.size(), userPartitions.size());
+        return changed;
+    }
+
+    /**
+     * Reload the partitions of the given tenants (null = global roles and users) from the database
+     *
+     * @return users whose snapshot changed
+     */
+    public synchronized Set<UUID> reload(Collection<UUID> tenantIds) {
+        Set<UUID> changed = new HashSet<>();
+        if (!loaded) {
+            return changed;
+        }
+
+        // Global partition first - every other partition is derived from its roles
+        if (tenantIds.contains(null)) {
+            Map<UUID, PermissionSet> oldGlobalRoles = globalRoles();
+            RoleGrants globalGrants = groupRoles(roleRepository.findGlobalRoleGrants())
+                    .getOrDefault(GLOBAL, RoleGrants.NONE);
+            Map<UUID, PermissionSet> globalRoles = globalGrants.roles();
+            Map<UUID, MemberRow> members = groupMembers(userRepository.findGlobalRoleMemberships())
+                    .getOrDefault(GLOBAL, Map.of());
+            replace(GLOBAL, build(globalGrants, members, globalRoles), changed);
+
+            if (!globalRoles.equals(oldGlobalRoles)) {
+                for (Map.Entry<UUID, Partition> entry : partitions.entrySet()) {
+                    if (!entry.getKey().equals(GLOBAL) && !tenantIds.contains(entry.getKey())) {
+                        replace(entry.getKey(), rederive(entry.getValue(), globalRoles), changed);
+                    }
+                }
+            }
+        }
+
+        Map<UUID, PermissionSet> globalRoles = globalRoles();
+        for (UUID tenantId : tenantIds) {
+            if (tenantId == null) {
+                continue;
+            }
+            RoleGrants roles = groupRoles(roleRepository.findRoleGrantsByTenantId(tenantId))
+                    .getOrDefault(tenantId, RoleGrants.NONE);
+            Map<UUID, MemberRow> members = groupMembers(userRepository.findRoleMembershipsByTenantId(tenantId))
+                    .getOrDefault(tenantId, Map.of());
+            replace(tenantId, roles == RoleGrants.NONE && members.isEmpty() ? null : build(roles, members, globalRoles), changed);
+        }
+
+        log.debug("Authorization graph reloaded {} partitions, {} users changed", tenantIds.size(), changed.size());
+        return changed;
+    }
+
+    // =================== PRIVATE HELPER METHODS ===================
+
+    private Map<UUID, PermissionSet> globalRoles() {
+        Partition global = partitions.get(GLOBAL);
+        return global != null ? global.grants().roles() : Map.of();
+    }
+
+    /**
+     * Swap a partition (null removes it), publish its users and collect those whose snapshot changed
+     */
+    private void replace(UUID key, Partition partition, Set<UUID> changed) {
+        Partition old = partition != null ? partitions.put(key, partition) : partitions.remove(key);
+        Map<UUID, Member> oldUsers = old != null ? old.users() : Map.of();
+        Map<UUID, Member> newUsers = partition != null ? partition.users() : Map.of();
+
+        for (Map.Entry<UUID, Member> entry : newUsers.entrySet()) {
+            userPartitions.put(entry.getKey(), key);
+            Member previous = oldUsers.get(entry.getKey());
+            if (previous == null || !previous.snapshot().equals(entry.getValue().snapshot())) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (UUID userId : oldUsers.keySet()) {
+            if (!newUsers.containsKey(userId)) {
+                userPartitions.remove(userId, key);
+                changed.add(userId);
+            }
+        }
+    }
+
+    private Partition build(RoleGrants roles, Map<UUID, MemberRow> members,
+                            Map<UUID, PermissionSet> globalRoles) {
+        Map<UUID, Member> users = new HashMap<>(members.size() * 2);
+        members.forEach((userId, row) ->
+                users.put(userId, member(userId, row.tenantId(), row.active(), row.roleIds(), roles, globalRoles)));
+        return new Partition(roles, Map.copyOf(users));
+    }
+
+    /**
+     * Same partition with snapshots recomputed against new global roles - no database access
+     */
+    private Partition rederive(Partition partition, Map<UUID, PermissionSet> globalRoles) {
+        Map<UUID, Member> users = new HashMap<>(partition.users().size() * 2);
+        partition.users().forEach((userId, member) -> {
+            PermissionSnapshot snapshot = member.snapshot();
+            users.put(userId, member(userId, snapshot.tenantId(), snapshot.active(), member.roleIds(),
+                    partition.grants(), globalRoles));
+        });
+        return new Partition(partition.grants(), Map.copyOf(users));
+    }
+
+    private Member member(UUID userId, UUID tenantId, boolean active, UUID[] roleIds,
+                          RoleGrants roles, Map<UUID, PermissionSet> globalRoles) {
+        if (!active) {
+            return new Member(roleIds, PermissionSnapshot.inactive(userId));
+        }
+
+        PermissionSet.Builder permissions = PermissionSet.builder();
+        Set<UUID> scopedRoleIds = new HashSet<>();
+        for (UUID roleId : roleIds) {
+            if (roles.scopedRoles().contains(roleId)) {
+                scopedRoleIds.add(roleId);
+                continue;
+            }
+            PermissionSet granted = roles.roles().getOrDefault(roleId, globalRoles.get(roleId));
+            if (granted != null) {
+                for (int i = granted.nextSetBit(0); i >= 0; i = granted.nextSetBit(i + 1)) {
+                    permissions.add(i);
+                }
+            }
+        }
+        return new Member(roleIds, PermissionSnapshot.of(userId, tenantId, true, permissions.build(),
+                Set.copyOf(scopedRoleIds), permissionRegistry));
+    }
+
+    /**
+     * Permission bitsets of the tenant-wide roles and the ids of the scoped ones, per partition
+     * Scoped roles grant only within their node - ScopeHierarchy evaluates them
+     */
+    private Map<UUID, RoleGrants> groupRoles(List<RoleGrantRow> rows) {
+        Map<UUID, Map<UUID, Set<String>>> codes = new HashMap<>();
+        Map<UUID, Set<UUID>> scoped = new HashMap<>();
+        for (RoleGrantRow row : rows) {
+            if (row.getScopeId() != null) {
+                scoped.computeIfAbsent(keyOf(row.getTenantId()), key -> new HashSet<>()).add(row.getRoleId());
+                continue;
+            }
+            Set<String> roleCodes = codes
+                    .computeIfAbsent(keyOf(row.getTenantId()), key -> new HashMap<>())
+                    .computeIfAbsent(row.getRoleId(), roleId -> new HashSet<>());
+            if (row.getPermissionCode() != null) {
+                roleCodes.add(row.getPermissionCode());
+            }
+        }
+
+        Set<UUID> keys = new HashSet<>(codes.keySet());
+        keys.addAll(scoped.keySet());
+        Map<UUID, RoleGrants> roles = new HashMap<>(keys.size() * 2);
+        for (UUID key : keys) {
+            Map<UUID, PermissionSet> sets = new HashMap<>();
+            codes.getOrDefault(key, Map.of()).forEach((roleId, roleCodes) -> sets.put(roleId, permissionRegistry.setOf(roleCodes)));
+            roles.put(key, new RoleGrants(Map.copyOf(sets), Set.copyOf(scoped.getOrDefault(key, Set.of()))));
+        }
+        return roles;
+    }
+
+    private static Map<UUID, Map<UUID, MemberRow>> groupMembers(List<RoleMembershipRow> rows) {
+        Map<UUID, Map<UUID, List<UUID>>> roleIds = new HashMap<>();
+        Map<UUID, RoleMembershipRow> firstRows = new HashMap<>();
+        for (RoleMembershipRow row : rows) {
+            List<UUID> userRoles = roleIds
+                    .computeIfAbsent(keyOf(row.getTenantId()), key -> new HashMap<>())
+                    .computeIfAbsent(row.getUserId(), userId -> new ArrayList<>());
+            if (row.getRoleId() != null) {
+                userRoles.add(row.getRoleId());
+            }
+            firstRows.putIfAbsent(row.getUserId(), row);
+        }
+
+        Map<UUID, Map<UUID, MemberRow>> members = new HashMap<>(roleIds.size() * 2);
+        roleIds.forEach((key, byUser) -> {
+            Map<UUID, MemberRow> partition = new HashMap<>(byUser.size() * 2);
+            byUser.forEach((userId, userRoles) -> {
+                RoleMembershipRow first = firstRows.get(userId);
+                partition.put(userId, new MemberRow(first.getTenantId(), Boolean.TRUE.equals(first.getActive()),
+                        userRoles.toArray(UUID[]::new)));
+            });
+            members.put(key, partition);
+        });
+        return members;
+    }
+
+    private static UUID keyOf(UUID tenantId) {
+        return tenantId != null ? tenantId : GLOBAL;
+    }
+
+    private record Partition(RoleGrants grants, Map<UUID, Member> users) {
+    }
+
+    private record RoleGrants(Map<UUID, PermissionSet> roles, Set<UUID> scopedRoles) {
+
+        static final RoleGrants NONE = new RoleGrants(Map.of(), Set.of());
+    }
+
+    private record Member(UUID[] roleIds, PermissionSnapshot snapshot) {
+    }
+
+    private record MemberRow(UUID tenantId, boolean active, UUID[] roleIds) {
+    }
+}
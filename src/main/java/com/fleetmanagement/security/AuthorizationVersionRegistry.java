@@ -0,0 +1,65 @@
+package com.fleetmanagement.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Authorization Version Registry
+ * Tracks a monotonically increasing authorization version per user
+ * Tokens carry the version they were issued with; a mismatch means the user's
+ * roles or permissions changed since login and the embedded claims can no longer be trusted
+ *
+ * Versions are counters local to this process, so each process draws a random epoch at start and tokens
+ * carry it next to the version. A token issued by a previous process or another replica never matches,
+ * whatever its counter, and falls back to a database load
+ */
+@Component
+@Slf4j
+public class AuthorizationVersionRegistry {
+
+    private final String epoch = UUID.randomUUID().toString();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<UUID, Long> userVersions = new ConcurrentHashMap<>();
+
+    /**
+     * Current version for a user - strictly increases on every invalidation affecting them
+     */
+    public long currentVersion(UUID userId) {
+        return globalVersion.get() + userVersions.getOrDefault(userId, 0L);
+    }
+
+    /**
+     * Epoch of this process - versions are only comparable within the same epoch
+     */
+    public String epoch() {
+        return epoch;
+    }
+
+    /**
+     * Check whether the epoch and version embedded in a token are still current
+     */
+    public boolean isCurrent(UUID userId, String tokenEpoch, Long tokenVersion) {
+        return epoch.equals(tokenEpoch) && tokenVersion != null && tokenVersion == currentVersion(userId);
+    }
+
+    /**
+     * Invalidate trusted claims for a single user
+     */
+    public void invalidateUser(UUID userId) {
+        userVersions.merge(userId, 1L, Long::sum);
+        log.debug("Authorization version bumped for user: {}", userId);
+    }
+
+    /**
+     * Invalidate trusted claims for every user
+     */
+    public void invalidateAll() {
+        globalVersion.incrementAndGet();
+        log.debug("Global authorization version bumped");
+    }
+}
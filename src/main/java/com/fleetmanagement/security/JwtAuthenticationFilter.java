@@ -1,7 +1,9 @@
 package com.fleetmanagement.security;
 
+import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.service.JwtService;
 import com.fleetmanagement.service.UserDetailsServiceImpl;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.Cookie;
@@ -9,7 +11,10 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,13 +22,22 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * JWT Authentication Filter
  * Supports both:
  * - Authorization header (Bearer token) for mobile
  * - HTTP-only cookies (auth_token) for web
+ *
+ * In claims-trusted mode (app.jwt.claims-trusted=true) the principal is rebuilt from the
+ * verified token without touching the database, as long as the token's authorization
+ * version is still current; otherwise the user is loaded from the database as usual
+ *
+ * Authorization versions live in each process, so claims-trusted mode requires the authorization
+ * change feed (app.permissions.graph.enabled) to carry revocations to every replica
  */
 @Component
 @RequiredArgsConstructor
@@ -32,6 +46,26 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AuthorizationVersionRegistry versionRegistry;
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    @Value("${app.jwt.claims-trusted:false}")
+    private boolean claimsTrusted;
+
+    @Value("${app.permissions.graph.enabled:false}")
+    private boolean changeFeedEnabled;
+
+    /**
+     * Refuse to start in claims-trusted mode without the change feed
+     * A revocation on one replica would otherwise leave the user's old claims trusted on the others
+     */
+    @PostConstruct
+    public void checkClaimsTrustedMode() {
+        if (claimsTrusted && !changeFeedEnabled) {
+            throw new IllegalStateException(
+                    "app.jwt.claims-trusted requires app.permissions.graph.enabled to propagate revocations across replicas");
+        }
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
@@ -48,25 +82,24 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             String jwt = extractJwt(request);
 
             if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UUID userId = jwtService.extractUserId(jwt);
+                // 🔹 Step 2: Verify signature + expiry (skipped for tokens verified before) and read the typed claims
+                VerifiedToken token = verifiedTokenCache.verify(jwt, jwtService::parseToken);
+                UUID userId = token.userId();
 
-                if (userId != null) {
-                    UserDetails userDetails = userDetailsService.loadUserById(userId);
+                // 🔹 Step 3: Trust the embedded claims when allowed, otherwise load the active user
+                UserDetails userDetails = canTrustClaims(token)
+                        ? principalFromClaims(token)
+                        : userDetailsService.loadUserById(userId);
 
-                    if (jwtService.isTokenValid(jwt, userDetails, userId)) {
-                        UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                                userDetails, null, userDetails.getAuthorities());
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities());
 
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
 
-                        log.debug("✅ Authenticated user ID: {} via {}", userId,
-                                request.getCookies() != null && getCookieValue(request, "auth_token") != null ? "Cookie"
-                                        : "Header");
-                    } else {
-                        log.warn("❌ Invalid JWT for user ID: {}", userId);
-                    }
-                }
+                log.debug("✅ Authenticated user ID: {} via {}", userId,
+                        request.getCookies() != null && getCookieValue(request, "auth_token") != null ? "Cookie"
+                                : "Header");
             }
         } catch (Exception e) {
             log.error("Cannot set user authentication: {}", e.getMessage());
@@ -77,6 +110,34 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Claims are trusted only when enabled and nothing affecting the user changed since login
+     */
+    private boolean canTrustClaims(VerifiedToken token) {
+        return claimsTrusted
+                && token.tenantId() != null
+                && versionRegistry.isCurrent(token.userId(), token.authorizationEpoch(), token.authorizationVersion());
+    }
+
+    /**
+     * Rebuild the principal from verified claims - zero database round-trips
+     */
+    private UserLoginResponse principalFromClaims(VerifiedToken token) {
+        List<GrantedAuthority> authorities = Stream.concat(
+                        token.roles().stream().map(SimpleGrantedAuthority::new),
+                        token.scopedRoles().stream().map(ScopedAuthority::new))
+                .toList();
+
+        return UserLoginResponse.builder()
+                .id(token.userId())
+                .username(token.username())
+                .tenantId(token.tenantId())
+                .authorities(authorities)
+                .authorizationVersion(token.authorizationVersion())
+                .authorizationEpoch(token.authorizationEpoch())
+                .build();
+    }
+
     /**
      * Extract JWT from either:
      * - Authorization header (Bearer ...)
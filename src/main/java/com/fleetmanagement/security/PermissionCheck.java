@@ -0,0 +1,13 @@
+package com.fleetmanagement.security;
+
+import java.util.UUID;
+
+/**
+ * Permission Check - one (user, permission, scope) triple of a batch authorization check
+ *
+ * @param userId         user to check
+ * @param permissionCode permission code to check
+ * @param scopeId        scope context (tenantId, fleetId, etc.), may be null
+ */
+public record PermissionCheck(UUID userId, String permissionCode, UUID scopeId) {
+}
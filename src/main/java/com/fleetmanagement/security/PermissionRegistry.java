@@ -0,0 +1,150 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.repository.PermissionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Permission Registry
+ * Interns every permission code to a dense integer index so user permissions can be held as a PermissionSet
+ * Indexes are append-only: a code keeps its index for the lifetime of the process, renamed or deleted codes
+ * simply stop being granted. Reads are lock-free against an immutable state swapped on every intern
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PermissionRegistry {
+
+    private final PermissionRepository permissionRepository;
+
+    private volatile State state = new State(Map.of(), new String[0], new GrantedAuthority[0]);
+
+    /**
+     * Intern all known permission codes once the application is up
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPermissions() {
+        List<String> codes = permissionRepository.findAll().stream()
+                .map(Permission::getCode)
+                .toList();
+        internAll(codes);
+        log.info("Permission registry initialized with {} codes", size());
+    }
+
+    /**
+     * Index of a code, or -1 when the code was never interned (and therefore cannot be granted)
+     */
+    public int indexOf(String code) {
+        if (code == null) {
+            return -1;
+        }
+        Integer index = state.indexes().get(code);
+        return index != null ? index : -1;
+    }
+
+    /**
+     * Index of a code, assigning the next free index when it is new
+     */
+    public int intern(String code) {
+        int index = indexOf(code);
+        return index >= 0 ? index : internAll(List.of(code));
+    }
+
+    /**
+     * Bitset of the given codes, interning any that are new
+     */
+    public PermissionSet setOf(Collection<String> codes) {
+        if (codes == null || codes.isEmpty()) {
+            return PermissionSet.EMPTY;
+        }
+        PermissionSet.Builder builder = PermissionSet.builder();
+        for (String code : codes) {
+            if (code != null) {
+                builder.add(intern(code));
+            }
+        }
+        return builder.build();
+    }
+
+    public String codeOf(int index) {
+        return state.codes()[index];
+    }
+
+    /**
+     * Decode a bitset back to permission codes
+     */
+    public Set<String> codesOf(PermissionSet permissions) {
+        String[] codes = state.codes();
+        Set<String> result = new LinkedHashSet<>(permissions.size() * 2);
+        for (int i = permissions.nextSetBit(0); i >= 0; i = permissions.nextSetBit(i + 1)) {
+            result.add(codes[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Shared GrantedAuthority instances for a bitset - no authority objects are created per login
+     */
+    public List<GrantedAuthority> authoritiesOf(PermissionSet permissions) {
+        GrantedAuthority[] authorities = state.authorities();
+        List<GrantedAuthority> result = new ArrayList<>(permissions.size());
+        for (int i = permissions.nextSetBit(0); i >= 0; i = permissions.nextSetBit(i + 1)) {
+            result.add(authorities[i]);
+        }
+        return result;
+    }
+
+    public int size() {
+        return state.codes().length;
+    }
+
+    /**
+     * Copy-on-write append; returns the index of the last code
+     */
+    private synchronized int internAll(Collection<String> codes) {
+        State current = state;
+        Map<String, Integer> indexes = new HashMap<>(current.indexes());
+        List<String> added = new ArrayList<>();
+        int last = -1;
+
+        for (String code : codes) {
+            Integer index = indexes.get(code);
+            if (index == null) {
+                index = current.codes().length + added.size();
+                indexes.put(code, index);
+                added.add(code);
+            }
+            last = index;
+        }
+
+        if (!added.isEmpty()) {
+            String[] newCodes = Arrays.copyOf(current.codes(), current.codes().length + added.size());
+            GrantedAuthority[] newAuthorities = Arrays.copyOf(current.authorities(), newCodes.length);
+            for (int i = 0; i < added.size(); i++) {
+                int index = current.codes().length + i;
+                newCodes[index] = added.get(i);
+                newAuthorities[index] = new SimpleGrantedAuthority(added.get(i));
+            }
+            state = new State(Map.copyOf(indexes), newCodes, newAuthorities);
+        }
+        return last;
+    }
+
+    private record State(Map<String, Integer> indexes, String[] codes, GrantedAuthority[] authorities) {
+    }
+}
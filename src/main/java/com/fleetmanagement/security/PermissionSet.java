@@ -0,0 +1,153 @@
+package com.fleetmanagement.security;
+
+import java.util.Arrays;
+
+/**
+ * Permission Set - immutable bitset of permission indexes assigned by PermissionRegistry
+ * Membership is a single word lookup; set operations are word-wise AND/OR without allocation
+ */
+public final class PermissionSet {
+
+    public static final PermissionSet EMPTY = new PermissionSet(new long[0]);
+
+    private final long[] words;
+
+    private PermissionSet(long[] words) {
+        this.words = words;
+    }
+
+    public boolean contains(int index) {
+        if (index < 0) {
+            return false;
+        }
+        int word = index >>> 6;
+        return word < words.length && (words[word] & (1L << index)) != 0;
+    }
+
+    /**
+     * True when at least one bit of the mask is present (OR semantics)
+     */
+    public boolean containsAny(PermissionSet mask) {
+        int length = Math.min(words.length, mask.words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & mask.words[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * True when every bit of the mask is present (AND semantics)
+     */
+    public boolean containsAll(PermissionSet mask) {
+        for (int i = 0; i < mask.words.length; i++) {
+            long required = mask.words[i];
+            long held = i < words.length ? words[i] : 0L;
+            if ((held & required) != required) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Index of the next set bit at or after fromIndex, or -1 when none is left
+     */
+    public int nextSetBit(int fromIndex) {
+        int word = fromIndex >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << fromIndex);
+        while (true) {
+            if (bits != 0) {
+                return (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof PermissionSet that)) {
+            return false;
+        }
+        int length = Math.max(words.length, that.words.length);
+        for (int i = 0; i < length; i++) {
+            long mine = i < words.length ? words[i] : 0L;
+            long theirs = i < that.words.length ? that.words[i] : 0L;
+            if (mine != theirs) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int length = words.length;
+        while (length > 0 && words[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.hashCode(Arrays.copyOf(words, length));
+    }
+
+    /**
+     * Mutable builder, not thread-safe
+     */
+    public static final class Builder {
+
+        private long[] words = new long[1];
+
+        private Builder() {
+        }
+
+        public Builder add(int index) {
+            if (index < 0) {
+                throw new IllegalArgumentException("Permission index must not be negative: " + index);
+            }
+            int word = index >>> 6;
+            if (word >= words.length) {
+                words = Arrays.copyOf(words, Math.max(word + 1, words.length * 2));
+            }
+            words[word] |= 1L << index;
+            return this;
+        }
+
+        public PermissionSet build() {
+            int length = words.length;
+            while (length > 0 && words[length - 1] == 0) {
+                length--;
+            }
+            return length == 0 ? EMPTY : new PermissionSet(Arrays.copyOf(words, length));
+        }
+    }
+}
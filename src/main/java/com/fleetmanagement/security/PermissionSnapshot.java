@@ -0,0 +1,58 @@
+package com.fleetmanagement.security;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Permission Snapshot - immutable view of a user's effective permissions
+ * Built from active roles and active permissions; safe to share between threads
+ *
+ * @param userId      user the snapshot belongs to
+ * @param tenantId    tenant of the user, null for global users
+ * @param active      false when the user does not exist or is deactivated
+ * @param superAdmin  true when SUPER_ADMIN is among the effective permissions
+ * @param permissions effective permissions as indexes of the PermissionRegistry
+ * @param scopedRoleIds active FLEET / REGIONAL roles, granting only within their node (see ScopeHierarchy)
+ */
+public record PermissionSnapshot(
+        UUID userId,
+        UUID tenantId,
+        boolean active,
+        boolean superAdmin,
+        PermissionSet permissions,
+        Set<UUID> scopedRoleIds) {
+
+    public static final String SUPER_ADMIN = "SUPER_ADMIN";
+
+    /**
+     * Snapshot for a user that is missing or inactive - grants nothing
+     */
+    public static PermissionSnapshot inactive(UUID userId) {
+        return new PermissionSnapshot(userId, null, false, false, PermissionSet.EMPTY, Set.of());
+    }
+
+    /**
+     * Build snapshot from effective permissions, deriving the super-admin flag
+     */
+    public static PermissionSnapshot of(UUID userId, UUID tenantId, boolean active,
+                                        PermissionSet permissions, PermissionRegistry registry) {
+        return of(userId, tenantId, active, permissions, Set.of(), registry);
+    }
+
+    public static PermissionSnapshot of(UUID userId, UUID tenantId, boolean active, PermissionSet permissions,
+                                        Set<UUID> scopedRoleIds, PermissionRegistry registry) {
+        boolean superAdmin = active && permissions.contains(registry.indexOf(SUPER_ADMIN));
+        return new PermissionSnapshot(userId, tenantId, active, superAdmin, permissions, scopedRoleIds);
+    }
+
+    /**
+     * Check a permission by its registry index - negative indexes (unknown codes) are never granted
+     */
+    public boolean has(int permissionIndex) {
+        return active && permissions.contains(permissionIndex);
+    }
+
+    public boolean isSuperAdmin() {
+        return superAdmin;
+    }
+}
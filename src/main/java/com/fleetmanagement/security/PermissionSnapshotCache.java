@@ -0,0 +1,111 @@
+package com.fleetmanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Permission Snapshot Cache
+ * Bounded in-process cache of immutable per-user permission snapshots
+ * Evicted by size and time, and precisely by PermissionService when roles, permissions or assignments change
+ * Hit/miss/eviction statistics are published as the "permission.snapshots" cache metrics
+ *
+ * Loaders run outside of any cache lock: a blocking JDBC call inside a cache compute would pin the
+ * carrier of a virtual thread. An eviction epoch makes sure a load that raced with an eviction is
+ * never left behind in the cache
+ */
+@Component
+@Slf4j
+public class PermissionSnapshotCache {
+
+    private final Cache<UUID, PermissionSnapshot> cache;
+    private final AtomicLong evictionEpoch = new AtomicLong();
+
+    public PermissionSnapshotCache(
+            @Value("${app.permissions.cache.maximum-size:50000}") long maximumSize,
+            @Value("${app.permissions.cache.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "permission.snapshots");
+        log.info("Permission snapshot cache enabled (maximumSize={}, ttl={})", maximumSize, ttl);
+    }
+
+    /**
+     * Get the snapshot for a user, loading it on a miss
+     */
+    public PermissionSnapshot get(UUID userId, Function<UUID, PermissionSnapshot> loader) {
+        PermissionSnapshot cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long epoch = evictionEpoch.get();
+        PermissionSnapshot loaded = loader.apply(userId);
+        cache.put(userId, loaded);
+        if (evictionEpoch.get() != epoch) {
+            cache.invalidate(userId); // an eviction raced with the load - the result may be stale
+        }
+        return loaded;
+    }
+
+    /**
+     * Get snapshots for many users; all missing ones are loaded together by the bulk loader
+     */
+    public Map<UUID, PermissionSnapshot> getAll(Collection<UUID> userIds,
+                                               Function<Set<UUID>, Map<UUID, PermissionSnapshot>> loader) {
+        Map<UUID, PermissionSnapshot> result = new HashMap<>(cache.getAllPresent(userIds));
+        if (result.size() == userIds.size()) {
+            return result;
+        }
+
+        Set<UUID> missing = new HashSet<>(userIds);
+        missing.removeAll(result.keySet());
+
+        long epoch = evictionEpoch.get();
+        Map<UUID, PermissionSnapshot> loaded = loader.apply(missing);
+        cache.putAll(loaded);
+        if (evictionEpoch.get() != epoch) {
+            cache.invalidateAll(loaded.keySet());
+        }
+
+        result.putAll(loaded);
+        return result;
+    }
+
+    /**
+     * Evictions bump the epoch before removing entries, so a concurrent load either sees the
+     * new epoch and drops its result, or has put its result before the removal
+     */
+    public void evict(UUID userId) {
+        evictionEpoch.incrementAndGet();
+        cache.invalidate(userId);
+    }
+
+    public void evictAll(Collection<UUID> userIds) {
+        evictionEpoch.incrementAndGet();
+        cache.invalidateAll(userIds);
+    }
+
+    public void clear() {
+        evictionEpoch.incrementAndGet();
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,188 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.repository.RoleRepository;
+import com.fleetmanagement.repository.RoleRepository.RoleGrantRow;
+import com.fleetmanagement.repository.ScopeNodeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Scope Hierarchy
+ * In-memory ancestry index of the tenant -> region -> fleet tree plus the roles bound to its nodes
+ * Every node carries its pre/post-order interval, so "does scope A contain scope B" is two integer
+ * comparisons - no recursive query and no walk up the tree per check
+ *
+ * A tenant id is the implicit root of its nodes. The index is immutable and swapped on reload;
+ * reloaded after local scope or role changes commit and periodically to pick up other replicas' changes
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ScopeHierarchy {
+
+    private final ScopeNodeRepository scopeNodeRepository;
+    private final RoleRepository roleRepository;
+    private final PermissionRegistry permissionRegistry;
+
+    private volatile Index index = new Index(Map.of(), Map.of());
+
+    /**
+     * Rebuild the index from the database
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.scopes.refresh-interval:1m}",
+            fixedDelayString = "${app.scopes.refresh-interval:1m}")
+    public void load() {
+        Map<UUID, Node> nodes = intervals(scopeNodeRepository.findAll());
+
+        Map<UUID, Set<String>> codes = new HashMap<>();
+        Map<UUID, UUID> scopes = new HashMap<>();
+        for (RoleGrantRow row : roleRepository.findScopedRoleGrants()) {
+            scopes.put(row.getRoleId(), row.getScopeId());
+            Set<String> roleCodes = codes.computeIfAbsent(row.getRoleId(), roleId -> new HashSet<>());
+            if (row.getPermissionCode() != null) {
+                roleCodes.add(row.getPermissionCode());
+            }
+        }
+        Map<UUID, ScopedRole> scopedRoles = new HashMap<>(scopes.size() * 2);
+        scopes.forEach((roleId, scopeId) ->
+                scopedRoles.put(roleId, new ScopedRole(scopeId, permissionRegistry.setOf(codes.get(roleId)))));
+
+        index = new Index(Map.copyOf(nodes), Map.copyOf(scopedRoles));
+        log.debug("Scope hierarchy loaded: {} nodes, {} scoped roles", nodes.size(), scopedRoles.size());
+    }
+
+    /**
+     * True when any role is bound to a region or fleet - lets callers skip scoped evaluation entirely
+     */
+    public boolean hasScopedRoles() {
+        return !index.scopedRoles().isEmpty();
+    }
+
+    /**
+     * Check whether a scope contains another (or is the same)
+     * A tenant id contains every node of the tenant; a node contains the nodes of its subtree
+     */
+    public boolean contains(UUID ancestorId, UUID descendantId) {
+        if (ancestorId == null || descendantId == null) {
+            return false;
+        }
+        if (ancestorId.equals(descendantId)) {
+            return true;
+        }
+
+        Map<UUID, Node> nodes = index.nodes();
+        Node descendant = nodes.get(descendantId);
+        if (descendant == null) {
+            return false;
+        }
+        Node ancestor = nodes.get(ancestorId);
+        if (ancestor == null) {
+            return ancestorId.equals(descendant.tenantId());
+        }
+        return ancestor.tenantId().equals(descendant.tenantId())
+                && ancestor.enter() < descendant.enter()
+                && descendant.exit() < ancestor.exit();
+    }
+
+    /**
+     * Check whether any of the given roles grants the permission on a node containing the scope
+     */
+    public boolean grants(Collection<UUID> roleIds, int permissionIndex, UUID scopeId) {
+        Map<UUID, ScopedRole> scopedRoles = index.scopedRoles();
+        for (UUID roleId : roleIds) {
+            ScopedRole role = scopedRoles.get(roleId);
+            if (role != null && role.permissions().contains(permissionIndex) && contains(role.scopeId(), scopeId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Permissions the given roles grant on their nodes, merged - roles without a node contribute nothing
+     */
+    public PermissionSet permissionsOf(Collection<UUID> roleIds) {
+        Map<UUID, ScopedRole> scopedRoles = index.scopedRoles();
+        PermissionSet.Builder permissions = PermissionSet.builder();
+        for (UUID roleId : roleIds) {
+            ScopedRole role = scopedRoles.get(roleId);
+            if (role == null) {
+                continue;
+            }
+            PermissionSet granted = role.permissions();
+            for (int i = granted.nextSetBit(0); i >= 0; i = granted.nextSetBit(i + 1)) {
+                permissions.add(i);
+            }
+        }
+        return permissions.build();
+    }
+
+    /**
+     * Number every node in pre/post order, tree by tree
+     * Nodes that cannot be reached from a root (dangling parent) are left out and contain nothing
+     */
+    private static Map<UUID, Node> intervals(List<ScopeNode> scopeNodes) {
+        Map<UUID, List<ScopeNode>> children = new HashMap<>();
+        List<ScopeNode> roots = new ArrayList<>();
+        for (ScopeNode node : scopeNodes) {
+            if (node.getParentId() == null) {
+                roots.add(node);
+            } else {
+                children.computeIfAbsent(node.getParentId(), parentId -> new ArrayList<>()).add(node);
+            }
+        }
+
+        Map<UUID, Node> nodes = new HashMap<>(scopeNodes.size() * 2);
+        Map<UUID, Integer> enters = new HashMap<>(scopeNodes.size() * 2);
+        int counter = 0;
+        Deque<ScopeNode> stack = new ArrayDeque<>();
+        for (ScopeNode root : roots) {
+            stack.push(root);
+            while (!stack.isEmpty()) {
+                ScopeNode node = stack.peek();
+                if (!enters.containsKey(node.getId())) {
+                    // First visit - open the interval and descend
+                    enters.put(node.getId(), counter++);
+                    for (ScopeNode child : children.getOrDefault(node.getId(), List.of())) {
+                        if (!enters.containsKey(child.getId())) {
+                            stack.push(child);
+                        }
+                    }
+                } else {
+                    // Subtree done - close the interval
+                    stack.pop();
+                    if (!nodes.containsKey(node.getId())) {
+                        nodes.put(node.getId(), new Node(node.getTenantId(), enters.get(node.getId()), counter++));
+                    }
+                }
+            }
+        }
+        return nodes;
+    }
+
+    private record Index(Map<UUID, Node> nodes, Map<UUID, ScopedRole> scopedRoles) {
+    }
+
+    private record Node(UUID tenantId, int enter, int exit) {
+    }
+
+    private record ScopedRole(UUID scopeId, PermissionSet permissions) {
+    }
+}
@@ -0,0 +1,18 @@
+package com.fleetmanagement.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Scoped Authority - a permission the user holds only through FLEET / REGIONAL roles
+ * Route and @PreAuthorize checks match it by code like any authority; the service then checks the
+ * resource's fleet or region. Never counted as a tenant-wide permission (see AuthorizationContext)
+ *
+ * @param authority permission code
+ */
+public record ScopedAuthority(String authority) implements GrantedAuthority {
+
+    @Override
+    public String getAuthority() {
+        return authority;
+    }
+}
@@ -0,0 +1,36 @@
+package com.fleetmanagement.security;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Verified JWT View
+ * Immutable result of a single signature check and claims parse
+ * Consumed by the authentication filter so a token is never parsed twice per request
+ *
+ * @param userId               subject of the token
+ * @param username             username claim, null for tokens issued before the claim existed
+ * @param tenantId             tenant claim, null for tokens issued before the claim existed
+ * @param roles                authority codes embedded at login
+ * @param scopedRoles          authority codes held only on a region or fleet, see ScopedAuthority
+ * @param authorizationVersion authorization version the roles were resolved at, see AuthorizationVersionRegistry
+ * @param authorizationEpoch   epoch of the process that issued the version, null for tokens issued before the claim existed
+ * @param issuedAt             issue time of the token
+ * @param expiresAt            expiry time of the token
+ */
+public record VerifiedToken(
+        UUID userId,
+        String username,
+        UUID tenantId,
+        List<String> roles,
+        List<String> scopedRoles,
+        Long authorizationVersion,
+        String authorizationEpoch,
+        Instant issuedAt,
+        Instant expiresAt) {
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && expiresAt.isBefore(now);
+    }
+}
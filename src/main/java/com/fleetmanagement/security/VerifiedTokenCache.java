@@ -0,0 +1,108 @@
+package com.fleetmanagement.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.Function;
+
+/**
+ * Verified Token Cache
+ * Remembers tokens whose signature was already verified so repeat requests skip
+ * Base64 decoding, JSON parsing and HMAC verification
+ *
+ * - Keyed by a 64-bit hash of the raw token; the entry keeps the raw token and is only used
+ *   when it is equal to the presented one, so a hash collision degrades to a normal verification
+ * - Every entry expires at its token's exp claim; size is capped
+ * - Reads are lock-free; hit rate is published as "jwt.token.cache.hit.ratio" next to the
+ *   standard "jwt.tokens" cache metrics
+ */
+@Component
+@Slf4j
+public class VerifiedTokenCache {
+
+    private final Cache<Long, Entry> cache;
+
+    public VerifiedTokenCache(
+            @Value("${app.jwt.token-cache.maximum-size:20000}") long maximumSize,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.tokens");
+        Gauge.builder("jwt.token.cache.hit.ratio", cache, c -> c.stats().hitRate())
+                .description("Share of requests whose token signature verification was skipped")
+                .register(meterRegistry);
+        log.info("Verified token cache enabled (maximumSize={})", maximumSize);
+    }
+
+    /**
+     * Return the cached verification of a token, or verify it and remember the result
+     * The verifier throws for invalid tokens, which are never cached
+     */
+    public VerifiedToken verify(String token, Function<String, VerifiedToken> verifier) {
+        long key = hash(token);
+
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && entry.token().equals(token) && !entry.verified().isExpired(Instant.now())) {
+            return entry.verified();
+        }
+
+        VerifiedToken verified = verifier.apply(token);
+        if (verified.expiresAt() != null) {
+            cache.put(key, new Entry(token, verified));
+        }
+        return verified;
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 64-bit FNV-1a over the token characters - cheap compared to HMAC, collisions handled by equals
+     */
+    static long hash(String token) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < token.length(); i++) {
+            hash ^= token.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private record Entry(String token, VerifiedToken verified) {
+    }
+
+    /**
+     * Entries live until their token expires
+     */
+    private static final class UntilTokenExpiry implements Expiry<Long, Entry> {
+
+        @Override
+        public long expireAfterCreate(Long key, Entry entry, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), entry.verified().expiresAt());
+            return Math.max(0L, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Entry entry, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, entry, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Entry entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
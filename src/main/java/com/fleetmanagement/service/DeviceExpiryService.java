@@ -0,0 +1,146 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.event.DeviceExpiryEvent;
+import com.fleetmanagement.repository.DeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Service for the background device expiry sweep
+ * Due devices are claimed in chunks with FOR UPDATE SKIP LOCKED and moved to EXPIRED with one UPDATE per chunk;
+ * devices expiring within the notice period are claimed the same way and notified once. Every chunk is its own
+ * transaction, so replicas sweeping at the same time split the work instead of processing a device twice
+ *
+ * Events are published after their chunk commits: a crash in between loses them, it never repeats them
+ */
+@Service
+@Slf4j
+public class DeviceExpiryService {
+
+    private final DeviceRepository deviceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final int maxChunks;
+    private final Duration noticePeriod;
+
+    private final Counter expired;
+    private final Counter notified;
+    private final Timer sweepTimer;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    public DeviceExpiryService(
+            DeviceRepository deviceRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.expiry.chunk-size:500}") int chunkSize,
+            @Value("${app.expiry.max-chunks:200}") int maxChunks,
+            @Value("${app.expiry.notice-period:7d}") Duration noticePeriod) {
+        this.deviceRepository = deviceRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.maxChunks = maxChunks;
+        this.noticePeriod = noticePeriod;
+        this.expired = meterRegistry.counter("device.expiry.expired");
+        this.notified = meterRegistry.counter("device.expiry.notified");
+        this.sweepTimer = meterRegistry.timer("device.expiry.sweep");
+        // How late the oldest device expired by the last sweep was handled
+        Gauge.builder("device.expiry.lag.seconds", lagSeconds, AtomicLong::get).register(meterRegistry);
+    }
+
+    /**
+     * Expire the due devices, then notify the ones expiring soon
+     * A sweep handles at most max-chunks chunks of each kind; the next one picks up the rest
+     *
+     * @return devices expired and notified by this sweep
+     */
+    @Scheduled(fixedDelayString = "${app.expiry.sweep-interval:1m}")
+    public Sweep sweep() {
+        return sweepTimer.record(() -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            // Step 1: Move due devices to EXPIRED
+            int expiredCount = drain(DeviceExpiryEvent.Kind.EXPIRED, limit -> {
+                List<Device> devices = deviceRepository.claimDueForExpiry(now, limit);
+                if (!devices.isEmpty()) {
+                    deviceRepository.markExpired(ids(devices), now);
+                }
+                return devices;
+            });
+            expired.increment(expiredCount);
+
+            // Step 2: Notify devices expiring within the notice period
+            LocalDateTime until = now.plus(noticePeriod);
+            int notifiedCount = drain(DeviceExpiryEvent.Kind.EXPIRING_SOON, limit -> {
+                List<Device> devices = deviceRepository.claimDueForNotice(now, until, limit);
+                if (!devices.isEmpty()) {
+                    deviceRepository.markExpiryNotified(ids(devices), now);
+                }
+                return devices;
+            });
+            notified.increment(notifiedCount);
+
+            if (expiredCount > 0 || notifiedCount > 0) {
+                log.info("Device expiry sweep: {} expired, {} notified", expiredCount, notifiedCount);
+            }
+            return new Sweep(expiredCount, notifiedCount);
+        });
+    }
+
+    /**
+     * Claim and process chunks until one comes back short
+     */
+    private int drain(DeviceExpiryEvent.Kind kind, Function<Limit, List<Device>> claim) {
+        int total = 0;
+        for (int chunk = 0; chunk < maxChunks; chunk++) {
+            List<Device> devices = transactionTemplate.execute(status -> claim.apply(Limit.of(chunkSize)));
+            if (devices == null || devices.isEmpty()) {
+                if (chunk == 0 && kind == DeviceExpiryEvent.Kind.EXPIRED) {
+                    lagSeconds.set(0);
+                }
+                break;
+            }
+            if (chunk == 0 && kind == DeviceExpiryEvent.Kind.EXPIRED) {
+                // Oldest first, so the first row of the first chunk is the most overdue
+                lagSeconds.set(Math.max(0, Duration.between(devices.get(0).getExpiryAt(), LocalDateTime.now()).toSeconds()));
+            }
+
+            for (Device device : devices) {
+                eventPublisher.publishEvent(new DeviceExpiryEvent(
+                        device.getId(), device.getImei(), device.getTenantId(), device.getExpiryAt(), kind));
+            }
+            total += devices.size();
+            if (devices.size() < chunkSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private static List<UUID> ids(List<Device> devices) {
+        return devices.stream().map(Device::getId).toList();
+    }
+
+    public record Sweep(int expired, int notified) {
+    }
+}
@@ -0,0 +1,157 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.repository.DeviceRepository.DeviceResolutionRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Device IMEI Index
+ * Resolves an IMEI to its device, vehicle and tenant from memory - see ImeiTable - instead of looking up the
+ * device and then its vehicle for every inbound message
+ *
+ * Built from the devices table on startup and rebuilt periodically to pick up other replicas' changes; local
+ * device and vehicle changes are applied once their transaction commits. A miss is not proof that a device does
+ * not exist (another replica may have just registered it, or its IMEI is not 15 digits): callers that need
+ * certainty fall back to the database
+ */
+@Component
+@Slf4j
+public class DeviceImeiIndex {
+
+    private final DeviceRepository deviceRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private volatile ImeiTable table = new ImeiTable(0);
+
+    // Changes applied while a rebuild is running, replayed onto the new table; guarded by this
+    private List<Consumer<ImeiTable>> replay;
+
+    public DeviceImeiIndex(
+            DeviceRepository deviceRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.deviceRepository = deviceRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        Gauge.builder("device.imei.index.size", this, index -> index.table.size()).register(meterRegistry);
+    }
+
+    /**
+     * Device, vehicle and tenant of the IMEI, null when it is not indexed
+     */
+    public ImeiTable.Resolution resolve(String imei) {
+        return table.get(ImeiTable.key(imei));
+    }
+
+    /**
+     * Tenant of the IMEI, null when it has none or is not indexed
+     */
+    public UUID tenantOf(String imei) {
+        return table.tenantOf(ImeiTable.key(imei));
+    }
+
+    public boolean contains(String imei) {
+        return table.contains(ImeiTable.key(imei));
+    }
+
+    /**
+     * Index a device, once the current transaction commits
+     * Devices whose IMEI is not 15 digits are left out
+     */
+    public void put(UUID deviceId, String imei, UUID vehicleId, UUID tenantId) {
+        long key = ImeiTable.key(imei);
+        if (key >= 0) {
+            afterCommit(index -> index.put(key, deviceId, vehicleId, tenantId));
+        }
+    }
+
+    /**
+     * Drop an IMEI, once the current transaction commits
+     */
+    public void remove(String imei) {
+        long key = ImeiTable.key(imei);
+        if (key >= 0) {
+            afterCommit(index -> index.remove(key));
+        }
+    }
+
+    /**
+     * Rebuild the index from the devices table and swap it in
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.imei-index.resync-interval:15m}",
+            fixedDelayString = "${app.imei-index.resync-interval:15m}")
+    public void load() {
+        synchronized (this) {
+            if (replay != null) {
+                return;
+            }
+            replay = new ArrayList<>();
+        }
+
+        ImeiTable loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> {
+                ImeiTable rebuilt = new ImeiTable((int) deviceRepository.count());
+                try (Stream<DeviceResolutionRow> rows = deviceRepository.streamResolution()) {
+                    rows.forEach(row -> {
+                        long key = ImeiTable.key(row.getImei());
+                        if (key >= 0) {
+                            rebuilt.put(key, row.getId(), row.getVehicleId(), row.getTenantId());
+                        }
+                    });
+                }
+                return rebuilt;
+            });
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                replay = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            replay.forEach(change -> change.accept(loaded));
+            replay = null;
+            table = loaded;
+        }
+        log.info("Device IMEI index loaded: {} devices, {} MB", loaded.size(), loaded.footprintBytes() >> 20);
+    }
+
+    private void afterCommit(Consumer<ImeiTable> change) {
+        Runnable apply = () -> {
+            synchronized (this) {
+                change.accept(table);
+                if (replay != null) {
+                    replay.add(change);
+                }
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply.run();
+                }
+            });
+        } else {
+            apply.run();
+        }
+    }
+}
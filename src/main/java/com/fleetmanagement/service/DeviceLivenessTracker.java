@@ -0,0 +1,405 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.event.DeviceLivenessEvent;
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.repository.DeviceRepository.DeviceLivenessRow;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.stream.Stream;
+
+/**
+ * Device Liveness Tracker
+ * Keeps every reporting device ONLINE or OFFLINE in memory, so offline detection needs no polling query and
+ * "how many devices of a tenant are online" is a counter read
+ *
+ * ONLINE devices sit in a hashed timing wheel at the tick their offline-after window ends. A heartbeat only moves
+ * the device's last-seen time; when its slot comes up the device is re-armed at its new deadline, or goes
+ * OFFLINE if there was none. OFFLINE devices are off the wheel and come back ONLINE with their next heartbeat.
+ * Transitions are published as DeviceLivenessEvent
+ *
+ * Built from the devices table on startup and resynced periodically. Before a device goes OFFLINE its
+ * last_heartbeat is read back, so heartbeats received by another instance keep it ONLINE; recoveries reported
+ * to another instance are picked up with the next resync
+ */
+@Component
+@Slf4j
+public class DeviceLivenessTracker {
+
+    private static final int LOOKUP_CHUNK = 1000;
+    private static final int MAX_UNKNOWN = 10_000;
+
+    private static final int OFFLINE = 0;
+    private static final int ONLINE = 1;
+
+    private final DeviceRepository deviceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final long offlineAfterMillis;
+    private final long tickMillis;
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, Counts> tenantCounts = new ConcurrentHashMap<>();
+    private final Counts totals = new Counts();
+    // Devices without a tenant only count towards the totals
+    private final Counts unassigned = new Counts();
+
+    // Heartbeats of devices not tracked yet, resolved against the table on the next tick
+    private final ConcurrentHashMap<String, Long> unknown = new ConcurrentHashMap<>();
+    private final Queue<Entry> revived = new ConcurrentLinkedQueue<>();
+
+    // Wheel state, guarded by this
+    private final List<Entry>[] wheel;
+    private final int mask;
+    private long tick = -1;
+    private int generation;
+
+    @SuppressWarnings("unchecked")
+    public DeviceLivenessTracker(
+            DeviceRepository deviceRepository,
+            ApplicationEventPublisher eventPublisher,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.liveness.offline-after:5m}") Duration offlineAfter,
+            @Value("${app.liveness.tick:1s}") Duration tick) {
+        this.deviceRepository = deviceRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.offlineAfterMillis = offlineAfter.toMillis();
+        this.tickMillis = Math.max(1, tick.toMillis());
+
+        // One turn of the wheel covers the whole window, so a slot rarely holds a device due in a later turn
+        int slots = Integer.highestOneBit((int) Math.min(1 << 20, offlineAfterMillis / tickMillis + 1)) << 1;
+        this.wheel = new List[slots];
+        for (int i = 0; i < slots; i++) {
+            wheel[i] = new ArrayList<>();
+        }
+        this.mask = slots - 1;
+
+        Gauge.builder("device.liveness.tracked", totals.tracked, AtomicInteger::get).register(meterRegistry);
+        Gauge.builder("device.liveness.online", totals.online, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Record a heartbeat - lock-free, called for every ping
+     */
+    public void touch(String imei, LocalDateTime timestamp) {
+        long seen = toMillis(timestamp);
+        Entry entry = entries.get(imei);
+        if (entry == null) {
+            if (unknown.size() < MAX_UNKNOWN || unknown.containsKey(imei)) {
+                unknown.merge(imei, seen, Math::max);
+            }
+            return;
+        }
+        Entry.LAST_SEEN.accumulateAndGet(entry, seen, Math::max);
+        if (entry.state == OFFLINE && alive(seen, System.currentTimeMillis())
+                && Entry.STATE.compareAndSet(entry, OFFLINE, ONLINE)) {
+            revived.add(entry);
+        }
+    }
+
+    /**
+     * Devices of the tenant currently ONLINE (all tenants when null)
+     */
+    public int onlineCount(UUID tenantId) {
+        Counts counts = tenantId == null ? totals : tenantCounts.get(tenantId);
+        return counts == null ? 0 : counts.online.get();
+    }
+
+    /**
+     * Reporting devices of the tenant, ONLINE or OFFLINE (all tenants when null)
+     */
+    public int trackedCount(UUID tenantId) {
+        Counts counts = tenantId == null ? totals : tenantCounts.get(tenantId);
+        return counts == null ? 0 : counts.tracked.get();
+    }
+
+    /**
+     * Merge the devices table into the tracker; devices no longer in it are dropped
+     * Builds the tracker on startup - no events are published for what the first load finds
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.liveness.resync-interval:15m}",
+            fixedDelayString = "${app.liveness.resync-interval:15m}")
+    public synchronized void load() {
+        boolean initial = tick < 0;
+        long now = System.currentTimeMillis();
+        if (initial) {
+            tick = now / tickMillis;
+        }
+        int current = ++generation;
+
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<DeviceLivenessRow> rows = deviceRepository.streamLiveness()) {
+                rows.forEach(row -> merge(row, Long.MIN_VALUE, now, !initial).generation = current);
+            }
+        });
+
+        List<Entry> gone = entries.values().stream().filter(entry -> entry.generation != current).toList();
+        gone.forEach(this::forget);
+        log.info("Device liveness {}: {} tracked, {} online, {} dropped",
+                initial ? "loaded" : "resynced", totals.tracked.get(), totals.online.get(), gone.size());
+    }
+
+    /**
+     * Advance the wheel to the current time
+     * Publishes ONLINE for devices that came back and OFFLINE for devices whose window ended without a heartbeat
+     */
+    @Scheduled(fixedRateString = "${app.liveness.tick:1s}")
+    public synchronized void advance() {
+        if (tick < 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+
+        // Step 1: Bring back devices that reported while OFFLINE
+        for (Entry entry; (entry = revived.poll()) != null; ) {
+            if (entries.get(entry.imei) == entry) {
+                entry.counts.online.incrementAndGet();
+                totals.online.incrementAndGet();
+                schedule(entry);
+                publish(entry, DeviceLivenessEvent.State.ONLINE);
+            }
+        }
+
+        // Step 2: Start tracking devices heard from for the first time
+        resolveUnknown(now);
+
+        // Step 3: Turn the wheel - re-arm devices heard from since they were armed, collect the rest
+        List<Entry> due = new ArrayList<>();
+        long target = now / tickMillis;
+        for (; tick < target; tick++) {
+            int slot = (int) (tick & mask);
+            List<Entry> entriesInSlot = wheel[slot];
+            if (entriesInSlot.isEmpty()) {
+                continue;
+            }
+            wheel[slot] = new ArrayList<>();
+            for (Entry entry : entriesInSlot) {
+                if (entry.deadlineTick > tick) {
+                    // Due in a later turn
+                    wheel[slot].add(entry);
+                } else {
+                    entry.scheduled = false;
+                    if (entries.get(entry.imei) != entry || entry.state != ONLINE) {
+                        continue;
+                    }
+                    if (alive(entry.lastSeen, now)) {
+                        schedule(entry);
+                    } else {
+                        due.add(entry);
+                    }
+                }
+            }
+        }
+
+        // Step 4: Read back the expiring devices - another instance may have heard from them
+        for (int from = 0; from < due.size(); from += LOOKUP_CHUNK) {
+            List<Entry> chunk = due.subList(from, Math.min(from + LOOKUP_CHUNK, due.size()));
+            Map<UUID, DeviceLivenessRow> rows = new HashMap<>(chunk.size() * 2);
+            deviceRepository.findLivenessByIdIn(chunk.stream().map(entry -> entry.id).toList())
+                    .forEach(row -> rows.put(row.getId(), row));
+            for (Entry entry : chunk) {
+                DeviceLivenessRow row = rows.get(entry.id);
+                if (row == null || !row.getImei().equals(entry.imei)) {
+                    forget(entry);
+                    continue;
+                }
+                moveTenant(entry, row.getTenantId());
+                Entry.LAST_SEEN.accumulateAndGet(entry, toMillis(row.getLastHeartbeat()), Math::max);
+                if (alive(entry.lastSeen, now)) {
+                    schedule(entry);
+                } else {
+                    expire(entry, now);
+                }
+            }
+        }
+    }
+
+    private void resolveUnknown(long now) {
+        if (unknown.isEmpty()) {
+            return;
+        }
+        Map<String, Long> heard = new HashMap<>();
+        for (Map.Entry<String, Long> heartbeat : unknown.entrySet()) {
+            if (unknown.remove(heartbeat.getKey(), heartbeat.getValue())) {
+                heard.put(heartbeat.getKey(), heartbeat.getValue());
+            }
+        }
+        List<String> imeis = new ArrayList<>(heard.keySet());
+        for (int from = 0; from < imeis.size(); from += LOOKUP_CHUNK) {
+            for (DeviceLivenessRow row : deviceRepository.findLivenessByImeiIn(imeis.subList(from, Math.min(from + LOOKUP_CHUNK, imeis.size())))) {
+                merge(row, heard.get(row.getImei()), now, true).generation = generation;
+            }
+        }
+    }
+
+    /**
+     * Track a device or bring a tracked one up to date with its row
+     */
+    private Entry merge(DeviceLivenessRow row, long seen, long now, boolean publish) {
+        long lastSeen = Math.max(seen, toMillis(row.getLastHeartbeat()));
+        Entry entry = entries.get(row.getImei());
+        if (entry != null && !entry.id.equals(row.getId())) {
+            // The IMEI moved to another device
+            forget(entry);
+            entry = null;
+        }
+
+        if (entry == null) {
+            entry = new Entry(row.getId(), row.getImei(), row.getTenantId(), counts(row.getTenantId()), lastSeen);
+            entry.counts.tracked.incrementAndGet();
+            totals.tracked.incrementAndGet();
+            entries.put(entry.imei, entry);
+            if (alive(lastSeen, now)) {
+                entry.state = ONLINE;
+                entry.counts.online.incrementAndGet();
+                totals.online.incrementAndGet();
+                schedule(entry);
+                if (publish) {
+                    publish(entry, DeviceLivenessEvent.State.ONLINE);
+                }
+            }
+            return entry;
+        }
+
+        moveTenant(entry, row.getTenantId());
+        Entry.LAST_SEEN.accumulateAndGet(entry, lastSeen, Math::max);
+        if (entry.state == OFFLINE && alive(entry.lastSeen, now) && Entry.STATE.compareAndSet(entry, OFFLINE, ONLINE)) {
+            revived.add(entry);
+        }
+        return entry;
+    }
+
+    /**
+     * Take an ONLINE device OFFLINE, unless a heartbeat arrived meanwhile
+     */
+    private void expire(Entry entry, long now) {
+        if (!Entry.STATE.compareAndSet(entry, ONLINE, OFFLINE)) {
+            return;
+        }
+        // A heartbeat that saw ONLINE just before the switch left only its timestamp behind
+        if (alive(entry.lastSeen, now) && Entry.STATE.compareAndSet(entry, OFFLINE, ONLINE)) {
+            schedule(entry);
+            return;
+        }
+        entry.counts.online.decrementAndGet();
+        totals.online.decrementAndGet();
+        publish(entry, DeviceLivenessEvent.State.OFFLINE);
+    }
+
+    private void forget(Entry entry) {
+        if (!entries.remove(entry.imei, entry)) {
+            return;
+        }
+        // Never counted ONLINE again once it is off the map, whatever a racing heartbeat did to its state
+        int state = Entry.STATE.getAndSet(entry, OFFLINE);
+        if (state == ONLINE && !revived.remove(entry)) {
+            entry.counts.online.decrementAndGet();
+            totals.online.decrementAndGet();
+        }
+        entry.counts.tracked.decrementAndGet();
+        totals.tracked.decrementAndGet();
+    }
+
+    private void moveTenant(Entry entry, UUID tenantId) {
+        Counts counts = counts(tenantId);
+        if (counts == entry.counts) {
+            return;
+        }
+        boolean online = entry.state == ONLINE && !revived.contains(entry);
+        entry.counts.tracked.decrementAndGet();
+        counts.tracked.incrementAndGet();
+        if (online) {
+            entry.counts.online.decrementAndGet();
+            counts.online.incrementAndGet();
+        }
+        entry.counts = counts;
+        entry.tenantId = tenantId;
+    }
+
+    private void schedule(Entry entry) {
+        if (entry.scheduled) {
+            return;
+        }
+        long deadline = entry.lastSeen + offlineAfterMillis;
+        entry.deadlineTick = Math.max(tick + 1, (deadline + tickMillis - 1) / tickMillis);
+        entry.scheduled = true;
+        wheel[(int) (entry.deadlineTick & mask)].add(entry);
+    }
+
+    private void publish(Entry entry, DeviceLivenessEvent.State state) {
+        LocalDateTime lastHeartbeat = LocalDateTime.ofInstant(Instant.ofEpochMilli(entry.lastSeen), ZoneId.systemDefault());
+        eventPublisher.publishEvent(new DeviceLivenessEvent(entry.id, entry.imei, entry.tenantId, state, lastHeartbeat));
+    }
+
+    private Counts counts(UUID tenantId) {
+        return tenantId == null ? unassigned : tenantCounts.computeIfAbsent(tenantId, id -> new Counts());
+    }
+
+    private boolean alive(long lastSeen, long now) {
+        return lastSeen > now - offlineAfterMillis;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp == null ? Long.MIN_VALUE : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Counts {
+
+        final AtomicInteger tracked = new AtomicInteger();
+        final AtomicInteger online = new AtomicInteger();
+    }
+
+    private static final class Entry {
+
+        static final AtomicLongFieldUpdater<Entry> LAST_SEEN = AtomicLongFieldUpdater.newUpdater(Entry.class, "lastSeen");
+        static final AtomicIntegerFieldUpdater<Entry> STATE = AtomicIntegerFieldUpdater.newUpdater(Entry.class, "state");
+
+        final UUID id;
+        final String imei;
+        volatile long lastSeen;
+        volatile int state;
+
+        // Guarded by the tracker
+        UUID tenantId;
+        Counts counts;
+        long deadlineTick;
+        boolean scheduled;
+        int generation;
+
+        Entry(UUID id, String imei, UUID tenantId, Counts counts, long lastSeen) {
+            this.id = id;
+            this.imei = imei;
+            this.tenantId = tenantId;
+            this.counts = counts;
+            this.lastSeen = lastSeen;
+        }
+    }
+}
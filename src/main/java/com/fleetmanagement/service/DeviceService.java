@@ -1,35 +1,82 @@
 package com.fleetmanagement.service;
 
+import com.fleetmanagement.dto.request.BulkDeviceRequestDto;
 import com.fleetmanagement.dto.request.DeviceRequestDto;
+import com.fleetmanagement.dto.response.BulkDeviceResponseDto;
+import com.fleetmanagement.dto.response.DeviceLivenessResponseDto;
 import com.fleetmanagement.dto.response.DeviceResponseDto;
 import com.fleetmanagement.entity.Device;
 import com.fleetmanagement.mapper.DeviceMapper;
 import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.repository.DeviceSpecifications;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.repository.KeysetCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 /**
  * Service for managing device CRUD operations
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class DeviceService {
 
+    private static final String SCROLL_SORT_KEY = "installedAt";
+
+    private static final int IMEI_LOOKUP_CHUNK = 1000;
+
     private final DeviceRepository deviceRepository;
     private final DeviceMapper deviceMapper;
     private final PermissionService permissionService;
+    private final DeviceLivenessTracker livenessTracker;
+    private final DeviceImeiIndex imeiIndex;
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private final int batchSize;
+
+    public DeviceService(
+            DeviceRepository deviceRepository,
+            DeviceMapper deviceMapper,
+            PermissionService permissionService,
+            DeviceLivenessTracker livenessTracker,
+            DeviceImeiIndex imeiIndex,
+            EntityManager entityManager,
+            JdbcTemplate jdbcTemplate,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:100}") int batchSize) {
+        this.deviceRepository = deviceRepository;
+        this.deviceMapper = deviceMapper;
+        this.permissionService = permissionService;
+        this.livenessTracker = livenessTracker;
+        this.imeiIndex = imeiIndex;
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.batchSize = batchSize;
+    }
 
     public DeviceResponseDto createDevice(UUID userId, DeviceRequestDto requestDto) {
         log.debug("Creating device with IMEI: {} by user: {}", requestDto.getImei(), userId);
@@ -42,23 +89,106 @@ public class DeviceService {
 
         Device device = deviceMapper.toEntity(requestDto);
         Device savedDevice = deviceRepository.save(device);
+        imeiIndex.put(savedDevice.getId(), savedDevice.getImei(), null, savedDevice.getTenantId());
         return deviceMapper.toResponseDto(savedDevice);
     }
 
+    /**
+     * Register a lot of devices in one transaction
+     * DEVICE_REGISTER is checked once per tenant and IMEI uniqueness with IN queries; the devices are then
+     * inserted batch by batch. A device registered concurrently after the uniqueness check rolls back an
+     * all-or-nothing lot, and only fails its own item otherwise
+     */
+    public BulkDeviceResponseDto createDevices(UUID userId, BulkDeviceRequestDto requestDto) {
+        List<DeviceRequestDto> items = requestDto.getDevices();
+        log.debug("Creating {} devices by user: {} (allOrNothing={})", items.size(), userId, requestDto.isAllOrNothing());
+        String[] errors = new String[items.size()];
+
+        // Step 1: Check DEVICE_REGISTER once per tenant of the lot
+        Map<UUID, Boolean> allowedTenants = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            UUID tenantId = items.get(i).getTenantId();
+            if (!allowedTenants.computeIfAbsent(tenantId, t -> permissionService.hasPermission(userId, "DEVICE_REGISTER", t))) {
+                errors[i] = "User lacks DEVICE_REGISTER permission for tenant: " + tenantId;
+            }
+        }
+
+        // Step 2: IMEIs must be unique within the lot and against the registered devices
+        Set<String> existingImeis = findExistingImeis(items.stream().map(DeviceRequestDto::getImei).toList());
+        Set<String> seenImeis = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            String imei = items.get(i).getImei();
+            if (!seenImeis.add(imei)) {
+                errors[i] = "Duplicate IMEI " + imei + " in request";
+            } else if (errors[i] == null && existingImeis.contains(imei)) {
+                errors[i] = "Device with IMEI " + imei + " already exists";
+            }
+        }
+
+        BulkDeviceResponseDto.Result[] results = new BulkDeviceResponseDto.Result[items.size()];
+        boolean anyFailed = false;
+        for (int i = 0; i < items.size(); i++) {
+            if (errors[i] != null) {
+                results[i] = new BulkDeviceResponseDto.Result(i, items.get(i).getImei(), false, null, errors[i]);
+                anyFailed = true;
+            }
+        }
+
+        // Step 3: In all-or-nothing mode any failure rejects the whole lot
+        if (requestDto.isAllOrNothing() && anyFailed) {
+            for (int i = 0; i < items.size(); i++) {
+                if (results[i] == null) {
+                    results[i] = new BulkDeviceResponseDto.Result(i, items.get(i).getImei(), false, null,
+                            "Not created: other devices in the request failed");
+                }
+            }
+            return new BulkDeviceResponseDto(0, items.size(), List.of(results));
+        }
+
+        // Step 4: Insert the valid devices batch by batch
+        List<Device> batch = new ArrayList<>(batchSize);
+        List<Integer> batchIndexes = new ArrayList<>(batchSize);
+        for (int i = 0; i < items.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            batch.add(deviceMapper.toEntity(items.get(i)));
+            batchIndexes.add(i);
+            if (batch.size() == batchSize) {
+                insertBatch(batch, batchIndexes, results, requestDto.isAllOrNothing());
+            }
+        }
+        insertBatch(batch, batchIndexes, results, requestDto.isAllOrNothing());
+
+        int created = (int) Arrays.stream(results).filter(BulkDeviceResponseDto.Result::isSuccess).count();
+        log.info("Bulk registered {} devices by user: {} ({} failed)", created, userId, items.size() - created);
+        return new BulkDeviceResponseDto(created, items.size() - created, List.of(results));
+    }
+
     public DeviceResponseDto updateDevice(UUID userId, UUID id, DeviceRequestDto requestDto) {
         log.debug("Updating device: {} by user: {}", id, userId);
         Device device = deviceRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Device not found with id: " + id));
-        if (!permissionService.hasPermission(userId, "DEVICE_UPDATE", device.getTenantId())) {
-            throw new SecurityException("User lacks DEVICE_UPDATE permission for tenant: " + device.getTenantId());
-        }
+        checkDevicePermission(userId, "DEVICE_UPDATE", device);
         if (!device.getImei().equals(requestDto.getImei()) &&
                 deviceRepository.existsByImei(requestDto.getImei())) {
             throw new IllegalArgumentException("Device with IMEI " + requestDto.getImei() + " already exists");
         }
 
+        LocalDateTime previousExpiry = device.getExpiryAt();
+        String previousImei = device.getImei();
         deviceMapper.updateEntityFromDto(requestDto, device);
+        checkDevicePermission(userId, "DEVICE_UPDATE", device);
+        if (!Objects.equals(previousExpiry, device.getExpiryAt())) {
+            // A renewed or moved expiry deserves a fresh expiring-soon notice
+            device.setExpiryNotifiedAt(null);
+        }
         Device updatedDevice = deviceRepository.save(device);
+        if (!previousImei.equals(updatedDevice.getImei())) {
+            imeiIndex.remove(previousImei);
+        }
+        imeiIndex.put(updatedDevice.getId(), updatedDevice.getImei(),
+                updatedDevice.getVehicle() != null ? updatedDevice.getVehicle().getId() : null, updatedDevice.getTenantId());
         return deviceMapper.toResponseDto(updatedDevice);
     }
 
@@ -79,55 +209,73 @@ public class DeviceService {
             LocalDateTime expiryBetweenEnd,
             Pageable pageable) {
         log.debug("Fetching devices for user: {} with filters", userId);
+
+        // Step 1: Pin the listing to the caller's tenant (SuperAdmin may pick any, or none)
+        UUID scopeTenantId = permissionService.resolveTenantScope(userId, tenantId);
+        if (!permissionService.hasPermission(userId, "DEVICE_READ", scopeTenantId)) {
+            throw new SecurityException("User lacks DEVICE_READ permission for tenant: " + scopeTenantId);
+        }
+
+        // Step 2: AND every supplied filter into one query
+        Specification<Device> filter = Specification.allOf(
+                DeviceSpecifications.inTenant(scopeTenantId),
+                DeviceSpecifications.hasImei(imei),
+                DeviceSpecifications.hasStatus(status),
+                DeviceSpecifications.hasModel(deviceModel),
+                DeviceSpecifications.hasInstallerPhone(installerPhone),
+                DeviceSpecifications.inVehicle(vehicleId),
+                DeviceSpecifications.assignedTo(assignedUserId),
+                DeviceSpecifications.registeredBySms(registeredBySms),
+                DeviceSpecifications.lastHeartbeatBefore(lastHeartbeatBefore),
+                DeviceSpecifications.expiresBefore(expiryBefore),
+                DeviceSpecifications.expiresBetween(expiryBetweenStart, expiryBetweenEnd));
+
+        Page<Device> devices = deviceRepository.findAll(filter, pageable);
+        return devices.map(deviceMapper::toResponseDto);
+    }
+
+    /**
+     * Scroll devices with a keyset cursor over (installedAt, id) - for sync jobs walking whole tenants
+     * No COUNT and no OFFSET: every window is an index seek, however deep the walk
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<DeviceResponseDto> scrollDevices(UUID userId, UUID tenantId, String cursor, Integer size) {
+        log.debug("Scrolling devices for user: {} in tenant: {}", userId, tenantId);
         if (!permissionService.hasPermission(userId, "DEVICE_READ", tenantId)) {
             throw new SecurityException("User lacks DEVICE_READ permission for tenant: " + tenantId);
         }
-        Page<Device> devices;
-        if (imei != null) {
-            devices = deviceRepository.findByImei(imei)
-                    .map(device -> new PageImpl<>(Collections.singletonList(device), pageable, 1))
-                    .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
-        } else if (status != null && tenantId != null) {
-            devices = deviceRepository.findByStatusAndTenantId(status, tenantId, pageable);
-        } else if (status != null) {
-            devices = deviceRepository.findByStatus(status, pageable);
-        } else if (tenantId != null) {
-            devices = deviceRepository.findByTenantId(tenantId, pageable);
-        } else if (deviceModel != null) {
-            devices = deviceRepository.findByDeviceModel(deviceModel, pageable);
-        } else if (installerPhone != null) {
-            devices = deviceRepository.findByInstallerPhone(installerPhone, pageable);
-        } else if (vehicleId != null) {
-            devices = deviceRepository.findByVehicleId(vehicleId)
-                    .map(device -> new PageImpl<>(Collections.singletonList(device), pageable, 1))
-                    .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
-        } else if (assignedUserId != null) {
-            devices = deviceRepository.findByUserId(assignedUserId, pageable);
-        } else if (registeredBySms != null && registeredBySms) {
-            devices = deviceRepository.findByRegisteredBySmsTrue(pageable);
-        } else if (lastHeartbeatBefore != null) {
-            devices = deviceRepository.findInactiveDevices(lastHeartbeatBefore, pageable);
-        } else if (expiryBefore != null) {
-            devices = deviceRepository.findExpiredDevices(expiryBefore, pageable);
-        } else if (expiryBetweenStart != null && expiryBetweenEnd != null) {
-            devices = deviceRepository.findDevicesExpiringSoon(expiryBetweenStart, expiryBetweenEnd, pageable);
-        } else {
-            devices = deviceRepository.findAll(pageable);
+
+        ScrollPosition position = KeysetCursor.decode(cursor, SCROLL_SORT_KEY);
+        Sort sort = KeysetCursor.sort(SCROLL_SORT_KEY);
+        Window<Device> devices = tenantId != null
+                ? deviceRepository.findByTenantId(tenantId, position, sort, KeysetCursor.limit(size))
+                : deviceRepository.findBy(position, sort, KeysetCursor.limit(size));
+
+        return new CursorPage<>(devices.map(deviceMapper::toResponseDto).getContent(),
+                KeysetCursor.next(devices, SCROLL_SORT_KEY), devices.hasNext());
+    }
+
+    /**
+     * How many of the tenant's reporting devices are online right now - served from DeviceLivenessTracker
+     */
+    @Transactional(readOnly = true)
+    public DeviceLivenessResponseDto getLiveness(UUID userId, UUID tenantId) {
+        UUID scopeTenantId = permissionService.resolveTenantScope(userId, tenantId);
+        if (!permissionService.hasPermission(userId, "DEVICE_READ", scopeTenantId)) {
+            throw new SecurityException("User lacks DEVICE_READ permission for tenant: " + scopeTenantId);
         }
-        return devices.map(deviceMapper::toResponseDto);
+
+        int online = livenessTracker.onlineCount(scopeTenantId);
+        int tracked = livenessTracker.trackedCount(scopeTenantId);
+        return new DeviceLivenessResponseDto(scopeTenantId, online, Math.max(0, tracked - online));
     }
 
     @Transactional(readOnly = true)
     public DeviceResponseDto getDeviceById(UUID userId, UUID id) {
         log.debug("Fetching device: {} by user: {}", id, userId);
-        if (!permissionService.hasPermission(userId, "DEVICE_READ", null)) {
-            throw new SecurityException("User lacks DEVICE_READ permission");
-        }
         Device device = deviceRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Device not found with id: " + id));
-        if (!permissionService.canAccessTenant(userId, device.getTenantId())) {
-            throw new SecurityException("User cannot access tenant: " + device.getTenantId());
-        }
+        checkDevicePermission(userId, "DEVICE_READ", device);
         return deviceMapper.toResponseDto(device);
     }
 
@@ -135,9 +283,104 @@ public class DeviceService {
         log.debug("Deleting device: {} by user: {}", id, userId);
         Device device = deviceRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Device not found with id: " + id));
-        if (!permissionService.hasPermission(userId, "DEVICE_DELETE", device.getTenantId())) {
-            throw new SecurityException("User lacks DEVICE_DELETE permission for tenant: " + device.getTenantId());
-        }
+        checkDevicePermission(userId, "DEVICE_DELETE", device);
         deviceRepository.delete(device);
+        imeiIndex.remove(device.getImei());
+    }
+
+    /**
+     * Check a permission in the device's scope - the fleet of the vehicle carrying it, otherwise its tenant
+     */
+    private void checkDevicePermission(UUID userId, String permissionCode, Device device) {
+        if (!permissionService.hasPermission(userId, permissionCode, permissionService.scopeOf(device))) {
+            throw new SecurityException("User lacks " + permissionCode + " permission for device: " + device.getId());
+        }
+    }
+
+    /**
+     * Registered IMEIs among the given ones, one IN query per chunk
+     */
+    private Set<String> findExistingImeis(List<String> imeis) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < imeis.size(); from += IMEI_LOOKUP_CHUNK) {
+            existing.addAll(deviceRepository.findExistingImeis(
+                    imeis.subList(from, Math.min(from + IMEI_LOOKUP_CHUNK, imeis.size()))));
+        }
+        return existing;
+    }
+
+    /**
+     * Insert one batch and record the results
+     * All-or-nothing lots are persisted as a single JDBC batch: an IMEI registered since the uniqueness check
+     * fails the flush and with it the lot. Other lots skip such IMEIs in the database, see insertSkippingConflicts
+     */
+    private void insertBatch(List<Device> batch, List<Integer> batchIndexes, BulkDeviceResponseDto.Result[] results,
+                             boolean allOrNothing) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        Set<UUID> inserted = allOrNothing ? persistBatch(batch) : insertSkippingConflicts(batch);
+        for (int j = 0; j < batch.size(); j++) {
+            Device device = batch.get(j);
+            int index = batchIndexes.get(j);
+            if (inserted.contains(device.getId())) {
+                imeiIndex.put(device.getId(), device.getImei(), null, device.getTenantId());
+                results[index] = new BulkDeviceResponseDto.Result(index, device.getImei(), true, deviceMapper.toResponseDto(device), null);
+            } else {
+                results[index] = new BulkDeviceResponseDto.Result(index, device.getImei(), false, null,
+                        "Device with IMEI " + device.getImei() + " already exists");
+            }
+        }
+        batch.clear();
+        batchIndexes.clear();
+    }
+
+    /**
+     * Persist the batch through the persistence context and detach it
+     */
+    private Set<UUID> persistBatch(List<Device> batch) {
+        deviceRepository.saveAll(batch);
+        entityManager.flush();
+        entityManager.clear();
+        return batch.stream().map(Device::getId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Insert the batch with one multi-row INSERT ... ON CONFLICT (imei) DO NOTHING
+     * A unique violation would abort the transaction and every batch before it; this way a device registered
+     * concurrently (by another lot or an SMS) is only left out. Returns the ids of the rows actually inserted
+     */
+    private Set<UUID> insertSkippingConflicts(List<Device> batch) {
+        StringBuilder sql = new StringBuilder(256 + batch.size() * 50).append(
+                "INSERT INTO devices (id, imei, device_model, firmware_version, sim_number, status, tenant_id, "
+                        + "registered_by_sms, installer_phone, expiry_at, installed_at, updated_at, created_by, modified_by) VALUES ");
+        LocalDateTime now = LocalDateTime.now();
+        Object[] args = new Object[batch.size() * 14];
+        for (int i = 0; i < batch.size(); i++) {
+            Device device = batch.get(i);
+            device.setId(UUID.randomUUID());
+            device.setInstalledAt(now);
+            device.setUpdatedAt(now);
+
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            int offset = i * 14;
+            args[offset] = device.getId();
+            args[offset + 1] = device.getImei();
+            args[offset + 2] = device.getDeviceModel();
+            args[offset + 3] = device.getFirmwareVersion();
+            args[offset + 4] = device.getSimNumber();
+            args[offset + 5] = device.getStatus() != null ? device.getStatus().name() : null;
+            args[offset + 6] = device.getTenantId();
+            args[offset + 7] = device.getRegisteredBySms();
+            args[offset + 8] = device.getInstallerPhone();
+            args[offset + 9] = device.getExpiryAt() != null ? Timestamp.valueOf(device.getExpiryAt()) : null;
+            args[offset + 10] = Timestamp.valueOf(now);
+            args[offset + 11] = Timestamp.valueOf(now);
+            args[offset + 12] = device.getCreatedBy();
+            args[offset + 13] = device.getModifiedBy();
+        }
+        sql.append(" ON CONFLICT (imei) DO NOTHING RETURNING id");
+
+        return new HashSet<>(jdbcTemplate.queryForList(sql.toString(), UUID.class, args));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,271 @@
+package com.fleetmanagement.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Service for streaming whole-tenant exports as NDJSON or CSV
+ * Access is checked once up front; rows are then read through a forward-only JDBC cursor
+ * (fetch size, one read-only transaction) and written straight to the response, so heap usage
+ * stays flat however many rows the tenant has
+ */
+@Service
+@Slf4j
+public class ExportService {
+
+    /**
+     * Exportable datasets - table, the permission required to read it and the exported columns
+     */
+    public enum Dataset {
+        USERS("users", "USER_READ", List.of(
+                "id", "username", "email", "first_name", "last_name", "phone_number", "active",
+                "tenant_id", "last_login", "created_at", "updated_at")),
+        DEVICES("devices", "DEVICE_READ", List.of(
+                "id", "imei", "device_model", "firmware_version", "sim_number", "status", "tenant_id",
+                "registered_by_sms", "installer_phone", "last_heartbeat", "expiry_at", "installed_at", "updated_at")),
+        VEHICLES("vehicles", "VEHICLE_READ", List.of(
+                "id", "license_plate", "brand", "model", "year", "vin", "vehicle_type", "status",
+                "tenant_id", "fleet_id", "device_id", "created_at", "updated_at"));
+
+        private final String table;
+        private final String permissionCode;
+        private final List<String> columns;
+        private final List<String> fieldNames;
+
+        Dataset(String table, String permissionCode, List<String> columns) {
+            this.table = table;
+            this.permissionCode = permissionCode;
+            this.columns = columns;
+            this.fieldNames = columns.stream().map(Dataset::camelCase).toList();
+        }
+
+        private static String camelCase(String column) {
+            StringBuilder name = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    name.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return name.toString();
+        }
+    }
+
+    /**
+     * Export formats - one JSON object per line, or CSV with a header row
+     */
+    public enum Format {
+        NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson"),
+        CSV(MediaType.parseMediaType("text/csv;charset=UTF-8"), "csv");
+
+        private final MediaType mediaType;
+        private final String extension;
+
+        Format(MediaType mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public MediaType getMediaType() {
+            return mediaType;
+        }
+
+        public String fileName(Dataset dataset) {
+            return dataset.table + "." + extension;
+        }
+
+        public static Format of(String value) {
+            if (value == null || value.isBlank()) {
+                return NDJSON;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value);
+            }
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PermissionService permissionService;
+    private final JsonFactory jsonFactory;
+
+    public ExportService(
+            DataSource dataSource,
+            PlatformTransactionManager transactionManager,
+            PermissionService permissionService,
+            ObjectMapper objectMapper,
+            @Value("${app.export.fetch-size:1000}") int fetchSize) {
+        // Dedicated template: the fetch size turns the query into a server-side cursor inside a transaction
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.permissionService = permissionService;
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * Authorize an export and return the body that streams it
+     * Runs on the request thread; the returned body is written later on the async executor
+     */
+    public StreamingResponseBody export(UUID userId, UUID tenantId, Dataset dataset, Format format) {
+        // Step 1: Resolve the tenant scope and check the dataset permission - once for the whole export
+        UUID scopeTenantId = permissionService.resolveTenantScope(userId, tenantId);
+        if (!permissionService.hasPermission(userId, dataset.permissionCode, scopeTenantId)) {
+            throw new SecurityException("User lacks " + dataset.permissionCode + " permission for tenant: " + scopeTenantId);
+        }
+        log.info("Exporting {} as {} for tenant: {} by user: {}", dataset, format, scopeTenantId, userId);
+
+        // Step 2: Stream the rows
+        return out -> write(dataset, format, scopeTenantId, out);
+    }
+
+    /**
+     * Stream every row of the dataset within the tenant (all tenants when null) to the output
+     */
+    public void write(Dataset dataset, Format format, UUID tenantId, OutputStream out) throws IOException {
+        RowSink sink = format == Format.CSV ? new CsvSink(out, dataset) : new NdjsonSink(out, dataset, jsonFactory);
+        String sql = "SELECT " + String.join(", ", dataset.columns) + " FROM " + dataset.table
+                + (tenantId != null ? " WHERE tenant_id = ?" : "");
+        Object[] args = tenantId != null ? new Object[]{tenantId} : new Object[0];
+
+        long[] rows = new long[1];
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.query(sql, rs -> {
+                        try {
+                            sink.row(rs);
+                            rows[0]++;
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }, args));
+        } catch (UncheckedIOException e) {
+            // Typically the client went away; the transaction has been rolled back and the cursor closed
+            throw e.getCause();
+        }
+        sink.finish();
+        log.info("Exported {} {} rows", rows[0], dataset);
+    }
+
+    private interface RowSink {
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, camelCase field names, ISO timestamps
+     */
+    private static final class NdjsonSink implements RowSink {
+
+        private final JsonGenerator generator;
+        private final Dataset dataset;
+
+        NdjsonSink(OutputStream out, Dataset dataset, JsonFactory jsonFactory) throws IOException {
+            this.generator = jsonFactory.createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.dataset = dataset;
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < dataset.columns.size(); i++) {
+                Object value = rs.getObject(i + 1);
+                String field = dataset.fieldNames.get(i);
+                if (value == null) {
+                    generator.writeNullField(field);
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBooleanField(field, bool);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumberField(field, number);
+                } else {
+                    generator.writeStringField(field, text(value));
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.close();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row of the column names
+     */
+    private static final class CsvSink implements RowSink {
+
+        private final Writer writer;
+        private final Dataset dataset;
+
+        CsvSink(OutputStream out, Dataset dataset) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            this.dataset = dataset;
+            writer.write(String.join(",", dataset.columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 0; i < dataset.columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i + 1);
+                if (value != null) {
+                    writer.write(escape(text(value)));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() throws IOException {
+            writer.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private static String text(Object value) {
+        return value instanceof Timestamp timestamp ? timestamp.toLocalDateTime().toString() : value.toString();
+    }
+}
@@ -0,0 +1,199 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.HeartbeatRequestDto;
+import com.fleetmanagement.dto.response.HeartbeatResponseDto;
+import com.fleetmanagement.repository.DeviceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service for write-behind heartbeat ingestion
+ * Heartbeats are coalesced per IMEI in memory - only the latest timestamp of a device is kept - and
+ * written periodically with one UPDATE ... FROM (VALUES ...) per batch-size devices, so the write rate
+ * follows the number of devices per flush interval rather than the ping rate
+ *
+ * Callers report for the devices of their own tenant only; SuperAdmin for any device.
+ * The buffer holds at most one entry per device. Timestamps only move forward: a flush never overwrites
+ * a newer heartbeat, whichever instance wrote it. A failed flush puts its heartbeats back for the next one
+ */
+@Service
+@Slf4j
+public class HeartbeatService {
+
+    private static final int IMEI_LOOKUP_CHUNK = 1000;
+
+    private final ConcurrentHashMap<String, LocalDateTime> pending = new ConcurrentHashMap<>();
+    private final JdbcTemplate jdbcTemplate;
+    private final DeviceRepository deviceRepository;
+    private final DeviceImeiIndex imeiIndex;
+    private final PermissionService permissionService;
+    private final DeviceLivenessTracker livenessTracker;
+    private final int batchSize;
+    private final Counter received;
+    private final Counter written;
+
+    public HeartbeatService(
+            JdbcTemplate jdbcTemplate,
+            DeviceRepository deviceRepository,
+            DeviceImeiIndex imeiIndex,
+            PermissionService permissionService,
+            DeviceLivenessTracker livenessTracker,
+            MeterRegistry meterRegistry,
+            @Value("${app.heartbeat.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.deviceRepository = deviceRepository;
+        this.imeiIndex = imeiIndex;
+        this.permissionService = permissionService;
+        this.livenessTracker = livenessTracker;
+        this.batchSize = batchSize;
+        this.received = meterRegistry.counter("device.heartbeat.received");
+        this.written = meterRegistry.counter("device.heartbeat.written");
+        Gauge.builder("device.heartbeat.pending", pending, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Buffer a lot of heartbeats; liveness is updated right away
+     * Heartbeats of devices outside the caller's tenant are rejected, never buffered
+     * Timestamps in the future (device clock drift) are taken as the time of receipt
+     */
+    public HeartbeatResponseDto record(UUID userId, HeartbeatRequestDto requestDto) {
+        // Step 1: Pin the caller to their tenant (SuperAdmin reports for any device)
+        UUID tenantId = permissionService.resolveTenantScope(userId, null);
+        if (tenantId != null && !permissionService.hasPermission(userId, "DEVICE_HEARTBEAT", tenantId)) {
+            throw new SecurityException("User lacks DEVICE_HEARTBEAT permission for tenant: " + tenantId);
+        }
+
+        // Step 2: Keep the heartbeats of the tenant's devices
+        List<HeartbeatRequestDto.Heartbeat> heartbeats = requestDto.getHeartbeats();
+        Set<String> allowed = tenantId != null ? findImeisInTenant(tenantId, heartbeats) : null;
+
+        // Step 3: Buffer the latest timestamp per device
+        LocalDateTime now = LocalDateTime.now();
+        int accepted = 0;
+        for (HeartbeatRequestDto.Heartbeat heartbeat : heartbeats) {
+            if (allowed != null && !allowed.contains(heartbeat.getImei())) {
+                continue;
+            }
+            LocalDateTime timestamp = heartbeat.getTimestamp();
+            if (timestamp == null || timestamp.isAfter(now)) {
+                timestamp = now;
+            }
+            pending.merge(heartbeat.getImei(), timestamp, HeartbeatService::latest);
+            livenessTracker.touch(heartbeat.getImei(), timestamp);
+            accepted++;
+        }
+        received.increment(accepted);
+        return new HeartbeatResponseDto(accepted, heartbeats.size() - accepted, pending.size());
+    }
+
+    /**
+     * Write the buffered heartbeats
+     *
+     * @return number of heartbeats written
+     */
+    @Scheduled(fixedDelayString = "${app.heartbeat.flush-interval:1s}")
+    public synchronized int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        // Step 1: Drain - an entry replaced by a newer heartbeat meanwhile stays for the next flush
+        List<Map.Entry<String, LocalDateTime>> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<String, LocalDateTime> entry : pending.entrySet()) {
+            String imei = entry.getKey();
+            LocalDateTime timestamp = entry.getValue();
+            if (pending.remove(imei, timestamp)) {
+                drained.add(Map.entry(imei, timestamp));
+            }
+        }
+
+        // Step 2: One statement per batch
+        int flushed = 0;
+        try {
+            while (flushed < drained.size()) {
+                List<Map.Entry<String, LocalDateTime>> batch =
+                        drained.subList(flushed, Math.min(flushed + batchSize, drained.size()));
+                update(batch);
+                flushed += batch.size();
+            }
+        } catch (DataAccessException e) {
+            List<Map.Entry<String, LocalDateTime>> unwritten = drained.subList(flushed, drained.size());
+            unwritten.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(), HeartbeatService::latest));
+            log.warn("Heartbeat flush failed, {} heartbeats kept for the next flush", unwritten.size(), e);
+        }
+
+        written.increment(flushed);
+        log.debug("Flushed {} heartbeats", flushed);
+        return flushed;
+    }
+
+    /**
+     * Write what is still buffered before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private void update(List<Map.Entry<String, LocalDateTime>> batch) {
+        StringBuilder sql = new StringBuilder(64 + batch.size() * 8)
+                .append("UPDATE devices d SET last_heartbeat = v.ts FROM (VALUES ");
+        Object[] args = new Object[batch.size() * 2];
+        for (int i = 0; i < batch.size(); i++) {
+            // The first row carries the column types for the whole VALUES list
+            sql.append(i == 0 ? "(CAST(? AS VARCHAR(20)), CAST(? AS TIMESTAMP))" : ", (?, ?)");
+            args[i * 2] = batch.get(i).getKey();
+            args[i * 2 + 1] = Timestamp.valueOf(batch.get(i).getValue());
+        }
+        sql.append(") AS v(imei, ts) WHERE d.imei = v.imei AND (d.last_heartbeat IS NULL OR d.last_heartbeat < v.ts)");
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    /**
+     * IMEIs among the heartbeats that belong to devices of the tenant
+     * Answered from the DeviceImeiIndex; only IMEIs it does not place in the tenant are looked up, one IN query
+     * per chunk, so a device that just moved into the tenant is not turned away
+     */
+    private Set<String> findImeisInTenant(UUID tenantId, List<HeartbeatRequestDto.Heartbeat> heartbeats) {
+        Set<String> allowed = new HashSet<>();
+        Set<String> unresolved = new LinkedHashSet<>();
+        for (HeartbeatRequestDto.Heartbeat heartbeat : heartbeats) {
+            String imei = heartbeat.getImei();
+            if (tenantId.equals(imeiIndex.tenantOf(imei))) {
+                allowed.add(imei);
+            } else {
+                unresolved.add(imei);
+            }
+        }
+
+        List<String> imeis = new ArrayList<>(unresolved);
+        for (int from = 0; from < imeis.size(); from += IMEI_LOOKUP_CHUNK) {
+            allowed.addAll(deviceRepository.findImeisInTenant(
+                    tenantId, imeis.subList(from, Math.min(from + IMEI_LOOKUP_CHUNK, imeis.size()))));
+        }
+        return allowed;
+    }
+
+    private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        return a.isAfter(b) ? a : b;
+    }
+}
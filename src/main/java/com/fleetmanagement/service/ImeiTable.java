@@ -0,0 +1,320 @@
+package com.fleetmanagement.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * IMEI Table
+ * Open-addressing hash table from an IMEI, parsed to a long, to its device, vehicle and tenant
+ * Linear probing over primitive arrays: a lookup hashes the long and compares longs - no String, no boxing
+ * and no entry objects. Probing walks the dense key array; the device and vehicle ids of a slot sit side by
+ * side as four longs, and tenants are interned, so each slot holds an int reference to its tenant
+ *
+ * Lookups take an optimistic read stamp and retry under the read lock only if a write overlapped them.
+ * Deletions shift the following run back instead of leaving tombstones, so the load factor never degrades
+ */
+public final class ImeiTable {
+
+    private static final long EMPTY = -1L;
+    private static final int NO_TENANT = 0;
+    private static final float LOAD_FACTOR = 0.75f;
+    private static final int IMEI_DIGITS = 15;
+
+    private final StampedLock lock = new StampedLock();
+
+    // Writes guarded by lock
+    private Slots slots;
+    private UUID[] tenants = new UUID[16];
+    private final Map<UUID, Integer> tenantRefs = new HashMap<>();
+    private int size;
+
+    public ImeiTable(int expectedSize) {
+        this.slots = new Slots(capacityFor(expectedSize));
+    }
+
+    /**
+     * The table key of an IMEI, or -1 when it is not exactly 15 digits
+     * The length is fixed, so leading zeros cannot make two IMEIs share a key
+     */
+    public static long key(CharSequence imei) {
+        int length = imei == null ? 0 : imei.length();
+        if (length != IMEI_DIGITS) {
+            return EMPTY;
+        }
+        long key = 0;
+        for (int i = 0; i < length; i++) {
+            int digit = imei.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return EMPTY;
+            }
+            key = key * 10 + digit;
+        }
+        return key;
+    }
+
+    /**
+     * Device, vehicle and tenant of the IMEI, null when it is not in the table
+     */
+    public Resolution get(long imei) {
+        if (imei < 0) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        Resolution resolution = read(imei);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                resolution = read(imei);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return resolution;
+    }
+
+    /**
+     * Tenant of the IMEI without allocating, null when it has none or is not in the table
+     */
+    public UUID tenantOf(long imei) {
+        if (imei < 0) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        UUID tenantId = readTenant(imei);
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                tenantId = readTenant(imei);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return tenantId;
+    }
+
+    public boolean contains(long imei) {
+        if (imei < 0) {
+            return false;
+        }
+        long stamp = lock.tryOptimisticRead();
+        boolean found = find(slots, imei) >= 0;
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                found = find(slots, imei) >= 0;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Insert or replace the entry of the IMEI
+     */
+    public void put(long imei, UUID deviceId, UUID vehicleId, UUID tenantId) {
+        if (imei < 0) {
+            throw new IllegalArgumentException("Not a numeric IMEI key: " + imei);
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > slots.keys.length * LOAD_FACTOR) {
+                slots = rehash(slots, slots.keys.length << 1);
+            }
+            Slots s = slots;
+            int slot = find(s, imei);
+            if (slot < 0) {
+                slot = ~slot;
+                s.keys[slot] = imei;
+                size++;
+            }
+            int at = slot * Slots.IDS;
+            s.ids[at] = deviceId.getMostSignificantBits();
+            s.ids[at + 1] = deviceId.getLeastSignificantBits();
+            s.ids[at + 2] = vehicleId == null ? 0 : vehicleId.getMostSignificantBits();
+            s.ids[at + 3] = vehicleId == null ? 0 : vehicleId.getLeastSignificantBits();
+            s.tenants[slot] = intern(tenantId);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove the entry of the IMEI
+     *
+     * @return whether it was in the table
+     */
+    public boolean remove(long imei) {
+        if (imei < 0) {
+            return false;
+        }
+        long stamp = lock.writeLock();
+        try {
+            Slots s = slots;
+            int gap = find(s, imei);
+            if (gap < 0) {
+                return false;
+            }
+            // Shift back every entry of the run that may not be left behind the gap
+            int mask = s.keys.length - 1;
+            for (int next = (gap + 1) & mask; s.keys[next] != EMPTY; next = (next + 1) & mask) {
+                int home = home(s.keys[next], mask);
+                if (((next - home) & mask) >= ((next - gap) & mask)) {
+                    s.move(next, gap);
+                    gap = next;
+                }
+            }
+            s.keys[gap] = EMPTY;
+            size--;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Bytes held by the slot arrays - the interned tenants come on top
+     */
+    public long footprintBytes() {
+        long stamp = lock.readLock();
+        try {
+            return (long) slots.keys.length * Slots.BYTES_PER_SLOT;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private Resolution read(long imei) {
+        Slots s = slots;
+        UUID[] tenantTable = tenants;
+        int slot = find(s, imei);
+        if (slot < 0) {
+            return null;
+        }
+        int at = slot * Slots.IDS;
+        long vehicleHi = s.ids[at + 2];
+        long vehicleLo = s.ids[at + 3];
+        return new Resolution(
+                new UUID(s.ids[at], s.ids[at + 1]),
+                vehicleHi == 0 && vehicleLo == 0 ? null : new UUID(vehicleHi, vehicleLo),
+                tenant(tenantTable, s.tenants[slot]));
+    }
+
+    private UUID readTenant(long imei) {
+        Slots s = slots;
+        UUID[] tenantTable = tenants;
+        int slot = find(s, imei);
+        return slot < 0 ? null : tenant(tenantTable, s.tenants[slot]);
+    }
+
+    private static UUID tenant(UUID[] tenantTable, int ref) {
+        // An optimistic read may see a reference newer than its tenant table; validation discards the result
+        return ref < tenantTable.length ? tenantTable[ref] : null;
+    }
+
+    /**
+     * Slot holding the IMEI, or the complement of the free slot it would go to
+     * Bounded by the capacity, so an optimistic read overlapping a write always returns
+     */
+    private static int find(Slots s, long imei) {
+        long[] keys = s.keys;
+        int mask = keys.length - 1;
+        int slot = home(imei, mask);
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            long key = keys[slot];
+            if (key == imei) {
+                return slot;
+            }
+            if (key == EMPTY) {
+                return ~slot;
+            }
+        }
+        return ~0;
+    }
+
+    private static int home(long imei, int mask) {
+        // IMEIs share their leading digits (type allocation code), so spread the bits before masking
+        long h = imei * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private int intern(UUID tenantId) {
+        if (tenantId == null) {
+            return NO_TENANT;
+        }
+        Integer ref = tenantRefs.get(tenantId);
+        if (ref == null) {
+            ref = tenantRefs.size() + 1;
+            if (ref == tenants.length) {
+                tenants = Arrays.copyOf(tenants, tenants.length << 1);
+            }
+            tenants[ref] = tenantId;
+            tenantRefs.put(tenantId, ref);
+        }
+        return ref;
+    }
+
+    private static Slots rehash(Slots old, int capacity) {
+        Slots s = new Slots(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.keys[i] != EMPTY) {
+                int slot = home(old.keys[i], mask);
+                while (s.keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                s.keys[slot] = old.keys[i];
+                System.arraycopy(old.ids, i * Slots.IDS, s.ids, slot * Slots.IDS, Slots.IDS);
+                s.tenants[slot] = old.tenants[i];
+            }
+        }
+        return s;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int needed = (int) Math.min(1 << 28, (long) Math.ceil(Math.max(expectedSize, 1) / (double) LOAD_FACTOR));
+        return Math.max(16, Integer.highestOneBit(needed - 1) << 1);
+    }
+
+    /**
+     * One generation of the arrays - swapped as a whole on rehash, so a reader never mixes two
+     */
+    private static final class Slots {
+
+        // Device id halves, then vehicle id halves (0, 0 when none)
+        static final int IDS = 4;
+        static final int BYTES_PER_SLOT = (1 + IDS) * Long.BYTES + Integer.BYTES;
+
+        final long[] keys;
+        final long[] ids;
+        final int[] tenants;
+
+        Slots(int capacity) {
+            keys = new long[capacity];
+            Arrays.fill(keys, EMPTY);
+            ids = new long[capacity * IDS];
+            tenants = new int[capacity];
+        }
+
+        void move(int from, int to) {
+            keys[to] = keys[from];
+            System.arraycopy(ids, from * IDS, ids, to * IDS, IDS);
+            tenants[to] = tenants[from];
+        }
+    }
+
+    public record Resolution(UUID deviceId, UUID vehicleId, UUID tenantId) {
+    }
+}
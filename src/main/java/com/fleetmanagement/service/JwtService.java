@@ -1,9 +1,14 @@
 package com.fleetmanagement.service;
 
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.security.ScopedAuthority;
+import com.fleetmanagement.security.VerifiedToken;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
@@ -11,23 +16,62 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.*;
 import java.util.function.Function;
 
 /**
  * JWT Service - Handles JWT token creation, validation, and parsing
  * Improved for stronger security and maintainability
+ * Signing key and parser are built once at startup and shared (both are immutable and thread-safe)
  */
 @Service
 @Slf4j
 public class JwtService {
 
+    static final String ROLES_CLAIM = "roles";
+    static final String SCOPED_ROLES_CLAIM = "scopedRoles";
+    static final String TENANT_CLAIM = "tenantId";
+    static final String USERNAME_CLAIM = "username";
+    static final String AUTHORIZATION_VERSION_CLAIM = "authzVersion";
+    static final String AUTHORIZATION_EPOCH_CLAIM = "authzEpoch";
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private Long jwtExpirationInMs;
 
+    private Key signingKey;
+    private JwtParser jwtParser;
+
+    @PostConstruct
+    public void init() {
+        this.signingKey = Keys.hmacShaKeyFor(hexToBytes(jwtSecret));
+        this.jwtParser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+
+    /**
+     * Verify signature and expiry once and return a typed view of the token
+     * Throws a JwtException subtype when the token is malformed, tampered or expired
+     */
+    public VerifiedToken parseToken(String token) {
+        Claims claims = extractAllClaims(token);
+        return new VerifiedToken(
+                UUID.fromString(claims.getSubject()),
+                claims.get(USERNAME_CLAIM, String.class),
+                extractTenantId(claims),
+                extractRoles(claims, ROLES_CLAIM),
+                extractRoles(claims, SCOPED_ROLES_CLAIM),
+                claims.get(AUTHORIZATION_VERSION_CLAIM, Long.class),
+                claims.get(AUTHORIZATION_EPOCH_CLAIM, String.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
+    }
+
     /**
      * Extract username (subject) from JWT token
      */
@@ -54,37 +98,46 @@ public class JwtService {
      * Generate JWT token with default claims
      */
     public String generateToken(UserDetails userDetails, UUID userId) {
-    Map<String, Object> claims = new HashMap<>();
-    claims.put("roles", userDetails.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .toList());
-    return createToken(claims, userId.toString());
-}
-
-/**
- * Generate JWT token with extra claims
- */
-public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, UUID userId) {
-    extraClaims.put("roles", userDetails.getAuthorities().stream()
-            .map(GrantedAuthority::getAuthority)
-            .toList());
-    return createToken(extraClaims, userId.toString());
-}
-
+        return generateToken(new HashMap<>(), userDetails, userId);
+    }
 
     /**
-     * Validate token against username and expiration
+     * Generate JWT token with extra claims
+     * Authorities held only on a region or fleet go in their own claim so they are never read back as tenant-wide
      */
-    public Boolean isTokenValid(String token, UserDetails userDetails, UUID userId) {
-        final UUID extractedId = extractUserId(token);
-        return (extractedId.equals(userId) && !isTokenExpired(token));
+    public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails, UUID userId) {
+        extraClaims.put(ROLES_CLAIM, userDetails.getAuthorities().stream()
+                .filter(authority -> !(authority instanceof ScopedAuthority))
+                .map(GrantedAuthority::getAuthority)
+                .toList());
+        List<String> scopedRoles = userDetails.getAuthorities().stream()
+                .filter(ScopedAuthority.class::isInstance)
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        if (!scopedRoles.isEmpty()) {
+            extraClaims.put(SCOPED_ROLES_CLAIM, scopedRoles);
+        }
+        extraClaims.put(USERNAME_CLAIM, userDetails.getUsername());
+        if (userDetails instanceof UserLoginResponse user) {
+            if (user.getTenantId() != null) {
+                extraClaims.put(TENANT_CLAIM, user.getTenantId().toString());
+            }
+            if (user.getAuthorizationVersion() != null) {
+                extraClaims.put(AUTHORIZATION_VERSION_CLAIM, user.getAuthorizationVersion());
+            }
+            if (user.getAuthorizationEpoch() != null) {
+                extraClaims.put(AUTHORIZATION_EPOCH_CLAIM, user.getAuthorizationEpoch());
+            }
+        }
+        return createToken(extraClaims, userId.toString());
     }
 
     /**
-     * Check if token is expired
+     * Validate token against user id and expiration
      */
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public Boolean isTokenValid(String token, UserDetails userDetails, UUID userId) {
+        VerifiedToken verified = parseToken(token);
+        return verified.userId().equals(userId) && !verified.isExpired(Instant.now());
     }
 
     /**
@@ -99,30 +152,36 @@ public String generateToken(Map<String, Object> extraClaims, UserDetails userDet
                 .setSubject(subject)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSignInKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
+
     public UUID extractUserId(String token) {
         return UUID.fromString(extractClaim(token, Claims::getSubject));
     }
 
     /**
-     * Extract all claims using parserBuilder (recommended)
+     * Extract all claims using the shared parser
      */
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
+        return jwtParser
                 .parseClaimsJws(token)
                 .getBody();
     }
 
-    /**
-     * Get signing key for JWT
-     */
-    private Key getSignInKey() {
-        byte[] keyBytes = hexToBytes(jwtSecret);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private List<String> extractRoles(Claims claims, String claim) {
+        Object roles = claims.get(claim);
+        if (!(roles instanceof Collection<?> values)) {
+            return Collections.emptyList();
+        }
+        return values.stream()
+                .map(String::valueOf)
+                .toList();
+    }
+
+    private UUID extractTenantId(Claims claims) {
+        String tenantId = claims.get(TENANT_CLAIM, String.class);
+        return tenantId != null ? UUID.fromString(tenantId) : null;
     }
 
     private byte[] hexToBytes(String hex) {
@@ -5,16 +5,20 @@ import com.fleetmanagement.dto.response.PermissionResponseDto;
 import com.fleetmanagement.entity.Permission;
 import com.fleetmanagement.mapper.PermissionMapper;
 import com.fleetmanagement.repository.PermissionRepository;
+import com.fleetmanagement.repository.PermissionSpecifications;
+import com.fleetmanagement.security.PermissionRegistry;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.repository.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
 import java.util.UUID;
 
 /**
@@ -26,9 +30,12 @@ import java.util.UUID;
 @Transactional
 public class PermissionManagementService {
 
+    private static final String SCROLL_SORT_KEY = "createdAt";
+
     private final PermissionRepository permissionRepository;
     private final PermissionMapper permissionMapper;
     private final PermissionService permissionService;
+    private final PermissionRegistry permissionRegistry;
 
     public PermissionResponseDto createPermission(UUID userId, PermissionRequestDto requestDto) {
         log.debug("Creating permission with code: {} by user: {}", requestDto.getCode(), userId);
@@ -41,6 +48,7 @@ public class PermissionManagementService {
 
         Permission permission = permissionMapper.toEntity(requestDto);
         Permission savedPermission = permissionRepository.save(permission);
+        permissionRegistry.intern(savedPermission.getCode());
         return permissionMapper.toResponseDto(savedPermission);
     }
 
@@ -58,7 +66,8 @@ public class PermissionManagementService {
 
         permissionMapper.updateEntityFromDto(requestDto, permission);
         Permission updatedPermission = permissionRepository.save(permission);
-//        permissionService.refreshUserPermissions(userId); // Refresh permissions if needed
+        permissionRegistry.intern(updatedPermission.getCode());
+        permissionService.refreshPermissionHolders(id); // Code or status may have changed
         return permissionMapper.toResponseDto(updatedPermission);
     }
 
@@ -86,25 +95,36 @@ public class PermissionManagementService {
         if (!permissionService.hasPermission(userId, "PERMISSION_READ", null) && !permissionService.hasPermission(userId, "SUPER_ADMIN", null)) {
             throw new SecurityException("User lacks PERMISSION_READ permission");
         }
-        Page<Permission> permissions;
-        if (code != null) {
-            permissions = permissionRepository.findByCode(code)
-                    .map(permission -> new PageImpl<>(Collections.singletonList(permission), pageable, 1))
-                    .orElseGet(() -> new PageImpl<>(Collections.emptyList(), pageable, 0));
-        } else if (category != null) {
-            permissions = permissionRepository.findByCategoryAndActiveTrue(category, pageable);
-        } else if (requiresScope != null) {
-            permissions = permissionRepository.findByRequiresScopeAndActiveTrue(requiresScope, pageable);
-        } else if (name != null) {
-            permissions = permissionRepository.findByNameContainingIgnoreCaseAndActiveTrue(name, pageable);
-        } else if (roleId != null) {
-            permissions = permissionRepository.findByRoleId(roleId, pageable);
-        } else {
-            permissions = permissionRepository.findByActiveTrue(pageable);
-        }
+
+        // An exact code lookup also finds inactive permissions; every other listing is active only
+        Specification<Permission> filter = Specification.allOf(
+                code != null ? PermissionSpecifications.hasCode(code) : PermissionSpecifications.isActive(),
+                PermissionSpecifications.inCategory(category),
+                PermissionSpecifications.requiresScope(requiresScope),
+                PermissionSpecifications.nameContains(name),
+                PermissionSpecifications.grantedByRole(roleId));
+
+        Page<Permission> permissions = permissionRepository.findAll(filter, pageable);
         return permissions.map(permissionMapper::toResponseDto);
     }
 
+    /**
+     * Scroll active permissions with a keyset cursor over (createdAt, id) - no COUNT and no OFFSET
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<PermissionResponseDto> scrollPermissions(UUID userId, String cursor, Integer size) {
+        log.debug("Scrolling permissions for user: {}", userId);
+        if (!permissionService.hasPermission(userId, "PERMISSION_READ", null) && !permissionService.hasPermission(userId, "SUPER_ADMIN", null)) {
+            throw new SecurityException("User lacks PERMISSION_READ permission");
+        }
+
+        Window<Permission> permissions = permissionRepository.findByActiveTrue(
+                KeysetCursor.decode(cursor, SCROLL_SORT_KEY), KeysetCursor.sort(SCROLL_SORT_KEY), KeysetCursor.limit(size));
+
+        return new CursorPage<>(permissions.map(permissionMapper::toResponseDto).getContent(),
+                KeysetCursor.next(permissions, SCROLL_SORT_KEY), permissions.hasNext());
+    }
+
     public void deletePermission(UUID userId, UUID id) {
         log.debug("Deleting permission: {} by user: {}", id, userId);
         Permission permission = permissionRepository.findById(id)
@@ -114,6 +134,6 @@ public class PermissionManagementService {
         }
         permission.setActive(false); // Soft delete
         permissionRepository.save(permission);
-        permissionService.refreshUserPermissions(userId); // Refresh permissions
+        permissionService.refreshPermissionHolders(id); // Refresh permissions of every holder
     }
 }
\ No newline at end of file
@@ -1,25 +1,50 @@
 package com.fleetmanagement.service;
 
+import com.fleetmanagement.entity.Device;
 import com.fleetmanagement.entity.Permission;
-import com.fleetmanagement.entity.Role;
-import com.fleetmanagement.entity.User;
+import com.fleetmanagement.entity.Vehicle;
 import com.fleetmanagement.repository.PermissionRepository;
+import com.fleetmanagement.repository.UserEffectivePermissionRepository;
+import com.fleetmanagement.repository.UserEffectivePermissionRepository.EffectivePermissionRow;
 import com.fleetmanagement.repository.UserRepository;
+import com.fleetmanagement.security.AuthorizationContext;
+import com.fleetmanagement.security.AuthorizationGraph;
+import com.fleetmanagement.security.AuthorizationContextHolder;
+import com.fleetmanagement.security.AuthorizationVersionRegistry;
+import com.fleetmanagement.security.PermissionRegistry;
+import com.fleetmanagement.security.PermissionCheck;
+import com.fleetmanagement.security.PermissionSet;
+import com.fleetmanagement.security.PermissionSnapshot;
+import com.fleetmanagement.security.PermissionSnapshotCache;
+import com.fleetmanagement.security.ScopeHierarchy;
+import com.fleetmanagement.security.ScopedAuthority;
 
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 /**
  * Permission Service - Handles permission checking and validation
- * Updated: Proper business logic implementation without caching
+ * Updated: Per-user permission snapshots are cached and evicted precisely on every change
+ * Permissions are checked against interned bitsets (PermissionRegistry) without allocation
+ * With the AuthorizationGraph enabled, snapshots are answered from memory and the database is only a fallback
  * Implements comprehensive permission validation with scope checking
  */
 @Service
@@ -28,8 +53,24 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class PermissionService {
 
+    /**
+     * Permissions whose service checks resolve the resource's fleet or region
+     * Only these are surfaced as authorities when granted by a scoped role - endpoints guarded
+     * by authority alone keep rejecting scoped holders
+     */
+    private static final Set<String> SCOPE_AWARE_PERMISSIONS = Set.of(
+            "VEHICLE_READ", "VEHICLE_UPDATE", "VEHICLE_DELETE",
+            "DEVICE_READ", "DEVICE_UPDATE", "DEVICE_DELETE");
+
     private final UserRepository userRepository;
     private final PermissionRepository permissionRepository;
+    private final UserEffectivePermissionRepository effectivePermissionRepository;
+    private final AuthorizationVersionRegistry versionRegistry;
+    private final PermissionSnapshotCache snapshotCache;
+    private final AuthorizationContextHolder authorizationContextHolder;
+    private final PermissionRegistry permissionRegistry;
+    private final AuthorizationGraph authorizationGraph;
+    private final ScopeHierarchy scopeHierarchy;
 
     /**
      * Core permission checking method with comprehensive business logic
@@ -49,21 +90,58 @@ public class PermissionService {
             return false;
         }
 
-        // Step 2: Load user with roles and permissions (single query optimization)
-        User user = getUserWithPermissions(userId);
-        if (user == null) {
-            log.debug("User not found or inactive: {}", userId);
-            return false;
+        // Step 2: Resolve the user's permission snapshot (cached, single query on miss)
+        PermissionSnapshot snapshot = getSnapshot(userId);
+
+        // Step 3: Evaluate permission and scope against the snapshot
+        return evaluate(snapshot, permissionCode, scopeId);
+    }
+
+    /**
+     * Evaluate many (user, permission, scope) checks at once
+     * Checks are grouped by user: every snapshot is resolved once and all uncached users
+     * are loaded together with a single IN query. Results are returned in request order
+     *
+     * Non-SuperAdmin requesters may check themselves; checking other users of their own tenant needs USER_READ
+     */
+    public List<Boolean> checkPermissions(UUID requesterId, List<PermissionCheck> checks) {
+        log.debug("Batch checking {} permissions by user: {}", checks.size(), requesterId);
+
+        // Step 1: Group by user - resolve every involved snapshot in one go
+        Set<UUID> userIds = new HashSet<>();
+        userIds.add(requesterId);
+        for (PermissionCheck check : checks) {
+            if (check.userId() != null) {
+                userIds.add(check.userId());
+            }
         }
+        Map<UUID, PermissionSnapshot> snapshots = getSnapshots(userIds);
 
-        // Step 6: Validate scope if required
-        if (!validatePermissionScope(user, permissionCode, scopeId)) {
-            log.debug("Scope validation failed for user: {} with scope: {}", userId, scopeId);
-            return false;
+        // Step 2: Requester must be allowed to inspect every user in the batch
+        PermissionSnapshot requester = snapshots.get(requesterId);
+        if (!requester.active()) {
+            throw new SecurityException("Requesting user not found or inactive");
+        }
+        if (!requester.isSuperAdmin()) {
+            if (userIds.size() > 1 && !evaluate(requester, "USER_READ", requester.tenantId())) {
+                throw new SecurityException("User lacks USER_READ permission to check other users");
+            }
+            for (UUID userId : userIds) {
+                if (!userId.equals(requesterId)
+                        && (requester.tenantId() == null || !requester.tenantId().equals(snapshots.get(userId).tenantId()))) {
+                    throw new SecurityException("Access denied to permissions of user: " + userId);
+                }
+            }
         }
 
-        log.debug("Permission granted: {} for user: {} within scope: {}", permissionCode, userId, scopeId);
-        return true;
+        // Step 3: Evaluate every check against its snapshot
+        List<Boolean> results = new ArrayList<>(checks.size());
+        for (PermissionCheck check : checks) {
+            results.add(check.userId() != null
+                    && check.permissionCode() != null
+                    && evaluate(snapshots.get(check.userId()), check.permissionCode(), check.scopeId()));
+        }
+        return results;
     }
 
     /**
@@ -77,42 +155,94 @@ public class PermissionService {
             return Collections.emptySet();
         }
 
-        User user = getUserWithPermissions(userId);
-        if (user == null) {
-            return Collections.emptySet();
-        }
-
-        Set<String> permissions = extractUserPermissions(user);
+        Set<String> permissions = permissionRegistry.codesOf(getSnapshot(userId).permissions());
         log.debug("User {} has {} permissions", userId, permissions.size());
 
         return permissions;
     }
 
+    /**
+     * Get the effective permissions of a user as bitset
+     */
+    public PermissionSet getEffectivePermissions(UUID userId) {
+        return userId == null ? PermissionSet.EMPTY : getSnapshot(userId).permissions();
+    }
+
+    /**
+     * Get the granted authorities of a user - shared instances interned by the PermissionRegistry
+     * Scope-aware permissions held only on a region or fleet come along as ScopedAuthority, so the
+     * route and @PreAuthorize checks admit the holder and the service checks the resource's scope
+     */
+    public List<GrantedAuthority> getUserAuthorities(UUID userId) {
+        if (userId == null) {
+            return List.of();
+        }
+
+        PermissionSnapshot snapshot = getSnapshot(userId);
+        List<GrantedAuthority> authorities = permissionRegistry.authoritiesOf(snapshot.permissions());
+        Set<UUID> scopedRoleIds = snapshot.active() ? scopedRoleIds(snapshot) : Set.of();
+        if (scopedRoleIds.isEmpty()) {
+            return authorities;
+        }
+
+        List<GrantedAuthority> withScoped = new ArrayList<>(authorities);
+        PermissionSet scoped = scopeHierarchy.permissionsOf(scopedRoleIds);
+        for (int i = scoped.nextSetBit(0); i >= 0; i = scoped.nextSetBit(i + 1)) {
+            String code = permissionRegistry.codeOf(i);
+            if (!snapshot.has(i) && SCOPE_AWARE_PERMISSIONS.contains(code)) {
+                withScoped.add(new ScopedAuthority(code));
+            }
+        }
+        return withScoped;
+    }
+
+    /**
+     * Scope a vehicle is checked in - its fleet when that is a node of the vehicle's tenant, otherwise the tenant
+     * Roles bound to the fleet or to a region above it reach the vehicle through the ScopeHierarchy
+     */
+    public UUID scopeOf(Vehicle vehicle) {
+        if (vehicle.getFleetId() != null && vehicle.getTenantId() != null
+                && scopeHierarchy.contains(vehicle.getTenantId(), vehicle.getFleetId())) {
+            return vehicle.getFleetId();
+        }
+        return vehicle.getTenantId();
+    }
+
+    /**
+     * Scope a device is checked in - the scope of the vehicle carrying it, otherwise its tenant
+     */
+    public UUID scopeOf(Device device) {
+        Vehicle vehicle = device.getVehicle();
+        if (vehicle != null && Objects.equals(vehicle.getTenantId(), device.getTenantId())) {
+            return scopeOf(vehicle);
+        }
+        return device.getTenantId();
+    }
+
     /**
      * Check if user has any of the specified permissions (OR logic)
      * Optimized for multiple permission checks
      */
     public boolean hasAnyPermission(UUID userId, Set<String> permissionCodes, UUID scopeId) {
-        if (permissionCodes == null || permissionCodes.isEmpty()) {
+        if (userId == null || permissionCodes == null || permissionCodes.isEmpty()) {
             return false;
         }
 
         log.debug("Checking if user {} has any of {} permissions", userId, permissionCodes.size());
 
-        // Optimization: Get user permissions once
-        Set<String> userPermissions = getAllUserPermissions(userId);
+        // Optimization: Resolve user snapshot once
+        PermissionSnapshot snapshot = getSnapshot(userId);
 
         // Check if user has SUPER_ADMIN (bypass all checks)
-        if (userPermissions.contains("SUPER_ADMIN")) {
+        if (snapshot.isSuperAdmin()) {
             return true;
         }
 
         // Check for any matching permission with scope validation
         for (String permissionCode : permissionCodes) {
-            if (userPermissions.contains(permissionCode)) {
-                if (scopeId == null || validatePermissionScopeForUser(userId, permissionCode, scopeId)) {
-                    return true;
-                }
+            if (scopeId == null ? snapshot.has(permissionRegistry.indexOf(permissionCode))
+                    : grants(snapshot, permissionCode, scopeId)) {
+                return true;
             }
         }
 
@@ -130,8 +260,28 @@ public class PermissionService {
 
         log.debug("Checking if user {} has all {} permissions", userId, permissionCodes.size());
 
-        return permissionCodes.stream()
-                .allMatch(permission -> hasPermission(userId, permission, scopeId));
+        if (userId == null) {
+            return false;
+        }
+
+        // Optimization: Resolve user snapshot once
+        PermissionSnapshot snapshot = getSnapshot(userId);
+        if (!snapshot.active()) {
+            return false;
+        }
+
+        // SuperAdmin satisfies every requirement
+        if (snapshot.isSuperAdmin()) {
+            return true;
+        }
+
+        for (String permissionCode : permissionCodes) {
+            if (permissionCode == null || !grants(snapshot, permissionCode, scopeId)) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -173,127 +323,274 @@ public class PermissionService {
             return false;
         }
 
+        PermissionSnapshot snapshot = getSnapshot(userId);
+        if (!snapshot.active()) {
+            return false;
+        }
+
         // SuperAdmin can access all tenants
-        if (hasPermission(userId, "SUPER_ADMIN", null)) {
+        if (snapshot.isSuperAdmin()) {
             return true;
         }
 
-        User user = getUserWithPermissions(userId);
-        if (user == null) {
-            return false;
+        // User can access their own tenant
+        return tenantId.equals(snapshot.tenantId());
+    }
+
+    /**
+     * Resolve the tenant a listing is restricted to
+     * SuperAdmin gets the requested tenant (null = all tenants); everyone else is pinned to their own
+     */
+    public UUID resolveTenantScope(UUID userId, UUID requestedTenantId) {
+        PermissionSnapshot snapshot = getSnapshot(userId);
+        if (!snapshot.active()) {
+            throw new SecurityException("User not found or inactive: " + userId);
         }
 
-        // User can access their own tenant
-        return tenantId.equals(user.getTenantId());
+        if (snapshot.isSuperAdmin()) {
+            return requestedTenantId;
+        }
+
+        if (snapshot.tenantId() == null) {
+            throw new SecurityException("Tenant scope required for user: " + userId);
+        }
+        if (requestedTenantId != null && !requestedTenantId.equals(snapshot.tenantId())) {
+            throw new SecurityException("Access denied to tenant: " + requestedTenantId);
+        }
+        return snapshot.tenantId();
     }
 
     /**
      * Refresh user permissions - for real-time permission changes
-     * Since we use direct DB queries, this ensures fresh data
+     * Evicts the cached snapshot and invalidates trusted token claims once the transaction commits
      */
     @Transactional
     public void refreshUserPermissions(UUID userId) {
         log.info("Refreshing permissions for user: {}", userId);
 
-        // With direct database queries, permissions are always fresh
-        // This method can be used for audit logging or future enhancements
-
-        User user = getUserWithPermissions(userId);
-        if (user != null) {
-            Set<String> permissions = extractUserPermissions(user);
-            log.info("User {} permissions refreshed - has {} permissions", userId, permissions.size());
+        if (userId == null) {
+            return;
         }
+        afterCommit(() -> invalidate(Set.of(userId)));
+    }
+
+    /**
+     * Refresh permissions of every user holding a role - used when role permissions or status change
+     */
+    @Transactional
+    public void refreshRoleHolders(UUID roleId) {
+        Set<UUID> userIds = userRepository.findIdsByRoleId(roleId);
+        log.info("Refreshing permissions for {} holders of role: {}", userIds.size(), roleId);
+
+        afterCommit(() -> invalidate(userIds));
+    }
+
+    /**
+     * Reload the scope hierarchy once the current transaction commits - used when scope nodes or scoped roles change
+     */
+    @Transactional
+    public void refreshScopes() {
+        afterCommit(scopeHierarchy::load);
+    }
+
+    /**
+     * Refresh permissions of every user granted a permission - used when a permission changes
+     */
+    @Transactional
+    public void refreshPermissionHolders(UUID permissionId) {
+        Set<UUID> userIds = userRepository.findIdsByPermissionId(permissionId);
+        log.info("Refreshing permissions for {} holders of permission: {}", userIds.size(), permissionId);
+
+        afterCommit(() -> invalidate(userIds));
     }
 
     // =================== PRIVATE HELPER METHODS ===================
 
     /**
-     * Load user with roles and permissions in single query
-     * Optimization to avoid N+1 queries
+     * Resolve the permission snapshot for a user
+     * The caller of the current request is answered from its AuthorizationContext,
+     * anyone else from the authorization graph, then the cache (single query on a miss)
+     */
+    private PermissionSnapshot getSnapshot(UUID userId) {
+        return authorizationContextHolder.currentFor(userId)
+                .map(AuthorizationContext::snapshot)
+                .orElseGet(() -> {
+                    PermissionSnapshot snapshot = authorizationGraph.snapshot(userId);
+                    return snapshot != null ? snapshot : snapshotCache.get(userId, this::loadSnapshot);
+                });
+    }
+
+    /**
+     * Resolve snapshots for many users - the current caller from its context, graph and cached users
+     * from memory and all remaining users with a single IN query
+     */
+    private Map<UUID, PermissionSnapshot> getSnapshots(Set<UUID> userIds) {
+        Map<UUID, PermissionSnapshot> snapshots = new HashMap<>();
+        authorizationContextHolder.current()
+                .filter(context -> userIds.contains(context.userId()))
+                .ifPresent(context -> snapshots.put(context.userId(), context.snapshot()));
+
+        List<UUID> remaining = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds) {
+            if (snapshots.containsKey(userId)) {
+                continue;
+            }
+            PermissionSnapshot snapshot = authorizationGraph.snapshot(userId);
+            if (snapshot != null) {
+                snapshots.put(userId, snapshot);
+            } else {
+                remaining.add(userId);
+            }
+        }
+        if (!remaining.isEmpty()) {
+            snapshots.putAll(snapshotCache.getAll(remaining, this::loadSnapshots));
+        }
+        return snapshots;
+    }
+
+    /**
+     * Load a snapshot with a narrow scan of the user_effective_permissions projection
+     * instead of hydrating the user -> roles -> permissions entity graph
      */
-    private User getUserWithPermissions(UUID userId) {
-        return userRepository.findByIdWithRolesAndPermissions(userId).orElse(null);
+    private PermissionSnapshot loadSnapshot(UUID userId) {
+        return toSnapshot(userId, effectivePermissionRepository.findEffectivePermissions(userId));
     }
 
     /**
-     * Check if user has SUPER_ADMIN permission
-     * Business logic for administrative bypass
+     * Bulk variant of loadSnapshot - one IN query; unknown users get an inactive snapshot
      */
-    private boolean hasSuperAdminPermission(User user) {
-        if (user == null || user.getRoles() == null) {
+    private Map<UUID, PermissionSnapshot> loadSnapshots(Set<UUID> userIds) {
+        Map<UUID, List<EffectivePermissionRow>> rowsByUser = effectivePermissionRepository
+                .findEffectivePermissionsIn(userIds).stream()
+                .collect(Collectors.groupingBy(EffectivePermissionRow::getUserId));
+
+        Map<UUID, PermissionSnapshot> snapshots = new HashMap<>();
+        for (UUID userId : userIds) {
+            snapshots.put(userId, toSnapshot(userId, rowsByUser.getOrDefault(userId, List.of())));
+        }
+        return snapshots;
+    }
+
+    private PermissionSnapshot toSnapshot(UUID userId, List<EffectivePermissionRow> rows) {
+        if (rows.isEmpty() || !Boolean.TRUE.equals(rows.get(0).getActive())) {
+            return PermissionSnapshot.inactive(userId);
+        }
+
+        PermissionSet.Builder permissions = PermissionSet.builder();
+        Set<UUID> scopedRoleIds = new HashSet<>();
+        for (EffectivePermissionRow row : rows) {
+            if (row.getPermissionCode() != null) {
+                permissions.add(permissionRegistry.intern(row.getPermissionCode()));
+            }
+            if (row.getScopedRoleId() != null) {
+                scopedRoleIds.add(row.getScopedRoleId());
+            }
+        }
+
+        return PermissionSnapshot.of(userId, rows.get(0).getTenantId(), true, permissions.build(),
+                scopedRoleIds.isEmpty() ? Set.of() : Set.copyOf(scopedRoleIds), permissionRegistry);
+    }
+
+    private void invalidate(Collection<UUID> userIds) {
+        authorizationGraph.markStale(userIds);
+        snapshotCache.evictAll(userIds);
+        userIds.forEach(versionRegistry::invalidateUser);
+    }
+
+    /**
+     * Run an invalidation once the current transaction commits
+     * Invalidating earlier would let a concurrent reader re-resolve the uncommitted (old) state
+     */
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    /**
+     * Evaluate one permission against a resolved snapshot
+     */
+    private boolean evaluate(PermissionSnapshot snapshot, String permissionCode, UUID scopeId) {
+        if (!snapshot.active()) {
+            log.debug("User not found or inactive: {}", snapshot.userId());
             return false;
         }
 
-        return user.getRoles().stream()
-                .filter(Role::getActive)
-                .flatMap(role -> role.getPermissions().stream())
-                .filter(Permission::getActive)
-                .anyMatch(permission -> "SUPER_ADMIN".equals(permission.getCode()));
+        // SuperAdmin bypasses all checks
+        if (snapshot.isSuperAdmin()) {
+            return true;
+        }
+
+        // User must hold the permission through an active role, tenant-wide or on a node containing the scope
+        if (!grants(snapshot, permissionCode, scopeId)) {
+            log.debug("Permission denied: {} not granted to user: {} within scope: {}", permissionCode, snapshot.userId(), scopeId);
+            return false;
+        }
+
+        log.debug("Permission granted: {} for user: {} within scope: {}", permissionCode, snapshot.userId(), scopeId);
+        return true;
     }
 
     /**
-     * Extract all permission codes from user's active roles
-     * Core business logic for permission inheritance
+     * Check one permission within a scope - tenant-wide grants first, then roles bound to a region or fleet
      */
-    private Set<String> extractUserPermissions(User user) {
-        if (user == null || user.getRoles() == null) {
-            return Collections.emptySet();
+    private boolean grants(PermissionSnapshot snapshot, String permissionCode, UUID scopeId) {
+        int permissionIndex = permissionRegistry.indexOf(permissionCode);
+        if (snapshot.has(permissionIndex) && validatePermissionScope(snapshot, permissionCode, scopeId)) {
+            return true;
         }
+        if (scopeId == null || !snapshot.active() || !scopeHierarchy.hasScopedRoles()) {
+            return false;
+        }
+        return scopeHierarchy.grants(scopedRoleIds(snapshot), permissionIndex, scopeId);
+    }
 
-        return user.getRoles().stream()
-                .filter(Role::getActive) // Only active roles
-                .flatMap(role -> {
-                    if (role.getPermissions() == null) {
-                        return java.util.stream.Stream.empty();
-                    }
-                    return role.getPermissions().stream();
-                })
-                .filter(Permission::getActive) // Only active permissions
-                .map(Permission::getCode)
-                .collect(Collectors.toSet());
+    /**
+     * Scoped roles of a user - the caller's AuthorizationContext is built from token authorities only,
+     * so it is resolved from the graph or the cache instead
+     */
+    private Set<UUID> scopedRoleIds(PermissionSnapshot snapshot) {
+        if (!snapshot.scopedRoleIds().isEmpty() || authorizationContextHolder.currentFor(snapshot.userId()).isEmpty()) {
+            return snapshot.scopedRoleIds();
+        }
+        PermissionSnapshot resolved = authorizationGraph.snapshot(snapshot.userId());
+        return (resolved != null ? resolved : snapshotCache.get(snapshot.userId(), this::loadSnapshot)).scopedRoleIds();
     }
 
     /**
      * Validate permission scope with comprehensive business logic
-     * Implements hierarchical scope validation
+     * Implements hierarchical scope validation: the user's tenant contains its regions and fleets
      */
-    private boolean validatePermissionScope(User user, String permissionCode, UUID scopeId) {
+    private boolean validatePermissionScope(PermissionSnapshot snapshot, String permissionCode, UUID scopeId) {
         // Global users (no tenant) can access all scopes
 
         if(permissionCode.equals("SUPER_ADMIN")){
             return true;
         }
 
-        if (user.getTenantId() == null) {
+        if (snapshot.tenantId() == null) {
             log.debug("Tenant - scope required");
             return false;
         }
 
-        // Tenant-level scope validation
-        if (user.getTenantId().equals(scopeId)) {
-            log.debug("Tenant scope validation passed for user: {}", user.getId());
+        // Tenant-level scope validation - the tenant itself or any region / fleet below it (O(1) interval check)
+        if (scopeHierarchy.contains(snapshot.tenantId(), scopeId)) {
+            log.debug("Tenant scope validation passed for user: {}", snapshot.userId());
             return true;
         }
 
-        // Additional hierarchical scope validation can be added here
-        // For example: Fleet > Vehicle hierarchy
-
         log.debug("Scope validation failed - user tenant: {}, required scope: {}",
-                user.getTenantId(), scopeId);
+                snapshot.tenantId(), scopeId);
         return false;
     }
 
-    /**
-     * Validate permission scope for a specific user (helper method)
-     */
-    private boolean validatePermissionScopeForUser(UUID userId, String permissionCode, UUID scopeId) {
-        User user = getUserWithPermissions(userId);
-        if (user == null) {
-            return false;
-        }
-        return validatePermissionScope(user, permissionCode, scopeId);
-    }
-
     /**
      * Business logic for role-based permission validation
      * Ensures users can only work within their organizational boundaries
@@ -301,8 +598,17 @@ public class PermissionService {
     public boolean canManageUser(UUID managerId, UUID targetUserId) {
         log.debug("Checking if user {} can manage user: {}", managerId, targetUserId);
 
+        if (managerId == null || targetUserId == null) {
+            return false;
+        }
+
+        PermissionSnapshot manager = getSnapshot(managerId);
+        if (!manager.active()) {
+            return false;
+        }
+
         // SuperAdmin can manage anyone
-        if (hasPermission(managerId, "SUPER_ADMIN", null)) {
+        if (manager.isSuperAdmin()) {
             return true;
         }
 
@@ -312,20 +618,18 @@ public class PermissionService {
         }
 
         // Must have user management permission
-        if (!hasPermission(managerId, "USER_UPDATE", null)) {
+        if (!manager.has(permissionRegistry.indexOf("USER_UPDATE"))) {
             return false;
         }
 
         // Both users must be in same tenant
-        User manager = getUserWithPermissions(managerId);
-        User target = getUserWithPermissions(targetUserId);
-
-        if (manager == null || target == null) {
+        PermissionSnapshot target = getSnapshot(targetUserId);
+        if (!target.active()) {
             return false;
         }
 
-        return manager.getTenantId() != null &&
-                manager.getTenantId().equals(target.getTenantId());
+        return manager.tenantId() != null &&
+                manager.tenantId().equals(target.tenantId());
     }
     public Set<Permission> findAllByIds(Set<UUID> ids) {
         Set<Permission> permissions = permissionRepository.findAllByIdIn(ids);
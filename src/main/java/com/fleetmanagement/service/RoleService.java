@@ -5,14 +5,21 @@ import com.fleetmanagement.dto.response.RoleResponseDto;
 import com.fleetmanagement.entity.Permission;
 import com.fleetmanagement.entity.User;
 import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
 import com.fleetmanagement.exception.ResourceNotFoundException;
 import com.fleetmanagement.mapper.RoleMapper;
 import com.fleetmanagement.repository.RoleRepository;
+import com.fleetmanagement.repository.ScopeNodeRepository;
 import com.fleetmanagement.repository.UserRepository;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.repository.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,8 +35,11 @@ import java.util.UUID;
 @Transactional
 public class RoleService {
 
+    private static final String SCROLL_SORT_KEY = "createdAt";
+
     private final RoleRepository roleRepository;
     private final UserRepository userRepository;
+    private final ScopeNodeRepository scopeNodeRepository;
     private final RoleMapper roleMapper;
     private final PermissionService permissionService;
 
@@ -46,6 +56,9 @@ public class RoleService {
         }
 
         Role savedRole = roleRepository.save(role);
+        if (savedRole.getScopeId() != null) {
+            permissionService.refreshScopes();
+        }
         return roleMapper.toResponseDto(savedRole);
     }
 
@@ -58,6 +71,7 @@ public class RoleService {
             throw new IllegalArgumentException("Role with name " + requestDto.getName() + " already exists for this tenant");
         }
 
+        boolean wasScoped = role.getScopeId() != null;
         roleMapper.updateEntityFromDto(requestDto, role);
         if (requestDto.getPermissionIds() != null) {
             Set<Permission> permissions = permissionService.findAllByIds(requestDto.getPermissionIds());
@@ -65,6 +79,10 @@ public class RoleService {
         }
 
         Role updatedRole = roleRepository.save(role);
+        permissionService.refreshRoleHolders(id);
+        if (wasScoped || updatedRole.getScopeId() != null) {
+            permissionService.refreshScopes();
+        }
         return  roleMapper.toResponseDto(updatedRole);
     }
 
@@ -91,12 +109,37 @@ public class RoleService {
         return roles.map(roleMapper::toResponseDto);
     }
 
+    /**
+     * Scroll active roles with a keyset cursor over (createdAt, id) - no COUNT and no OFFSET
+     * Non-SuperAdmin callers are pinned to their own tenant
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<RoleResponseDto> scrollRoles(UUID currentUserId, UUID tenantId, String cursor, Integer size) {
+        if (!permissionService.hasPermission(currentUserId, "ROLE_READ", tenantId)) {
+            throw new SecurityException("User lacks ROLE_READ permission for tenant: " + tenantId);
+        }
+        UUID scopeTenantId = permissionService.resolveTenantScope(currentUserId, tenantId);
+
+        ScrollPosition position = KeysetCursor.decode(cursor, SCROLL_SORT_KEY);
+        Sort sort = KeysetCursor.sort(SCROLL_SORT_KEY);
+        Window<Role> roles = scopeTenantId != null
+                ? roleRepository.findByTenantIdAndActiveTrue(scopeTenantId, position, sort, KeysetCursor.limit(size))
+                : roleRepository.findByActiveTrue(position, sort, KeysetCursor.limit(size));
+
+        return new CursorPage<>(roles.map(roleMapper::toResponseDto).getContent(),
+                KeysetCursor.next(roles, SCROLL_SORT_KEY), roles.hasNext());
+    }
+
 
     public void deleteRole(UUID currentUserId, UUID id) {
         Role role = roleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Role not found with id: " + id));
         role.setActive(false);
         roleRepository.save(role);
+        permissionService.refreshRoleHolders(id);
+        if (role.getScopeId() != null) {
+            permissionService.refreshScopes();
+        }
     }
 
     public RoleResponseDto updatePermissions(UUID currentUserId, UUID id, Set<UUID> permissionIds) {
@@ -111,6 +154,10 @@ public class RoleService {
         }
 
         Role updatedRole = roleRepository.save(role);
+        permissionService.refreshRoleHolders(id);
+        if (updatedRole.getScopeId() != null) {
+            permissionService.refreshScopes();
+        }
         return roleMapper.toResponseDto(updatedRole);
     }
 
@@ -128,6 +175,29 @@ public class RoleService {
         if (requestDto.getScopeType() == Role.ScopeType.GLOBAL && requestDto.getTenantId() != null) {
             throw new IllegalArgumentException("Tenant ID must be null for GLOBAL scope roles");
         }
+        validateRoleScope(requestDto);
+    }
+
+    /**
+     * FLEET and REGIONAL roles must be bound to a node of that type within the role's tenant; others to none
+     */
+    private void validateRoleScope(RoleRequestDto requestDto) {
+        Role.ScopeType scopeType = requestDto.getScopeType();
+        if (scopeType != Role.ScopeType.FLEET && scopeType != Role.ScopeType.REGIONAL) {
+            if (requestDto.getScopeId() != null) {
+                throw new IllegalArgumentException("Scope ID is only allowed for FLEET and REGIONAL scope roles");
+            }
+            return;
+        }
+
+        if (requestDto.getScopeId() == null || requestDto.getTenantId() == null) {
+            throw new IllegalArgumentException("Tenant ID and scope ID are required for " + scopeType + " scope roles");
+        }
+        ScopeNode scope = scopeNodeRepository.findById(requestDto.getScopeId())
+                .orElseThrow(() -> new EntityNotFoundException("Scope not found with id: " + requestDto.getScopeId()));
+        if (scope.getScopeType() != scopeType || !scope.getTenantId().equals(requestDto.getTenantId())) {
+            throw new IllegalArgumentException("Scope " + scope.getId() + " is not a " + scopeType + " scope of the role's tenant");
+        }
     }
     private void validateReadDeleteRequest(UUID currentUserId) {
         //PENDING
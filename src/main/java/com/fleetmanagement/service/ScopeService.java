@@ -0,0 +1,93 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.ScopeNodeRequestDto;
+import com.fleetmanagement.dto.response.ScopeNodeResponseDto;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.mapper.ScopeNodeMapper;
+import com.fleetmanagement.repository.RoleRepository;
+import com.fleetmanagement.repository.ScopeNodeRepository;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Service for managing the region / fleet scope tree of a tenant
+ * Nodes are only ever added below an existing region, so the tree cannot form cycles
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class ScopeService {
+
+    private final ScopeNodeRepository scopeNodeRepository;
+    private final RoleRepository roleRepository;
+    private final ScopeNodeMapper scopeNodeMapper;
+    private final PermissionService permissionService;
+
+    public ScopeNodeResponseDto createScope(UUID currentUserId, ScopeNodeRequestDto requestDto) {
+        // Step 1: Caller must manage roles within the tenant
+        validateTenantAccess(currentUserId, requestDto.getTenantId());
+
+        // Step 2: Validate the node type and its parent
+        if (requestDto.getScopeType() != Role.ScopeType.REGIONAL && requestDto.getScopeType() != Role.ScopeType.FLEET) {
+            throw new IllegalArgumentException("Scope type must be REGIONAL or FLEET");
+        }
+        if (requestDto.getParentId() != null) {
+            ScopeNode parent = scopeNodeRepository.findById(requestDto.getParentId())
+                    .orElseThrow(() -> new EntityNotFoundException("Scope not found with id: " + requestDto.getParentId()));
+            if (parent.getScopeType() != Role.ScopeType.REGIONAL || !parent.getTenantId().equals(requestDto.getTenantId())) {
+                throw new IllegalArgumentException("Parent must be a REGIONAL scope of the same tenant");
+            }
+        }
+
+        // Step 3: Save and reload the hierarchy once committed
+        ScopeNode saved = scopeNodeRepository.save(scopeNodeMapper.toEntity(requestDto));
+        permissionService.refreshScopes();
+
+        log.info("Created {} scope {} in tenant: {} by user: {}", saved.getScopeType(), saved.getId(), saved.getTenantId(), currentUserId);
+        return scopeNodeMapper.toResponseDto(saved);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ScopeNodeResponseDto> getScopes(UUID currentUserId, UUID tenantId) {
+        UUID scopeTenantId = permissionService.resolveTenantScope(currentUserId, tenantId);
+        if (scopeTenantId == null) {
+            throw new IllegalArgumentException("Tenant ID is required");
+        }
+
+        return scopeNodeRepository.findByTenantIdOrderByName(scopeTenantId).stream()
+                .map(scopeNodeMapper::toResponseDto)
+                .toList();
+    }
+
+    public void deleteScope(UUID currentUserId, UUID id) {
+        ScopeNode node = scopeNodeRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Scope not found with id: " + id));
+        validateTenantAccess(currentUserId, node.getTenantId());
+
+        // Business logic - only leaves nobody's role is bound to can go
+        if (scopeNodeRepository.existsByParentId(id)) {
+            throw new IllegalArgumentException("Scope still contains other scopes: " + id);
+        }
+        if (roleRepository.existsByScopeId(id)) {
+            throw new IllegalArgumentException("Scope is still bound to roles: " + id);
+        }
+
+        scopeNodeRepository.delete(node);
+        permissionService.refreshScopes();
+        log.info("Deleted scope {} by user: {}", id, currentUserId);
+    }
+
+    private void validateTenantAccess(UUID currentUserId, UUID tenantId) {
+        if (!permissionService.canAccessTenant(currentUserId, tenantId)) {
+            throw new SecurityException("Access denied to tenant: " + tenantId);
+        }
+    }
+}
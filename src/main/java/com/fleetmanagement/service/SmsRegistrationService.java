@@ -0,0 +1,218 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.SmsRegistrationRequestDto;
+import com.fleetmanagement.dto.response.SmsRegistrationResponseDto;
+import com.fleetmanagement.entity.Device;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service for installer SMS registrations relayed by the SMS gateways
+ * Requests are parsed into a bounded queue and acknowledged right away; a single scheduled writer drains it
+ * with one multi-row INSERT ... ON CONFLICT (imei) DO NOTHING per batch-size devices, so a burst costs one
+ * connection at a time whatever its size. When the queue is full the rest of the request is deferred and
+ * the gateway is asked to retry
+ *
+ * An IMEI is queued at most once, and not at all once indexed; the devices inserted are indexed right away.
+ * A registered IMEI is left as it is: an SMS never changes a device that is already known. Devices registered
+ * by SMS have no tenant until an administrator assigns one
+ */
+@Service
+@Slf4j
+public class SmsRegistrationService {
+
+    private static final Pattern REGISTRATION =
+            Pattern.compile("^REG\\s+(\\d{15})\\s+(\\S{1,100})(?:\\s+(\\+?\\d{1,19}))?\\s*$", Pattern.CASE_INSENSITIVE);
+
+    private final BlockingQueue<Registration> queue;
+    private final Set<String> queuedImeis = ConcurrentHashMap.newKeySet();
+    private final JdbcTemplate jdbcTemplate;
+    private final DeviceImeiIndex imeiIndex;
+    private final byte[] gatewayToken;
+    private final int batchSize;
+
+    private final Counter accepted;
+    private final Counter rejected;
+    private final Counter deferred;
+    private final Counter registered;
+
+    public SmsRegistrationService(
+            JdbcTemplate jdbcTemplate,
+            DeviceImeiIndex imeiIndex,
+            MeterRegistry meterRegistry,
+            @Value("${app.sms.gateway-token:}") String gatewayToken,
+            @Value("${app.sms.queue-capacity:10000}") int queueCapacity,
+            @Value("${app.sms.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.imeiIndex = imeiIndex;
+        this.gatewayToken = gatewayToken.getBytes(StandardCharsets.UTF_8);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.accepted = meterRegistry.counter("device.sms.accepted");
+        this.rejected = meterRegistry.counter("device.sms.rejected");
+        this.deferred = meterRegistry.counter("device.sms.deferred");
+        this.registered = meterRegistry.counter("device.sms.registered");
+        Gauge.builder("device.sms.queued", queue, Collection::size).register(meterRegistry);
+        if (gatewayToken.isBlank()) {
+            log.warn("app.sms.gateway-token is not set, SMS registrations will be refused");
+        }
+    }
+
+    /**
+     * Check the shared secret presented by a gateway
+     * Always false while no token is configured
+     */
+    public boolean isTrustedGateway(String token) {
+        if (gatewayToken.length == 0 || token == null) {
+            return false;
+        }
+        return MessageDigest.isEqual(gatewayToken, token.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Queue the registrations of a lot of messages
+     * Nothing is written here; deferred messages should be sent again later
+     */
+    public SmsRegistrationResponseDto submit(SmsRegistrationRequestDto requestDto) {
+        int acceptedCount = 0;
+        int duplicateCount = 0;
+        int rejectedCount = 0;
+        int deferredCount = 0;
+
+        for (SmsRegistrationRequestDto.Message message : requestDto.getMessages()) {
+            // Step 1: Parse
+            Matcher matcher = REGISTRATION.matcher(message.getText().strip());
+            if (!matcher.matches()) {
+                rejectedCount++;
+                continue;
+            }
+            Registration registration = new Registration(
+                    matcher.group(1), matcher.group(2), matcher.group(3), message.getFrom().strip());
+
+            // Step 2: Dedupe against the known devices and what is already waiting
+            if (imeiIndex.contains(registration.imei()) || !queuedImeis.add(registration.imei())) {
+                duplicateCount++;
+                continue;
+            }
+
+            // Step 3: Queue, or defer once the queue is full
+            if (deferredCount > 0 || !queue.offer(registration)) {
+                queuedImeis.remove(registration.imei());
+                deferredCount++;
+                continue;
+            }
+            acceptedCount++;
+        }
+
+        accepted.increment(acceptedCount);
+        rejected.increment(rejectedCount);
+        deferred.increment(deferredCount);
+        if (deferredCount > 0) {
+            log.warn("SMS registration queue full, {} messages deferred", deferredCount);
+        }
+        return new SmsRegistrationResponseDto(acceptedCount, duplicateCount, rejectedCount, deferredCount);
+    }
+
+    /**
+     * Write the queued registrations
+     *
+     * @return number of devices created
+     */
+    @Scheduled(fixedDelayString = "${app.sms.flush-interval:200ms}")
+    public synchronized int flush() {
+        int created = 0;
+        List<Registration> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            try {
+                created += insert(batch);
+            } catch (DataAccessException e) {
+                // Kept for the next flush as far as room allows; the gateway is not asked again
+                int requeued = 0;
+                for (Registration registration : batch) {
+                    if (queue.offer(registration)) {
+                        requeued++;
+                    } else {
+                        queuedImeis.remove(registration.imei());
+                    }
+                }
+                log.error("SMS registration flush failed, {} of {} registrations kept for the next flush",
+                        requeued, batch.size(), e);
+                break;
+            }
+            // Released only once written, so a resend meanwhile is counted as a duplicate
+            batch.forEach(registration -> queuedImeis.remove(registration.imei()));
+            batch.clear();
+        }
+
+        registered.increment(created);
+        if (created > 0) {
+            log.info("Registered {} devices by SMS", created);
+        }
+        return created;
+    }
+
+    /**
+     * Write what is still queued before the application stops
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private int insert(List<Registration> batch) {
+        StringBuilder sql = new StringBuilder(192 + batch.size() * 40).append(
+                "INSERT INTO devices (id, imei, device_model, sim_number, status, registered_by_sms, installer_phone, "
+                        + "installed_at, updated_at) VALUES ");
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Object[] args = new Object[batch.size() * 9];
+        for (int i = 0; i < batch.size(); i++) {
+            Registration registration = batch.get(i);
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?, ?, ?, ?, ?)");
+            int offset = i * 9;
+            args[offset] = UUID.randomUUID();
+            args[offset + 1] = registration.imei();
+            args[offset + 2] = registration.deviceModel();
+            args[offset + 3] = registration.simNumber();
+            args[offset + 4] = Device.DeviceStatus.REGISTERED.name();
+            args[offset + 5] = Boolean.TRUE;
+            args[offset + 6] = registration.installerPhone();
+            args[offset + 7] = now;
+            args[offset + 8] = now;
+        }
+        // The existing device wins; any other constraint violation still fails the batch
+        sql.append(" ON CONFLICT (imei) DO NOTHING RETURNING id, imei");
+
+        // Only the rows actually inserted come back - those are indexed, the skipped ones already were
+        int[] created = new int[1];
+        jdbcTemplate.query(sql.toString(), row -> {
+            imeiIndex.put(row.getObject(1, UUID.class), row.getString(2), null, null);
+            created[0]++;
+        }, args);
+        return created[0];
+    }
+
+    private record Registration(String imei, String deviceModel, String simNumber, String installerPhone) {
+    }
+}
@@ -3,11 +3,11 @@ package com.fleetmanagement.service;
 import com.fleetmanagement.dto.response.UserLoginResponse;
 import com.fleetmanagement.entity.User;
 import com.fleetmanagement.repository.UserRepository;
+import com.fleetmanagement.security.AuthorizationVersionRegistry;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -15,9 +15,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collection;
-import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * User Details Service Implementation
@@ -31,6 +29,7 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     private final UserRepository userRepository;
     private final PermissionService permissionService;
+    private final AuthorizationVersionRegistry versionRegistry;
 
     @Override
     @Transactional(readOnly = true)
@@ -54,21 +53,22 @@ public class UserDetailsServiceImpl implements UserDetailsService {
      * Build CustomUserDetails from User entity
      */
     private UserDetails buildUserPrincipal(User user) {
-        // Get all user permissions for authorities
-        Set<String> permissions = permissionService.getAllUserPermissions(user.getId());
+        // Capture the version before reading permissions so a concurrent change always invalidates it
+        long authorizationVersion = versionRegistry.currentVersion(user.getId());
 
-        Collection<GrantedAuthority> authorities = permissions.stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toSet());
+        // Get all user permissions as shared authority instances
+        Collection<GrantedAuthority> authorities = permissionService.getUserAuthorities(user.getId());
 
         log.debug("User {} loaded with {} authorities", user.getUsername(), authorities.size());
 
         return new UserLoginResponse(
                 user.getId(),                  // UUID id
                 user.getUsername(),            // username
-                user.getPassword(),
-                user.getTenantId(),            // password
-                authorities                    // roles/permissions
+                user.getPassword(),            // password
+                user.getTenantId(),            // tenant
+                authorities,                   // roles/permissions
+                authorizationVersion,          // version the authorities were resolved at
+                versionRegistry.epoch()        // process the version belongs to
         );
     }
 }
@@ -1,5 +1,6 @@
 package com.fleetmanagement.service;
 
+import com.fleetmanagement.dto.request.AssignmentDeltaRequest;
 import com.fleetmanagement.dto.request.CreateUserRequest;
 import com.fleetmanagement.dto.request.UpdateUserRequest;
 import com.fleetmanagement.dto.response.UserResponse;
@@ -13,19 +14,32 @@ import com.fleetmanagement.repository.DeviceRepository;
 import com.fleetmanagement.repository.RoleRepository;
 import com.fleetmanagement.repository.UserRepository;
 import com.fleetmanagement.repository.VehicleRepository;
+import com.fleetmanagement.security.AuthorizationContext;
+import com.fleetmanagement.security.AuthorizationContextHolder;
+import com.fleetmanagement.dto.response.AssignmentDeltaResponse;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.repository.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
 import java.util.stream.Collectors;
 
 /**
@@ -39,14 +53,18 @@ import java.util.stream.Collectors;
 @Transactional
 public class UserService {
 
+    private static final String SCROLL_SORT_KEY = "createdAt";
+    private static final int MAX_USERS_PER_DEVICE = 10;
+    private static final int MAX_USERS_PER_VEHICLE = 5;
+
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
     private final DeviceRepository deviceRepository;
     private final VehicleRepository vehicleRepository;
-    private final ModelMapper modelMapper;
     private final PasswordEncoder passwordEncoder;
     private final PermissionService permissionService;
     private final UserMapper userMapper;
+    private final AuthorizationContextHolder authorizationContextHolder;
 
     /**
      * Create new user with roles and assignments
@@ -88,7 +106,8 @@ public class UserService {
         // Validate permission to read user
         validateUserReadPermissions(currentUserId, tenantId);
 
-        User user = userRepository.findById(userId)
+        // Relations are fetched with the user so mapping does not trigger lazy loads
+        User user = userRepository.findByIdWithRelations(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
 
         // Check if current user can view this user (scope validation)
@@ -112,23 +131,36 @@ public class UserService {
 
         log.debug("GOT USER READ PERMISSION : SERVICE");
 
-        Page<User> users;
-
-
         // Regular admin can only see users in their tenant
-        UUID currentUserTenantId = getCurrentUserTenantId(currentUserId);
-        log.debug("GOT TENANT ID : {}", tenantId);
-        log.debug("GOT CURRENT TENANT ID : {}", currentUserTenantId);
-        UUID targetTenantId = tenantId != null ? tenantId : currentUserTenantId;
+        UUID targetTenantId = resolveListTenant(tenantId, currentUserId);
 
-        if (!currentUserTenantId.equals(targetTenantId)) {
-            throw new SecurityException("Access denied to tenant: " + targetTenantId);
-        }
+        // Phase 1: page over user ids only, ordered by a unique key so pages never overlap
+        Page<UUID> userIds = userRepository.findActiveIdsByTenantId(targetTenantId, withStableOrder(pageable));
 
-        users = userRepository.findAllWithRelations(tenantId, pageable);
+        // Phase 2: load the relations of just this page, one IN query per collection
+        Map<UUID, User> users = loadWithRelations(userIds.getContent());
 
         log.debug("FINAL STAGE");
-        return users.map(userMapper::toResponseDto);
+        return userIds.map(id -> userMapper.toResponseDto(users.get(id)));
+    }
+
+    /**
+     * Scroll a tenant's users with a keyset cursor over (createdAt, id)
+     * No COUNT and no OFFSET - every window is an index seek, however deep the walk
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<UserResponse> scrollUsers(UUID tenantId, UUID currentUserId, String cursor, Integer size) {
+        validateUserReadPermissions(currentUserId, tenantId);
+        UUID targetTenantId = resolveListTenant(tenantId, currentUserId);
+
+        Window<User> users = userRepository.findByTenantIdAndActiveTrue(targetTenantId,
+                KeysetCursor.decode(cursor, SCROLL_SORT_KEY), KeysetCursor.sort(SCROLL_SORT_KEY), KeysetCursor.limit(size));
+
+        // Initialize the relations of this window, one IN query per collection
+        loadWithRelations(users.stream().map(User::getId).toList());
+
+        return new CursorPage<>(users.map(userMapper::toResponseDto).getContent(),
+                KeysetCursor.next(users, SCROLL_SORT_KEY), users.hasNext());
     }
 
     /**
@@ -149,6 +181,7 @@ public class UserService {
         userMapper.updateEntityFromDto(request, existingUser);
 
         User savedUser = userRepository.save(existingUser);
+        permissionService.refreshUserPermissions(userId);
         log.info("User updated successfully with ID: {}", savedUser.getId());
 
         return userMapper.toResponseDto(savedUser);
@@ -178,6 +211,7 @@ public class UserService {
         // Soft delete
         user.setActive(false);
         userRepository.save(user);
+        permissionService.refreshUserPermissions(userId);
 
         log.info("User soft deleted successfully with ID: {}", userId);
     }
@@ -189,20 +223,21 @@ public class UserService {
     public UserResponse assignRoles(UUID userId, Set<UUID> roleIds, UUID currentUserId) {
         log.info("Assigning {} roles to user ID: {} by user: {}", roleIds.size(), userId, currentUserId);
 
-        User user = userRepository.findByIdWithRelations(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        User user = loadForAssignment(userId);
 
-        // Validate permissions
+        // Validate permissions - once for the whole assignment
         validateRoleAssignmentPermissions(currentUserId, user.getTenantId());
+        boolean superAdmin = permissionService.hasPermission(currentUserId, "SUPER_ADMIN", null);
 
         // Validate and get roles with business logic
-        Set<Role> validRoles = validateAndGetRoles(roleIds, currentUserId);
+        Set<Role> validRoles = validateAndGetRoles(roleIds, currentUserId, superAdmin);
 
         // Business logic - prevent assigning higher privilege roles
-        validateRoleAssignmentHierarchy(currentUserId, validRoles);
+        validateRoleAssignmentHierarchy(superAdmin, validRoles);
 
-        user.setRoles(validRoles);
+        user.setRoles(replaceContents(user.getRoles(), validRoles));
         User savedUser = userRepository.save(user);
+        permissionService.refreshUserPermissions(userId);
 
         log.info("Roles assigned successfully to user ID: {}", userId);
         return userMapper.toResponseDto(savedUser);
@@ -215,8 +250,7 @@ public class UserService {
     public UserResponse assignDevices(UUID userId, Set<UUID> deviceIds, UUID currentUserId) {
         log.debug("Assigning {} devices to user ID: {} by user: {}", deviceIds.size(), userId, currentUserId);
 
-        User user = userRepository.findByIdWithRelations(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        User user = loadForAssignment(userId);
 
         validateDeviceAssignmentPermissions(currentUserId, user.getTenantId());
 
@@ -229,7 +263,7 @@ public class UserService {
 
         log.debug("VALID DEVICES: {}", validDevices.size());
 
-        user.setDevices(validDevices);
+        user.setDevices(replaceContents(user.getDevices(), validDevices));
         log.debug("VALID DEVICES: SET");
         User savedUser = userRepository.save(user);
 
@@ -246,8 +280,7 @@ public class UserService {
     public UserResponse assignVehicles(UUID userId, Set<UUID> vehicleIds, UUID currentUserId) {
         log.info("Assigning {} vehicles to user ID: {} by user: {}", vehicleIds.size(), userId, currentUserId);
 
-        User user = userRepository.findByIdWithRelations(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        User user = loadForAssignment(userId);
 
         validateVehicleAssignmentPermissions(currentUserId, user.getTenantId());
 
@@ -256,12 +289,92 @@ public class UserService {
         // Business logic - validate vehicle assignments
         validateVehicleAssignments(validVehicles, userId);
 
-        user.setVehicles(validVehicles);
+        user.setVehicles(replaceContents(user.getVehicles(), validVehicles));
         User savedUser = userRepository.save(user);
 
         log.info("Vehicles assigned successfully to user ID: {}", userId);
         return userMapper.toResponseDto(savedUser);
     }
+
+    /**
+     * Add and remove roles incrementally - only the changed user_roles rows are written
+     */
+    @Transactional
+    public AssignmentDeltaResponse updateRoles(UUID userId, AssignmentDeltaRequest delta, UUID currentUserId) {
+        log.info("Updating roles of user ID: {} (+{} -{}) by user: {}", userId, sizeOf(delta.getAdd()), sizeOf(delta.getRemove()), currentUserId);
+        validateDelta(delta);
+
+        // Step 1: Authorize once against the target user's tenant
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        validateRoleAssignmentPermissions(currentUserId, user.getTenantId());
+        boolean superAdmin = permissionService.hasPermission(currentUserId, "SUPER_ADMIN", null);
+
+        // Step 2: Validate only the roles being added
+        validateRoleAssignmentHierarchy(superAdmin, validateAndGetRoles(delta.getAdd(), currentUserId, superAdmin));
+
+        // Step 3: Write the changed join rows and refresh the user's permissions
+        AssignmentDeltaResponse response = applyDelta(delta,
+                ids -> userRepository.addRoles(userId, ids),
+                ids -> userRepository.removeRoles(userId, ids));
+        if (response.getAdded() > 0 || response.getRemoved() > 0) {
+            permissionService.refreshUserPermissions(userId);
+        }
+
+        log.info("Roles of user ID: {} updated (+{} -{})", userId, response.getAdded(), response.getRemoved());
+        return response;
+    }
+
+    /**
+     * Add and remove devices incrementally - only the changed user_devices rows are written
+     */
+    @Transactional
+    public AssignmentDeltaResponse updateDevices(UUID userId, AssignmentDeltaRequest delta, UUID currentUserId) {
+        log.info("Updating devices of user ID: {} (+{} -{}) by user: {}", userId, sizeOf(delta.getAdd()), sizeOf(delta.getRemove()), currentUserId);
+        validateDelta(delta);
+
+        // Step 1: Authorize once against the target user's tenant
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        validateDeviceAssignmentPermissions(currentUserId, user.getTenantId());
+
+        // Step 2: Validate only the devices being added
+        validateDeviceAssignments(validateAndGetDevices(delta.getAdd(), user.getTenantId()), userId);
+
+        // Step 3: Write the changed join rows
+        AssignmentDeltaResponse response = applyDelta(delta,
+                ids -> userRepository.addDevices(userId, ids),
+                ids -> userRepository.removeDevices(userId, ids));
+
+        log.info("Devices of user ID: {} updated (+{} -{})", userId, response.getAdded(), response.getRemoved());
+        return response;
+    }
+
+    /**
+     * Add and remove vehicles incrementally - only the changed user_vehicles rows are written
+     */
+    @Transactional
+    public AssignmentDeltaResponse updateVehicles(UUID userId, AssignmentDeltaRequest delta, UUID currentUserId) {
+        log.info("Updating vehicles of user ID: {} (+{} -{}) by user: {}", userId, sizeOf(delta.getAdd()), sizeOf(delta.getRemove()), currentUserId);
+        validateDelta(delta);
+
+        // Step 1: Authorize once against the target user's tenant
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with ID: " + userId));
+        validateVehicleAssignmentPermissions(currentUserId, user.getTenantId());
+
+        // Step 2: Validate only the vehicles being added
+        validateVehicleAssignments(validateAndGetVehicles(delta.getAdd(), user.getTenantId()), userId);
+
+        // Step 3: Write the changed join rows
+        AssignmentDeltaResponse response = applyDelta(delta,
+                ids -> userRepository.addVehicles(userId, ids),
+                ids -> userRepository.removeVehicles(userId, ids));
+
+        log.info("Vehicles of user ID: {} updated (+{} -{})", userId, response.getAdded(), response.getRemoved());
+        return response;
+    }
+
     public Boolean resetPassword(String email, String oldPassword, String newPassword){
         return true;
     }
@@ -280,66 +393,132 @@ public class UserService {
         }
     }
 
-    private Set<Role> validateAndGetRoles(Set<UUID> roleIds, UUID currentUserId) {
-        Set<Role> roles = new HashSet<>();
+    private Set<Role> validateAndGetRoles(Set<UUID> roleIds, UUID currentUserId, boolean superAdmin) {
+        if (roleIds.isEmpty()) {
+            return new HashSet<>();
+        }
 
-        for (UUID roleId : roleIds) {
-            Role role = roleRepository.findById(roleId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Role not found with ID: " + roleId));
+        // One IN query for all roles, permissions included for the privilege checks
+        List<Role> roles = roleRepository.findWithPermissionsByIdIn(roleIds);
+        requireAllFound(roleIds, roles, Role::getId, "Role");
 
+        UUID currentUserTenantId = superAdmin ? null : getCurrentUserTenantId(currentUserId);
+        for (Role role : roles) {
             if (!role.getActive()) {
                 throw new IllegalStateException("Cannot assign inactive role: " + role.getName());
             }
 
             // Business logic - validate role assignment permissions
-            if (!canAssignRole(currentUserId, role)) {
+            if (!canAssignRole(superAdmin, currentUserTenantId, role)) {
                 throw new SecurityException("Cannot assign role: " + role.getName());
             }
-
-            roles.add(role);
         }
 
-        return roles;
+        return new HashSet<>(roles);
     }
 
     private Set<Device> validateAndGetDevices(Set<UUID> deviceIds, UUID tenantId) {
-        return deviceIds.stream()
-                .map(deviceId -> {
-                    Device device = deviceRepository.findById(deviceId)
-                            .orElseThrow(() -> new ResourceNotFoundException("Device not found with ID: " + deviceId));
+        if (deviceIds.isEmpty()) {
+            return new HashSet<>();
+        }
 
-                    // Business validation - tenant scope
-                    if (!device.getTenantId().equals(tenantId)) {
-                        throw new SecurityException("Device does not belong to the same tenant");
-                    }
+        List<Device> devices = deviceRepository.findAllById(deviceIds);
+        requireAllFound(deviceIds, devices, Device::getId, "Device");
 
-                    if (device.getStatus() == Device.DeviceStatus.DECOMMISSIONED) {
-                        throw new IllegalStateException("Cannot assign decommissioned device: " + device.getImei());
-                    }
+        for (Device device : devices) {
+            // Business validation - tenant scope
+            if (!device.getTenantId().equals(tenantId)) {
+                throw new SecurityException("Device does not belong to the same tenant");
+            }
 
-                    return device;
-                })
-                .collect(Collectors.toSet());
+            if (device.getStatus() == Device.DeviceStatus.DECOMMISSIONED) {
+                throw new IllegalStateException("Cannot assign decommissioned device: " + device.getImei());
+            }
+        }
+
+        return new HashSet<>(devices);
     }
 
     private Set<Vehicle> validateAndGetVehicles(Set<UUID> vehicleIds, UUID tenantId) {
-        return vehicleIds.stream()
-                .map(vehicleId -> {
-                    Vehicle vehicle = vehicleRepository.findById(vehicleId)
-                            .orElseThrow(() -> new ResourceNotFoundException("Vehicle not found with ID: " + vehicleId));
+        if (vehicleIds.isEmpty()) {
+            return new HashSet<>();
+        }
+
+        List<Vehicle> vehicles = vehicleRepository.findAllById(vehicleIds);
+        requireAllFound(vehicleIds, vehicles, Vehicle::getId, "Vehicle");
 
-                    // Business validation - tenant scope
-                    if (!vehicle.getTenantId().equals(tenantId)) {
-                        throw new SecurityException("Vehicle does not belong to the same tenant");
-                    }
+        for (Vehicle vehicle : vehicles) {
+            // Business validation - tenant scope
+            if (!vehicle.getTenantId().equals(tenantId)) {
+                throw new SecurityException("Vehicle does not belong to the same tenant");
+            }
 
-                    if (vehicle.getStatus() == Vehicle.VehicleStatus.RETIRED) {
-                        throw new IllegalStateException("Cannot assign retired vehicle: " + vehicle.getLicensePlate());
-                    }
+            if (vehicle.getStatus() == Vehicle.VehicleStatus.RETIRED) {
+                throw new IllegalStateException("Cannot assign retired vehicle: " + vehicle.getLicensePlate());
+            }
+        }
+
+        return new HashSet<>(vehicles);
+    }
+
+    /**
+     * Fail with the first requested id an IN query did not return
+     */
+    private static <T> void requireAllFound(Set<UUID> ids, Collection<T> found, Function<T, UUID> idOf, String type) {
+        if (found.size() == ids.size()) {
+            return;
+        }
 
-                    return vehicle;
-                })
-                .collect(Collectors.toSet());
+        Set<UUID> foundIds = found.stream().map(idOf).collect(Collectors.toSet());
+        ids.stream()
+                .filter(id -> !foundIds.contains(id))
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new ResourceNotFoundException(type + " not found with ID: " + id);
+                });
+    }
+
+    private static void validateDelta(AssignmentDeltaRequest delta) {
+        if (delta.getAdd() == null) {
+            delta.setAdd(new HashSet<>());
+        }
+        if (delta.getRemove() == null) {
+            delta.setRemove(new HashSet<>());
+        }
+        if (delta.getAdd().isEmpty() && delta.getRemove().isEmpty()) {
+            throw new IllegalArgumentException("Nothing to add or remove");
+        }
+        delta.getAdd().stream()
+                .filter(delta.getRemove()::contains)
+                .findFirst()
+                .ifPresent(id -> {
+                    throw new IllegalArgumentException("Cannot both add and remove ID: " + id);
+                });
+    }
+
+    private static AssignmentDeltaResponse applyDelta(AssignmentDeltaRequest delta,
+                                                      ToIntFunction<Set<UUID>> add,
+                                                      ToIntFunction<Set<UUID>> remove) {
+        int added = delta.getAdd().isEmpty() ? 0 : add.applyAsInt(delta.getAdd());
+        int removed = delta.getRemove().isEmpty() ? 0 : remove.applyAsInt(delta.getRemove());
+        return new AssignmentDeltaResponse(added, removed);
+    }
+
+    private static int sizeOf(Set<UUID> ids) {
+        return ids != null ? ids.size() : 0;
+    }
+
+    /**
+     * Bring an assignment collection to the requested contents in place
+     * Hibernate then writes only the join rows that changed instead of deleting and re-inserting all of them
+     */
+    private static <T> Set<T> replaceContents(Set<T> current, Set<T> requested) {
+        if (current == null) {
+            return requested;
+        }
+        current.retainAll(requested);
+        current.addAll(requested);
+        return current;
     }
 
     private void updateUserFields(User existingUser, UpdateUserRequest request) {
@@ -358,10 +537,56 @@ public class UserService {
         }
     }
 
-    private UserResponse mapToUserResponse(User user) {
-        UserResponse response = modelMapper.map(user, UserResponse.class);
-        response.setFullName(user.getFullName());
-        return response;
+    /**
+     * Tenant a listing targets - the caller's own unless another one is requested, which is denied
+     */
+    private UUID resolveListTenant(UUID tenantId, UUID currentUserId) {
+        UUID currentUserTenantId = getCurrentUserTenantId(currentUserId);
+        log.debug("GOT TENANT ID : {}", tenantId);
+        log.debug("GOT CURRENT TENANT ID : {}", currentUserTenantId);
+        UUID targetTenantId = tenantId != null ? tenantId : currentUserTenantId;
+
+        if (!currentUserTenantId.equals(targetTenantId)) {
+            throw new SecurityException("Access denied to tenant: " + targetTenantId);
+        }
+        return targetTenantId;
+    }
+
+    /**
+     * Append the id as a tie-breaker so every page has a deterministic, unique order
+     */
+    private Pageable withStableOrder(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().getOrderFor("id") != null) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().and(Sort.by("id")));
+    }
+
+    /**
+     * Load users with roles, devices and vehicles initialized, keyed by id
+     * Separate IN queries keep the result linear in the page size instead of roles x devices x vehicles
+     */
+    private Map<UUID, User> loadWithRelations(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<UUID, User> users = new HashMap<>();
+        userRepository.findWithRolesByIdIn(userIds).forEach(user -> users.put(user.getId(), user));
+        userRepository.findWithDevicesByIdIn(userIds);
+        userRepository.findWithVehiclesByIdIn(userIds);
+        return users;
+    }
+
+    /**
+     * Load the user an assignment targets, relations initialized without a roles x devices x vehicles join
+     */
+    private User loadForAssignment(UUID userId) {
+        User user = loadWithRelations(List.of(userId)).get(userId);
+        if (user == null) {
+            throw new ResourceNotFoundException("User not found with ID: " + userId);
+        }
+        return user;
     }
 
     // =================== VALIDATION METHODS ===================
@@ -421,9 +646,9 @@ public class UserService {
         return currentUserTenantId.equals(targetUser.getTenantId());
     }
 
-    private boolean canAssignRole(UUID currentUserId, Role role) {
+    private boolean canAssignRole(boolean superAdmin, UUID currentUserTenantId, Role role) {
         // SuperAdmin can assign any role
-        if (permissionService.hasPermission(currentUserId, "SUPER_ADMIN", null)) {
+        if (superAdmin) {
             return true;
         }
 
@@ -433,7 +658,6 @@ public class UserService {
         }
 
         // Can assign roles within same tenant
-        UUID currentUserTenantId = getCurrentUserTenantId(currentUserId);
         return currentUserTenantId.equals(role.getTenantId());
     }
 
@@ -457,36 +681,60 @@ public class UserService {
                 user.getUsername(), roleCount, deviceCount, vehicleCount);
     }
 
-    private void validateRoleAssignmentHierarchy(UUID currentUserId, Set<Role> roles) {
+    private void validateRoleAssignmentHierarchy(boolean superAdmin, Set<Role> roles) {
         // Business logic to prevent privilege escalation
         boolean hasElevatedRoles = roles.stream()
                 .flatMap(role -> role.getPermissions().stream())
                 .anyMatch(permission -> "SUPER_ADMIN".equals(permission.getCode()));
 
-        if (hasElevatedRoles && !permissionService.hasPermission(currentUserId, "SUPER_ADMIN", null)) {
+        if (hasElevatedRoles && !superAdmin) {
             throw new SecurityException("Cannot assign elevated privilege roles");
         }
     }
 
     private void validateDeviceAssignments(Set<Device> devices, UUID userId) {
-        // Business logic - check for conflicts, limits, etc.
+        // Business logic - limit the users per device, counted for the whole lot in one grouped query
+        if (devices.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Long> otherUsers = assignmentCounts(userRepository.countOtherDeviceAssignments(
+                devices.stream().map(Device::getId).toList(), userId));
         devices.forEach(device -> {
-            if (device.getUsers() != null && device.getUsers().size() >= 10) {
+            if (otherUsers.getOrDefault(device.getId(), 0L) >= MAX_USERS_PER_DEVICE) {
                 throw new IllegalStateException("Device " + device.getImei() + " has reached maximum user assignments");
             }
         });
     }
 
     private void validateVehicleAssignments(Set<Vehicle> vehicles, UUID userId) {
-        // Business logic - check for conflicts, limits, etc.
+        // Business logic - limit the users per vehicle, counted for the whole lot in one grouped query
+        if (vehicles.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Long> otherUsers = assignmentCounts(userRepository.countOtherVehicleAssignments(
+                vehicles.stream().map(Vehicle::getId).toList(), userId));
         vehicles.forEach(vehicle -> {
-            if (vehicle.getUsers() != null && vehicle.getUsers().size() >= 5) {
+            if (otherUsers.getOrDefault(vehicle.getId(), 0L) >= MAX_USERS_PER_VEHICLE) {
                 throw new IllegalStateException("Vehicle " + vehicle.getLicensePlate() + " has reached maximum user assignments");
             }
         });
     }
 
+    private static Map<UUID, Long> assignmentCounts(List<UserRepository.AssignmentCount> counts) {
+        Map<UUID, Long> byTarget = new HashMap<>(counts.size() * 2);
+        counts.forEach(count -> byTarget.put(count.getTargetId(), count.getAssignments()));
+        return byTarget;
+    }
+
     private UUID getCurrentUserTenantId(UUID userId) {
+        // The authenticated caller's tenant is already known for this request
+        Optional<AuthorizationContext> context = authorizationContextHolder.currentFor(userId);
+        if (context.isPresent()) {
+            return context.get().tenantId();
+        }
+
         User currentUser = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("Current user not found"));
         return currentUser.getTenantId();
@@ -2,13 +2,21 @@ package com.fleetmanagement.service;
 
 import com.fleetmanagement.dto.request.VehicleRequestDto;
 import com.fleetmanagement.dto.response.VehicleResponseDto;
+import com.fleetmanagement.entity.Device;
 import com.fleetmanagement.entity.Vehicle;
 import com.fleetmanagement.mapper.VehicleMapper;
 import com.fleetmanagement.repository.VehicleRepository;
+import com.fleetmanagement.repository.VehicleSpecifications;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.repository.KeysetCursor;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,8 +31,12 @@ import java.util.UUID;
 @Transactional
 public class VehicleService {
 
+    private static final String SCROLL_SORT_KEY = "createdAt";
+
     private final VehicleRepository vehicleRepository;
     private final VehicleMapper vehicleMapper;
+    private final PermissionService permissionService;
+    private final DeviceImeiIndex imeiIndex;
 
     public VehicleResponseDto createVehicle(VehicleRequestDto requestDto) {
         validateVehicleRequest(requestDto);
@@ -37,12 +49,17 @@ public class VehicleService {
 
         Vehicle vehicle = vehicleMapper.toEntity(requestDto);
         Vehicle savedVehicle = vehicleRepository.save(vehicle);
+        indexDevice(savedVehicle.getDevice(), savedVehicle.getId());
         return vehicleMapper.toResponseDto(savedVehicle);
     }
 
-    public VehicleResponseDto updateVehicle(UUID id, VehicleRequestDto requestDto) {
+    /**
+     * Update a vehicle - the caller needs VEHICLE_UPDATE on its fleet, and on the fleet it moves to
+     */
+    public VehicleResponseDto updateVehicle(UUID userId, UUID id, VehicleRequestDto requestDto) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
+        checkVehiclePermission(userId, "VEHICLE_UPDATE", vehicle);
 
         validateVehicleRequest(requestDto);
         if (!vehicle.getLicensePlate().equals(requestDto.getLicensePlate()) &&
@@ -54,20 +71,31 @@ public class VehicleService {
             throw new IllegalArgumentException("Vehicle with VIN " + requestDto.getVin() + " already exists");
         }
 
+        Device previousDevice = vehicle.getDevice();
         vehicleMapper.updateEntityFromDto(requestDto, vehicle);
+        checkVehiclePermission(userId, "VEHICLE_UPDATE", vehicle);
         Vehicle updatedVehicle = vehicleRepository.save(vehicle);
+        if (previousDevice != null && previousDevice != updatedVehicle.getDevice()) {
+            indexDevice(previousDevice, null);
+        }
+        indexDevice(updatedVehicle.getDevice(), updatedVehicle.getId());
         return vehicleMapper.toResponseDto(updatedVehicle);
     }
 
+    /**
+     * Read a vehicle - VEHICLE_READ on the tenant, or on the vehicle's fleet or a region above it
+     */
     @Transactional(readOnly = true)
-    public VehicleResponseDto getVehicleById(UUID id) {
+    public VehicleResponseDto getVehicleById(UUID userId, UUID id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
+        checkVehiclePermission(userId, "VEHICLE_READ", vehicle);
         return vehicleMapper.toResponseDto(vehicle);
     }
 
     @Transactional(readOnly = true)
     public Page<VehicleResponseDto> getAllVehicles(
+            UUID userId,
             UUID tenantId,
             Vehicle.VehicleStatus status,
             UUID fleetId,
@@ -77,36 +105,76 @@ public class VehicleService {
             Integer startYear,
             Integer endYear,
             Pageable pageable) {
-        Page<Vehicle> vehicles;
-        if (tenantId != null && status != null) {
-            vehicles = vehicleRepository.findByStatusAndTenantId(status, tenantId, pageable);
-        } else if (tenantId != null) {
-            vehicles = vehicleRepository.findByTenantId(tenantId, pageable);
-        } else if (status != null) {
-            vehicles = vehicleRepository.findByStatus(status, pageable);
-        } else if (fleetId != null) {
-            vehicles = vehicleRepository.findByFleetId(fleetId, pageable);
-        } else if (brand != null && model != null) {
-            vehicles = vehicleRepository.findByBrandAndModel(brand, model, pageable);
-        } else if (brand != null) {
-            vehicles = vehicleRepository.findByBrand(brand, pageable);
-        } else if (vehicleType != null) {
-            vehicles = vehicleRepository.findByVehicleType(vehicleType, pageable);
-        } else if (startYear != null && endYear != null) {
-            vehicles = vehicleRepository.findByYearBetween(startYear, endYear, pageable);
-        } else {
-            vehicles = vehicleRepository.findAll(pageable);
+        // Step 1: Pin the listing to the caller's tenant (SuperAdmin may pick any, or none)
+        UUID scopeTenantId = permissionService.resolveTenantScope(userId, tenantId);
+        if (scopeTenantId != null && !permissionService.hasPermission(userId, "VEHICLE_READ", scopeTenantId)) {
+            // Holders of a fleet or region grant list one fleet they can read
+            if (fleetId == null || !permissionService.hasPermission(userId, "VEHICLE_READ", fleetId)) {
+                throw new SecurityException("User lacks VEHICLE_READ permission for tenant: " + scopeTenantId);
+            }
         }
+
+        // Step 2: AND every supplied filter into one query
+        Specification<Vehicle> filter = Specification.allOf(
+                VehicleSpecifications.inTenant(scopeTenantId),
+                VehicleSpecifications.hasStatus(status),
+                VehicleSpecifications.inFleet(fleetId),
+                VehicleSpecifications.hasBrand(brand),
+                VehicleSpecifications.hasModel(model),
+                VehicleSpecifications.hasType(vehicleType),
+                VehicleSpecifications.yearBetween(startYear, endYear));
+
+        Page<Vehicle> vehicles = vehicleRepository.findAll(filter, pageable);
         return vehicles.map(vehicleMapper::toResponseDto);
     }
 
-    public void deleteVehicle(UUID id) {
+    /**
+     * Scroll vehicles with a keyset cursor over (createdAt, id) - no COUNT and no OFFSET
+     * Non-SuperAdmin callers are pinned to their own tenant
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<VehicleResponseDto> scrollVehicles(UUID userId, UUID tenantId, String cursor, Integer size) {
+        if (!permissionService.hasPermission(userId, "VEHICLE_READ", tenantId)) {
+            throw new SecurityException("User lacks VEHICLE_READ permission for tenant: " + tenantId);
+        }
+        UUID scopeTenantId = permissionService.resolveTenantScope(userId, tenantId);
+
+        ScrollPosition position = KeysetCursor.decode(cursor, SCROLL_SORT_KEY);
+        Sort sort = KeysetCursor.sort(SCROLL_SORT_KEY);
+        Window<Vehicle> vehicles = scopeTenantId != null
+                ? vehicleRepository.findByTenantId(scopeTenantId, position, sort, KeysetCursor.limit(size))
+                : vehicleRepository.findBy(position, sort, KeysetCursor.limit(size));
+
+        return new CursorPage<>(vehicles.map(vehicleMapper::toResponseDto).getContent(),
+                KeysetCursor.next(vehicles, SCROLL_SORT_KEY), vehicles.hasNext());
+    }
+
+    public void deleteVehicle(UUID userId, UUID id) {
         Vehicle vehicle = vehicleRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException("Vehicle not found with id: " + id));
+        checkVehiclePermission(userId, "VEHICLE_DELETE", vehicle);
         vehicle.setStatus(Vehicle.VehicleStatus.RETIRED);
         vehicleRepository.save(vehicle);
     }
 
+    /**
+     * Check a permission in the vehicle's scope - its fleet, which lies within its region and tenant
+     */
+    private void checkVehiclePermission(UUID userId, String permissionCode, Vehicle vehicle) {
+        if (!permissionService.hasPermission(userId, permissionCode, permissionService.scopeOf(vehicle))) {
+            throw new SecurityException("User lacks " + permissionCode + " permission for vehicle: " + vehicle.getId());
+        }
+    }
+
+    /**
+     * Point the device's IMEI index entry at the vehicle now carrying it (none when null)
+     */
+    private void indexDevice(Device device, UUID vehicleId) {
+        if (device != null) {
+            imeiIndex.put(device.getId(), device.getImei(), vehicleId, device.getTenantId());
+        }
+    }
+
     private void validateVehicleRequest(VehicleRequestDto requestDto) {
         if (requestDto.getYear() != null && requestDto.getYear() > LocalDateTime.now().getYear() + 1) {
             throw new IllegalArgumentException("Year cannot be in the future");
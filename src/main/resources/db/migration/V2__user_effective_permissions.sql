@@ -0,0 +1,139 @@
+-- V2__user_effective_permissions.sql
+-- Maintained projection of every active user's effective permissions
+-- (user_roles x role_permissions, restricted to active users, roles and permissions)
+-- Kept up to date incrementally by triggers: only the users affected by a change are recomputed
+
+CREATE TABLE user_effective_permissions (
+    user_id UUID NOT NULL,
+    permission_id UUID NOT NULL,
+    permission_code VARCHAR(100) NOT NULL,
+    PRIMARY KEY (user_id, permission_id),
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (permission_id) REFERENCES permissions(id) ON DELETE CASCADE
+);
+
+-- Existence probe (user, code) and reverse lookup of holders
+CREATE UNIQUE INDEX idx_uep_user_code ON user_effective_permissions (user_id, permission_code);
+CREATE INDEX idx_uep_permission ON user_effective_permissions (permission_id);
+
+-- Recompute the projection for a set of users
+-- Rows of the users are locked first so concurrent refreshes of the same user serialize
+CREATE OR REPLACE FUNCTION refresh_user_effective_permissions(p_user_ids UUID[]) RETURNS void AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+
+    PERFORM 1 FROM users WHERE id = ANY (p_user_ids) ORDER BY id FOR NO KEY UPDATE;
+
+    DELETE FROM user_effective_permissions WHERE user_id = ANY (p_user_ids);
+
+    INSERT INTO user_effective_permissions (user_id, permission_id, permission_code)
+    SELECT DISTINCT ur.user_id, p.id, p.code
+    FROM user_roles ur
+    JOIN users u ON u.id = ur.user_id AND u.active
+    JOIN roles r ON r.id = ur.role_id AND r.active
+    JOIN role_permissions rp ON rp.role_id = r.id
+    JOIN permissions p ON p.id = rp.permission_id AND p.active
+    WHERE ur.user_id = ANY (p_user_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- user_roles: refresh the users whose assignments changed (once per statement)
+CREATE OR REPLACE FUNCTION uep_on_user_roles_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM refresh_user_effective_permissions(ARRAY(SELECT DISTINCT user_id FROM changed_rows));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_uep_user_roles_insert
+    AFTER INSERT ON user_roles
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION uep_on_user_roles_change();
+
+CREATE TRIGGER trg_uep_user_roles_delete
+    AFTER DELETE ON user_roles
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION uep_on_user_roles_change();
+
+-- role_permissions: refresh every holder of the changed roles (once per statement)
+CREATE OR REPLACE FUNCTION uep_on_role_permissions_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM refresh_user_effective_permissions(ARRAY(
+        SELECT DISTINCT ur.user_id
+        FROM user_roles ur
+        WHERE ur.role_id IN (SELECT role_id FROM changed_rows)));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_uep_role_permissions_insert
+    AFTER INSERT ON role_permissions
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION uep_on_role_permissions_change();
+
+CREATE TRIGGER trg_uep_role_permissions_delete
+    AFTER DELETE ON role_permissions
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION uep_on_role_permissions_change();
+
+-- roles.active: refresh the holders of the role
+CREATE OR REPLACE FUNCTION uep_on_role_active_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM refresh_user_effective_permissions(ARRAY(
+        SELECT ur.user_id FROM user_roles ur WHERE ur.role_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_uep_role_active
+    AFTER UPDATE OF active ON roles
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active)
+    EXECUTE FUNCTION uep_on_role_active_change();
+
+-- permissions.active / code: recompute holders on status change, rename in place otherwise
+CREATE OR REPLACE FUNCTION uep_on_permission_change() RETURNS trigger AS $$
+BEGIN
+    IF OLD.active IS DISTINCT FROM NEW.active THEN
+        PERFORM refresh_user_effective_permissions(ARRAY(
+            SELECT DISTINCT ur.user_id
+            FROM role_permissions rp
+            JOIN user_roles ur ON ur.role_id = rp.role_id
+            WHERE rp.permission_id = NEW.id));
+    ELSIF OLD.code IS DISTINCT FROM NEW.code THEN
+        UPDATE user_effective_permissions SET permission_code = NEW.code WHERE permission_id = NEW.id;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_uep_permission_change
+    AFTER UPDATE OF active, code ON permissions
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.code IS DISTINCT FROM NEW.code)
+    EXECUTE FUNCTION uep_on_permission_change();
+
+-- users.active: deactivated users have no effective permissions
+CREATE OR REPLACE FUNCTION uep_on_user_active_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM refresh_user_effective_permissions(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_uep_user_active
+    AFTER UPDATE OF active ON users
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active)
+    EXECUTE FUNCTION uep_on_user_active_change();
+
+-- Backfill from existing assignments
+INSERT INTO user_effective_permissions (user_id, permission_id, permission_code)
+SELECT DISTINCT ur.user_id, p.id, p.code
+FROM user_roles ur
+JOIN users u ON u.id = ur.user_id AND u.active
+JOIN roles r ON r.id = ur.role_id AND r.active
+JOIN role_permissions rp ON rp.role_id = r.id
+JOIN permissions p ON p.id = rp.permission_id AND p.active;
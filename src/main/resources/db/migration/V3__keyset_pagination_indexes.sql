@@ -0,0 +1,22 @@
+-- V3__keyset_pagination_indexes.sql
+-- Composite indexes backing the keyset (cursor) listings: (filter, sort key, id)
+-- A window is then "WHERE (sort_key, id) > (?, ?) ORDER BY sort_key, id LIMIT n",
+-- a seek on the index whose cost does not grow with the depth of the walk
+
+-- Users: always scoped to a tenant, active only
+CREATE INDEX idx_user_tenant_created_id ON users (tenant_id, created_at, id) WHERE active;
+
+-- Devices: per tenant or across tenants
+CREATE INDEX idx_device_tenant_installed_id ON devices (tenant_id, installed_at, id);
+CREATE INDEX idx_device_installed_id ON devices (installed_at, id);
+
+-- Vehicles: per tenant or across tenants
+CREATE INDEX idx_vehicle_tenant_created_id ON vehicles (tenant_id, created_at, id);
+CREATE INDEX idx_vehicle_created_id ON vehicles (created_at, id);
+
+-- Roles: active only, per tenant or across tenants
+CREATE INDEX idx_role_tenant_created_id ON roles (tenant_id, created_at, id) WHERE active;
+CREATE INDEX idx_role_created_id ON roles (created_at, id) WHERE active;
+
+-- Permissions: active only
+CREATE INDEX idx_permission_created_id ON permissions (created_at, id) WHERE active;
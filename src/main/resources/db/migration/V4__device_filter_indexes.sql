@@ -0,0 +1,12 @@
+-- V4__device_filter_indexes.sql
+-- Composite indexes for the combined listing filters: tenant scoping is always applied,
+-- so the tenant leads and the most selective common filters follow
+
+-- "ACTIVE devices of tenant X silent since T" and other status/heartbeat combinations
+CREATE INDEX idx_device_tenant_status_heartbeat ON devices (tenant_id, status, last_heartbeat);
+
+-- Expiry windows within a tenant
+CREATE INDEX idx_device_tenant_expiry ON devices (tenant_id, expiry_at);
+
+-- Status filters within a tenant
+CREATE INDEX idx_vehicle_tenant_status ON vehicles (tenant_id, status);
@@ -0,0 +1,128 @@
+-- V5__authorization_change_log.sql
+-- Change feed of the authorization graph: one row per (statement, tenant partition) touched by a change
+-- to users, roles, assignments or permissions. Replicas poll it incrementally by id and reload
+-- only the partitions listed; tenant_id NULL is the partition of global roles and users
+-- Written by triggers in the same transaction as the change, so a row is visible exactly when the change is
+
+CREATE TABLE authz_change_log (
+    id BIGSERIAL PRIMARY KEY,
+    tenant_id UUID,
+    full_reload BOOLEAN NOT NULL DEFAULT FALSE,
+    changed_at TIMESTAMP NOT NULL DEFAULT clock_timestamp()
+);
+
+-- Retention pruning
+CREATE INDEX idx_authz_change_log_changed_at ON authz_change_log (changed_at);
+
+CREATE OR REPLACE FUNCTION authz_log_tenants(p_tenant_ids UUID[]) RETURNS void AS $$
+BEGIN
+    INSERT INTO authz_change_log (tenant_id)
+    SELECT DISTINCT t FROM unnest(p_tenant_ids) AS t;
+END;
+$$ LANGUAGE plpgsql;
+
+-- users: membership, status or tenant of a user changed
+CREATE OR REPLACE FUNCTION authz_on_users_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        PERFORM authz_log_tenants(ARRAY[NEW.tenant_id]);
+    ELSIF TG_OP = 'DELETE' THEN
+        PERFORM authz_log_tenants(ARRAY[OLD.tenant_id]);
+    ELSIF OLD.tenant_id IS DISTINCT FROM NEW.tenant_id THEN
+        PERFORM authz_log_tenants(ARRAY[OLD.tenant_id, NEW.tenant_id]);
+    ELSE
+        PERFORM authz_log_tenants(ARRAY[NEW.tenant_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authz_users_insert_delete
+    AFTER INSERT OR DELETE ON users
+    FOR EACH ROW EXECUTE FUNCTION authz_on_users_change();
+
+CREATE TRIGGER trg_authz_users_update
+    AFTER UPDATE OF active, tenant_id ON users
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.tenant_id IS DISTINCT FROM NEW.tenant_id)
+    EXECUTE FUNCTION authz_on_users_change();
+
+-- user_roles: partitions of the users whose assignments changed (once per statement)
+CREATE OR REPLACE FUNCTION authz_on_user_roles_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM authz_log_tenants(ARRAY(
+        SELECT DISTINCT u.tenant_id FROM changed_rows c JOIN users u ON u.id = c.user_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authz_user_roles_insert
+    AFTER INSERT ON user_roles
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION authz_on_user_roles_change();
+
+CREATE TRIGGER trg_authz_user_roles_delete
+    AFTER DELETE ON user_roles
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION authz_on_user_roles_change();
+
+-- roles: the partition owning the role
+CREATE OR REPLACE FUNCTION authz_on_roles_change() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'DELETE' THEN
+        PERFORM authz_log_tenants(ARRAY[OLD.tenant_id]);
+    ELSIF TG_OP = 'UPDATE' AND OLD.tenant_id IS DISTINCT FROM NEW.tenant_id THEN
+        PERFORM authz_log_tenants(ARRAY[OLD.tenant_id, NEW.tenant_id]);
+    ELSE
+        PERFORM authz_log_tenants(ARRAY[NEW.tenant_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authz_roles_insert_delete
+    AFTER INSERT OR DELETE ON roles
+    FOR EACH ROW EXECUTE FUNCTION authz_on_roles_change();
+
+CREATE TRIGGER trg_authz_roles_update
+    AFTER UPDATE OF active, tenant_id ON roles
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.tenant_id IS DISTINCT FROM NEW.tenant_id)
+    EXECUTE FUNCTION authz_on_roles_change();
+
+-- role_permissions: partitions owning the changed roles (once per statement)
+CREATE OR REPLACE FUNCTION authz_on_role_permissions_change() RETURNS trigger AS $$
+BEGIN
+    PERFORM authz_log_tenants(ARRAY(
+        SELECT DISTINCT r.tenant_id FROM changed_rows c JOIN roles r ON r.id = c.role_id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authz_role_permissions_insert
+    AFTER INSERT ON role_permissions
+    REFERENCING NEW TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION authz_on_role_permissions_change();
+
+CREATE TRIGGER trg_authz_role_permissions_delete
+    AFTER DELETE ON role_permissions
+    REFERENCING OLD TABLE AS changed_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION authz_on_role_permissions_change();
+
+-- permissions: shared by every partition - a status or code change reloads the whole graph
+CREATE OR REPLACE FUNCTION authz_on_permissions_change() RETURNS trigger AS $$
+BEGIN
+    INSERT INTO authz_change_log (full_reload) VALUES (TRUE);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_authz_permissions_update
+    AFTER UPDATE OF active, code ON permissions
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.code IS DISTINCT FROM NEW.code)
+    EXECUTE FUNCTION authz_on_permissions_change();
+
+CREATE TRIGGER trg_authz_permissions_delete
+    AFTER DELETE ON permissions
+    FOR EACH ROW EXECUTE FUNCTION authz_on_permissions_change();
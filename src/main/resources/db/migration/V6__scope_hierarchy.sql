@@ -0,0 +1,59 @@
+-- V6__scope_hierarchy.sql
+-- Region and fleet scopes below a tenant: tenant -> region(s) -> fleet -> vehicle (vehicles.fleet_id)
+-- Stored as an adjacency list; the ancestry index (pre/post-order intervals) is computed in memory
+-- by ScopeHierarchy, so "does scope A contain scope B" never needs a recursive query
+
+CREATE TABLE scope_nodes (
+    id UUID PRIMARY KEY,
+    tenant_id UUID NOT NULL,
+    parent_id UUID REFERENCES scope_nodes(id),
+    scope_type VARCHAR(20) NOT NULL CHECK (scope_type IN ('REGIONAL', 'FLEET')),
+    name VARCHAR(100) NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at TIMESTAMP
+);
+
+CREATE INDEX idx_scope_node_tenant ON scope_nodes (tenant_id);
+CREATE INDEX idx_scope_node_parent ON scope_nodes (parent_id);
+
+-- FLEET and REGIONAL roles are bound to the node they grant on
+ALTER TABLE roles ADD COLUMN scope_id UUID REFERENCES scope_nodes(id);
+CREATE INDEX idx_role_scope_node ON roles (scope_id) WHERE scope_id IS NOT NULL;
+
+-- Scoped roles grant only within their node, never tenant-wide: keep them out of the projection
+CREATE OR REPLACE FUNCTION refresh_user_effective_permissions(p_user_ids UUID[]) RETURNS void AS $$
+BEGIN
+    IF p_user_ids IS NULL OR cardinality(p_user_ids) = 0 THEN
+        RETURN;
+    END IF;
+
+    PERFORM 1 FROM users WHERE id = ANY (p_user_ids) ORDER BY id FOR NO KEY UPDATE;
+
+    DELETE FROM user_effective_permissions WHERE user_id = ANY (p_user_ids);
+
+    INSERT INTO user_effective_permissions (user_id, permission_id, permission_code)
+    SELECT DISTINCT ur.user_id, p.id, p.code
+    FROM user_roles ur
+    JOIN users u ON u.id = ur.user_id AND u.active
+    JOIN roles r ON r.id = ur.role_id AND r.active AND r.scope_id IS NULL
+    JOIN role_permissions rp ON rp.role_id = r.id
+    JOIN permissions p ON p.id = rp.permission_id AND p.active
+    WHERE ur.user_id = ANY (p_user_ids);
+END;
+$$ LANGUAGE plpgsql;
+
+-- Binding or unbinding a role's scope changes what its holders get tenant-wide
+DROP TRIGGER trg_uep_role_active ON roles;
+CREATE TRIGGER trg_uep_role_active
+    AFTER UPDATE OF active, scope_id ON roles
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.scope_id IS DISTINCT FROM NEW.scope_id)
+    EXECUTE FUNCTION uep_on_role_active_change();
+
+DROP TRIGGER trg_authz_roles_update ON roles;
+CREATE TRIGGER trg_authz_roles_update
+    AFTER UPDATE OF active, tenant_id, scope_id ON roles
+    FOR EACH ROW
+    WHEN (OLD.active IS DISTINCT FROM NEW.active OR OLD.tenant_id IS DISTINCT FROM NEW.tenant_id
+          OR OLD.scope_id IS DISTINCT FROM NEW.scope_id)
+    EXECUTE FUNCTION authz_on_roles_change();
@@ -0,0 +1,13 @@
+-- V7__device_expiry.sql
+-- Background expiry: due devices move to EXPIRED, devices about to expire are notified once
+
+-- Set when the expiring-soon notification went out; cleared whenever expiry_at changes
+ALTER TABLE devices ADD COLUMN expiry_notified_at TIMESTAMP;
+
+-- Work queues of the sweeper: only devices still to be handled are indexed, so claiming a chunk
+-- stays an index range scan however many devices have expired over the years
+CREATE INDEX idx_device_expiry_due ON devices (expiry_at)
+    WHERE expiry_at IS NOT NULL AND status NOT IN ('EXPIRED', 'DECOMMISSIONED');
+
+CREATE INDEX idx_device_expiry_notice ON devices (expiry_at)
+    WHERE expiry_at IS NOT NULL AND expiry_notified_at IS NULL AND status NOT IN ('EXPIRED', 'DECOMMISSIONED');
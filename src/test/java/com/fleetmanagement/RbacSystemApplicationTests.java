@@ -1,12 +1,18 @@
 package com.fleetmanagement;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.TestPropertySource;
 
 @SpringBootTest(
     webEnvironment = SpringBootTest.WebEnvironment.NONE,
-    classes = TestConfig.class
+    classes = RbacSystemApplicationTests.TestConfig.class
 )
 @TestPropertySource(properties = {
     "app.jwt.secret=e8c7eada52157a9d24ffb47a220eea40",
@@ -21,4 +27,19 @@ class RbacSystemApplicationTests {
         // without any database or security dependencies
     }
 
+    /**
+     * Nested in the test class, so the component scan of @SpringBootTests that do need a database
+     * and security does not pick up its exclusions
+     */
+    @Configuration
+    @EnableAutoConfiguration(exclude = {
+        SecurityAutoConfiguration.class,
+        JpaRepositoriesAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        DataSourceAutoConfiguration.class
+    })
+    static class TestConfig {
+        // This configuration excludes all problematic auto-configurations for tests
+    }
+
 }
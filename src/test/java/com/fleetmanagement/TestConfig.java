@@ -1,19 +0,0 @@
-package com.fleetmanagement;
-
-import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
-import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
-import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
-import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
-import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-@EnableAutoConfiguration(exclude = {
-    SecurityAutoConfiguration.class,
-    JpaRepositoriesAutoConfiguration.class,
-    HibernateJpaAutoConfiguration.class,
-    DataSourceAutoConfiguration.class
-})
-public class TestConfig {
-    // This configuration excludes all problematic auto-configurations for tests
-}
@@ -0,0 +1,149 @@
+package com.fleetmanagement.benchmark;
+
+import com.fleetmanagement.service.ImeiTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IMEI -> device/vehicle/tenant resolution benchmark at 5M devices
+ * Fills the open-addressing ImeiTable and, as the baseline, a HashMap from IMEI strings to resolution records.
+ * Setup prints the retained heap of each (measured after GC); the benchmarks measure hits and misses
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class DeviceImeiIndexBenchmark {
+
+    private static final int DEVICES = 5_000_000;
+    private static final int TENANTS = 500;
+    private static final int LOOKUPS = 1 << 16;
+    // Type allocation codes of a handful of tracker models, as real fleets have
+    private static final long[] TACS = {
+            35_209_011L, 35_394_110L, 35_460_209L, 35_882_406L, 86_250_705L, 86_773_803L, 86_893_502L, 86_958_104L};
+
+    private ImeiTable table;
+    private Map<String, ImeiTable.Resolution> map;
+
+    private long[] hitKeys;
+    private String[] hitImeis;
+    private long[] missKeys;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        UUID[] tenants = new UUID[TENANTS];
+        for (int i = 0; i < TENANTS; i++) {
+            tenants[i] = UUID.randomUUID();
+        }
+        long[] imeis = new long[DEVICES];
+        for (int i = 0; i < DEVICES; i++) {
+            // TAC (8 digits) + serial (6 digits) + check digit
+            imeis[i] = (TACS[i % TACS.length] * 1_000_000L + i / TACS.length) * 10 + random.nextInt(10);
+        }
+
+        table = measure("ImeiTable", () -> {
+            ImeiTable filled = new ImeiTable(DEVICES);
+            for (int i = 0; i < DEVICES; i++) {
+                filled.put(imeis[i], UUID.randomUUID(), i % 10 == 0 ? null : UUID.randomUUID(), tenants[i % TENANTS]);
+            }
+            return filled;
+        });
+        System.out.printf("ImeiTable slot arrays: %d MB%n", table.footprintBytes() >> 20);
+
+        map = measure("HashMap<String, Resolution>", () -> {
+            Map<String, ImeiTable.Resolution> filled = new HashMap<>();
+            for (int i = 0; i < DEVICES; i++) {
+                filled.put(Long.toString(imeis[i]), new ImeiTable.Resolution(
+                        UUID.randomUUID(), i % 10 == 0 ? null : UUID.randomUUID(), tenants[i % TENANTS]));
+            }
+            return filled;
+        });
+
+        hitKeys = new long[LOOKUPS];
+        hitImeis = new String[LOOKUPS];
+        missKeys = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            hitKeys[i] = imeis[random.nextInt(DEVICES)];
+            hitImeis[i] = Long.toString(hitKeys[i]);
+            missKeys[i] = 990_000_000_000_000L + random.nextInt(1_000_000);
+        }
+    }
+
+    /**
+     * Random registered IMEI
+     */
+    @Benchmark
+    public ImeiTable.Resolution resolve() {
+        return table.get(hitKeys[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    /**
+     * Random registered IMEI, parsed from its string first - the path of DeviceImeiIndex.resolve
+     */
+    @Benchmark
+    public ImeiTable.Resolution resolveString() {
+        return table.get(ImeiTable.key(hitImeis[ThreadLocalRandom.current().nextInt(LOOKUPS)]));
+    }
+
+    /**
+     * Random registered IMEI, tenant only - no allocation
+     */
+    @Benchmark
+    public UUID tenantOf() {
+        return table.tenantOf(hitKeys[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    /**
+     * Random unknown IMEI
+     */
+    @Benchmark
+    public ImeiTable.Resolution resolveMiss() {
+        return table.get(missKeys[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    /**
+     * Random registered IMEI through the HashMap baseline
+     */
+    @Benchmark
+    public ImeiTable.Resolution resolveHashMap() {
+        return map.get(hitImeis[ThreadLocalRandom.current().nextInt(LOOKUPS)]);
+    }
+
+    /**
+     * Build a structure and print the heap it retains
+     */
+    private static <T> T measure(String name, Supplier<T> build) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        long before = memory.getHeapMemoryUsage().getUsed();
+        T built = build.get();
+        System.gc();
+        long retained = memory.getHeapMemoryUsage().getUsed() - before;
+        System.out.printf("%s: %d MB retained for %d devices (%d bytes per device)%n",
+                name, retained >> 20, DEVICES, retained / DEVICES);
+        return built;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(DeviceImeiIndexBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,97 @@
+package com.fleetmanagement.benchmark;
+
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.security.AuthorizationVersionRegistry;
+import com.fleetmanagement.security.JwtAuthenticationFilter;
+import com.fleetmanagement.security.VerifiedTokenCache;
+import com.fleetmanagement.service.JwtService;
+import com.fleetmanagement.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * JwtAuthenticationFilter benchmark
+ * Runs the full filter for a cookie-authenticated request through a mock chain, with the user
+ * loader stubbed out so only the in-process cost is measured (token verification, principal
+ * creation, SecurityContext population)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final String SECRET = "1f8b08c5a13d47e5b2c1d0f3c7e8a9b0c2d4e6f8a1b3c5d7e9f1023456789abc";
+
+    @Param({"false", "true"})
+    private boolean claimsTrusted;
+
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationInMs", 3_600_000L);
+        jwtService.init();
+
+        AuthorizationVersionRegistry versionRegistry = new AuthorizationVersionRegistry();
+        UUID userId = UUID.randomUUID();
+        UserLoginResponse user = new UserLoginResponse(userId, "bench", "n/a", UUID.randomUUID(),
+                List.of(new SimpleGrantedAuthority("DEVICE_READ"), new SimpleGrantedAuthority("VEHICLE_READ")),
+                versionRegistry.currentVersion(userId), versionRegistry.epoch());
+
+        UserDetailsServiceImpl userDetailsService = mock(UserDetailsServiceImpl.class);
+        when(userDetailsService.loadUserById(userId)).thenReturn(user);
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, versionRegistry,
+                new VerifiedTokenCache(1_000, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "claimsTrusted", claimsTrusted);
+
+        token = jwtService.generateToken(user, userId);
+    }
+
+    @Benchmark
+    public Authentication doFilter() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/devices");
+        request.setCookies(new Cookie("auth_token", token));
+
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtAuthenticationFilterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,121 @@
+package com.fleetmanagement.benchmark;
+
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.security.VerifiedToken;
+import com.fleetmanagement.security.VerifiedTokenCache;
+import com.fleetmanagement.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT benchmark
+ * Covers token issuing and the public JwtService accessors, and compares the legacy per-call
+ * verification path (hex decode + parser build + three full parses) with the single-parse path
+ * and the verified-token cache used by JwtAuthenticationFilter
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "1f8b08c5a13d47e5b2c1d0f3c7e8a9b0c2d4e6f8a1b3c5d7e9f1023456789abc";
+
+    private JwtService jwtService;
+    private VerifiedTokenCache tokenCache;
+    private UserLoginResponse user;
+    private String token;
+    private UUID userId;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationInMs", 3_600_000L);
+        jwtService.init();
+        tokenCache = new VerifiedTokenCache(1_000, new SimpleMeterRegistry());
+
+        userId = UUID.randomUUID();
+        user = new UserLoginResponse(userId, "bench", "n/a", UUID.randomUUID(),
+                List.of(new SimpleGrantedAuthority("DEVICE_READ"), new SimpleGrantedAuthority("VEHICLE_READ")), 1L, "bench");
+        token = jwtService.generateToken(user, userId);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user, userId);
+    }
+
+    @Benchmark
+    public UUID extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+
+    @Benchmark
+    public Boolean isTokenValid() {
+        return jwtService.isTokenValid(token, user, userId);
+    }
+
+    @Benchmark
+    public boolean legacyExtractAndValidate() {
+        UUID extracted = UUID.fromString(legacyClaims(token).getSubject());
+        UUID validatedId = UUID.fromString(legacyClaims(token).getSubject());
+        Date expiration = legacyClaims(token).getExpiration();
+        return extracted.equals(userId) && validatedId.equals(userId) && !expiration.before(new Date());
+    }
+
+    @Benchmark
+    public VerifiedToken singleParse() {
+        return jwtService.parseToken(token);
+    }
+
+    @Benchmark
+    public VerifiedToken cachedParse() {
+        return tokenCache.verify(token, jwtService::parseToken);
+    }
+
+    /**
+     * Replica of the pre-refactor extractAllClaims: key and parser rebuilt for every call
+     */
+    private Claims legacyClaims(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(legacyKey())
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    private Key legacyKey() {
+        int len = SECRET.length();
+        byte[] data = new byte[len / 2];
+        for (int i = 0; i < len; i += 2) {
+            data[i / 2] = (byte) ((Character.digit(SECRET.charAt(i), 16) << 4)
+                    + Character.digit(SECRET.charAt(i + 1), 16));
+        }
+        return Keys.hmacShaKeyFor(data);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(JwtServiceBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
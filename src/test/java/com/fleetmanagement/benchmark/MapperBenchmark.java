@@ -0,0 +1,231 @@
+package com.fleetmanagement.benchmark;
+
+import com.fleetmanagement.dto.response.DeviceResponseDto;
+import com.fleetmanagement.dto.response.PermissionResponseDto;
+import com.fleetmanagement.dto.response.RoleResponseDto;
+import com.fleetmanagement.dto.response.UserResponse;
+import com.fleetmanagement.dto.response.VehicleResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.entity.Vehicle;
+import com.fleetmanagement.mapper.DeviceMapper;
+import com.fleetmanagement.mapper.PermissionMapper;
+import com.fleetmanagement.mapper.RoleMapper;
+import com.fleetmanagement.mapper.UserMapper;
+import com.fleetmanagement.mapper.VehicleMapper;
+import org.modelmapper.Converter;
+import org.modelmapper.ModelMapper;
+import org.modelmapper.convention.MatchingStrategies;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Entity -> response mapping benchmark
+ * Maps entities shaped like a typical list page row (a user with roles, devices and vehicles,
+ * a role with every permission) through the hand-written mappers, and through a replica of the
+ * former reflection-based ModelMapper configuration as the baseline
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapperBenchmark {
+
+    private static final int PERMISSION_COUNT = 36;
+
+    private ModelMapper modelMapper;
+    private UserMapper userMapper;
+    private RoleMapper roleMapper;
+    private PermissionMapper permissionMapper;
+    private DeviceMapper deviceMapper;
+    private VehicleMapper vehicleMapper;
+
+    private User user;
+    private Role role;
+    private Permission permission;
+    private Device device;
+    private Vehicle vehicle;
+
+    @Setup
+    public void setUp() {
+        modelMapper = legacyModelMapper();
+        userMapper = new UserMapper();
+        roleMapper = new RoleMapper();
+        permissionMapper = new PermissionMapper();
+        deviceMapper = new DeviceMapper();
+        vehicleMapper = new VehicleMapper(null, null); // repositories are only used by toEntity
+
+        UUID tenantId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        Set<Permission> permissions = new HashSet<>();
+        for (int i = 0; i < PERMISSION_COUNT; i++) {
+            permissions.add(Permission.builder()
+                    .id(UUID.randomUUID())
+                    .code("PERMISSION_" + i)
+                    .name("Permission " + i)
+                    .category(Permission.PermissionCategory.DEVICE_MANAGEMENT)
+                    .createdAt(now)
+                    .build());
+        }
+
+        role = Role.builder()
+                .id(UUID.randomUUID())
+                .name("Fleet Manager")
+                .description("Manages the fleet")
+                .tenantId(tenantId)
+                .permissions(permissions)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        permission = permissions.iterator().next();
+        permission.setRoles(Set.of(role));
+
+        vehicle = Vehicle.builder()
+                .id(UUID.randomUUID())
+                .licensePlate("KA-01-1234")
+                .brand("Tata")
+                .model("Ace")
+                .year(2023)
+                .vin("MAT445123P1234567")
+                .vehicleType(Vehicle.VehicleType.TRUCK)
+                .tenantId(tenantId)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+
+        device = Device.builder()
+                .id(UUID.randomUUID())
+                .imei("356938035643809")
+                .deviceModel("GT06N")
+                .firmwareVersion("1.2.3")
+                .simNumber("8991101200003204510")
+                .tenantId(tenantId)
+                .installedAt(now)
+                .updatedAt(now)
+                .build();
+
+        user = User.builder()
+                .id(UUID.randomUUID())
+                .username("fleet.manager")
+                .email("fleet.manager@example.com")
+                .firstName("Fleet")
+                .lastName("Manager")
+                .password("n/a")
+                .phoneNumber("9876543210")
+                .tenantId(tenantId)
+                .createdAt(now)
+                .updatedAt(now)
+                .roles(Set.of(role))
+                .devices(Set.of(device))
+                .vehicles(Set.of(vehicle))
+                .build();
+
+        // Link the back-references last: Device and Vehicle hash through them
+        device.setVehicle(vehicle);
+        device.setUsers(Set.of(user));
+        vehicle.setDevice(device);
+        vehicle.setUsers(Set.of(user));
+    }
+
+    @Benchmark
+    public UserResponse userToResponse() {
+        return userMapper.toResponseDto(user);
+    }
+
+    @Benchmark
+    public RoleResponseDto roleToResponse() {
+        return roleMapper.toResponseDto(role);
+    }
+
+    @Benchmark
+    public PermissionResponseDto permissionToResponse() {
+        return permissionMapper.toResponseDto(permission);
+    }
+
+    @Benchmark
+    public DeviceResponseDto deviceToResponse() {
+        return deviceMapper.toResponseDto(device);
+    }
+
+    @Benchmark
+    public VehicleResponseDto vehicleToResponse() {
+        return vehicleMapper.toResponseDto(vehicle);
+    }
+
+    @Benchmark
+    public UserResponse legacyUserToResponse() {
+        UserResponse response = modelMapper.map(user, UserResponse.class);
+        response.setRoleIds(user.getRoles().stream().map(Role::getId).collect(Collectors.toSet()));
+        response.setDevicesIds(user.getDevices().stream().map(Device::getId).collect(Collectors.toSet()));
+        response.setVehiclesIds(user.getVehicles().stream().map(Vehicle::getId).collect(Collectors.toSet()));
+        return response;
+    }
+
+    @Benchmark
+    public RoleResponseDto legacyRoleToResponse() {
+        RoleResponseDto response = modelMapper.map(role, RoleResponseDto.class);
+        response.setPermissionIds(role.getPermissions().stream().map(Permission::getId).collect(Collectors.toSet()));
+        return response;
+    }
+
+    @Benchmark
+    public PermissionResponseDto legacyPermissionToResponse() {
+        PermissionResponseDto response = modelMapper.map(permission, PermissionResponseDto.class);
+        response.setRoleIds(permission.getRoles().stream().map(Role::getId).collect(Collectors.toSet()));
+        return response;
+    }
+
+    @Benchmark
+    public DeviceResponseDto legacyDeviceToResponse() {
+        DeviceResponseDto response = modelMapper.map(device, DeviceResponseDto.class);
+        response.setUserIds(device.getUsers().stream().map(User::getId).collect(Collectors.toSet()));
+        response.setVehicleId(device.getVehicle().getId());
+        return response;
+    }
+
+    @Benchmark
+    public VehicleResponseDto legacyVehicleToResponse() {
+        VehicleResponseDto response = modelMapper.map(vehicle, VehicleResponseDto.class);
+        response.setDeviceId(vehicle.getDevice().getId());
+        response.setUserIds(vehicle.getUsers().stream().map(User::getId).collect(Collectors.toSet()));
+        return response;
+    }
+
+    /**
+     * Replica of the removed AppConfig.modelMapper() bean
+     */
+    private static ModelMapper legacyModelMapper() {
+        ModelMapper mapper = new ModelMapper();
+        mapper.getConfiguration()
+                .setMatchingStrategy(MatchingStrategies.STRICT)
+                .setFieldMatchingEnabled(true)
+                .setFieldAccessLevel(org.modelmapper.config.Configuration.AccessLevel.PRIVATE);
+
+        Converter<Set<?>, Set<?>> setConverter = ctx -> ctx.getSource() == null ? null : new HashSet<>(ctx.getSource());
+        mapper.addConverter(setConverter);
+        return mapper;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MapperBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,113 @@
+package com.fleetmanagement.controller;
+
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.service.JwtService;
+import com.fleetmanagement.service.UserDetailsServiceImpl;
+import com.fleetmanagement.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Device exports go through the security filter chain twice - the request and the async re-dispatch of the
+ * streamed body - and only reach callers holding DEVICE_READ for the exported tenant
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:device-export-endpoint;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class DeviceExportEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private UUID tenantId;
+    private User reader;
+    private User outsider;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        // Committed, so the export's own connection sees it
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> persistFixture());
+    }
+
+    @Test
+    void streamedExportCompletesOnItsAsyncDispatch() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/devices/export")
+                        .param("format", "csv")
+                        .header("Authorization", bearer(reader)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(tenantId.toString())));
+    }
+
+    @Test
+    void callerWithoutDeviceReadIsRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/devices/export")
+                        .header("Authorization", bearer(outsider)))
+                .andExpect(status().isForbidden())
+                .andExpect(request().asyncNotStarted());
+    }
+
+    @Test
+    void readerCannotExportAnotherTenant() throws Exception {
+        mockMvc.perform(get("/api/v1/devices/export")
+                        .param("tenantId", UUID.randomUUID().toString())
+                        .header("Authorization", bearer(reader)))
+                .andExpect(status().isForbidden())
+                .andExpect(content().string(not(containsString(tenantId.toString()))));
+    }
+
+    private void persistFixture() {
+        String suffix = tenantId.toString().substring(0, 8);
+        Permission deviceRead = fixtures.permission("DEVICE_READ", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        reader = fixtures.user("reader-" + suffix, tenantId, fixtures.role("Viewer " + suffix, tenantId, deviceRead));
+        outsider = fixtures.user("outsider-" + suffix, tenantId);
+        fixtures.grant(reader, deviceRead);
+        fixtures.device("EXPORT-" + suffix, tenantId);
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(userDetailsService.loadUserById(user.getId()), user.getId());
+    }
+}
@@ -0,0 +1,152 @@
+package com.fleetmanagement.controller;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.entity.Vehicle;
+import com.fleetmanagement.security.ScopeHierarchy;
+import com.fleetmanagement.service.JwtService;
+import com.fleetmanagement.service.UserDetailsServiceImpl;
+import com.fleetmanagement.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A REGIONAL role passes the route and @PreAuthorize checks and reaches vehicles and devices of the
+ * region's fleets through the endpoints - and nothing outside the region
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:scoped-grant-endpoint;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef"
+})
+@AutoConfigureMockMvc
+@Import(TestFixtures.class)
+class ScopedGrantEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ScopeHierarchy scopeHierarchy;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    private UUID tenantId;
+    private User regionalReader;
+    private ScopeNode northFleet;
+    private Vehicle northTruck;
+    private Vehicle depotVan;
+    private Device northTracker;
+    private Device depotTracker;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> persistFixture());
+        scopeHierarchy.load();
+    }
+
+    @Test
+    void regionalReaderReadsVehiclesAndDevicesOfTheRegionsFleets() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/{id}", northTruck.getId())
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.licensePlate").value(northTruck.getLicensePlate()));
+
+        mockMvc.perform(get("/api/v1/devices/{id}", northTracker.getId())
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imei").value(northTracker.getImei()));
+    }
+
+    @Test
+    void regionalReaderIsRefusedOutsideTheRegion() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles/{id}", depotVan.getId())
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/api/v1/devices/{id}", depotTracker.getId())
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void regionalReaderListsOneFleetOfTheRegionButNotTheTenant() throws Exception {
+        mockMvc.perform(get("/api/v1/vehicles")
+                        .param("fleetId", northFleet.getId().toString())
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(northTruck.getLicensePlate())))
+                .andExpect(content().string(not(containsString(depotVan.getLicensePlate()))));
+
+        mockMvc.perform(get("/api/v1/vehicles")
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void scopedGrantDoesNotOpenEndpointsOutsideItsPermissions() throws Exception {
+        mockMvc.perform(get("/api/v1/users")
+                        .header("Authorization", bearer(regionalReader)))
+                .andExpect(status().isForbidden());
+    }
+
+    private void persistFixture() {
+        String suffix = tenantId.toString().substring(0, 8);
+        Permission vehicleRead = fixtures.permission("VEHICLE_READ", Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+        Permission deviceRead = fixtures.permission("DEVICE_READ", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+
+        ScopeNode north = fixtures.scope(tenantId, null, Role.ScopeType.REGIONAL, "North " + suffix);
+        northFleet = fixtures.scope(tenantId, north.getId(), Role.ScopeType.FLEET, "North trucks " + suffix);
+        ScopeNode depot = fixtures.scope(tenantId, null, Role.ScopeType.FLEET, "Depot " + suffix);
+
+        // Holds nothing tenant-wide, so the effective permission projection stays empty
+        regionalReader = fixtures.user("regional-" + suffix, tenantId, fixtures.scopedRole(
+                "Regional reader " + suffix, tenantId, Role.ScopeType.REGIONAL, north.getId(), vehicleRead, deviceRead));
+
+        northTracker = fixtures.device("35" + suffix.replaceAll("[^0-9]", "0") + "00001", tenantId);
+        depotTracker = fixtures.device("35" + suffix.replaceAll("[^0-9]", "0") + "00002", tenantId);
+        northTruck = fixtures.vehicle("N-" + suffix, tenantId, vehicle -> vehicle
+                .fleetId(northFleet.getId())
+                .device(northTracker));
+        depotVan = fixtures.vehicle("D-" + suffix, tenantId, vehicle -> vehicle
+                .fleetId(depot.getId())
+                .device(depotTracker));
+    }
+
+    private String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(userDetailsService.loadUserById(user.getId()), user.getId());
+    }
+}
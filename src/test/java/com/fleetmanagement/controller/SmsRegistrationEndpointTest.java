@@ -0,0 +1,64 @@
+package com.fleetmanagement.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Gateways get 202 for every lot they are allowed to send; a full queue only adds Retry-After and the deferred count
+ */
+@SpringBootTest(properties = {
+        "spring.autoconfigure.exclude=",
+        "spring.datasource.url=jdbc:h2:mem:sms-registration-endpoint;MODE=PostgreSQL;NON_KEYWORDS=YEAR;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.jwt.secret=0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef",
+        "app.sms.gateway-token=gateway-secret",
+        "app.sms.queue-capacity=1",
+        "app.sms.flush-interval=1h"
+})
+@AutoConfigureMockMvc
+class SmsRegistrationEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void fullQueueDefersTheRestOfTheLotWithRetryAfter() throws Exception {
+        mockMvc.perform(post("/api/v1/devices/register/sms")
+                        .header("X-Gateway-Token", "gateway-secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"messages": [
+                                  {"from": "+911111111111", "text": "REG 500000000000001 FMB920"},
+                                  {"from": "+911111111111", "text": "REG 500000000000002 FMB920"}
+                                ]}
+                                """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.deferred").value(1));
+    }
+
+    @Test
+    void untrustedGatewayIsRefused() throws Exception {
+        mockMvc.perform(post("/api/v1/devices/register/sms")
+                        .header("X-Gateway-Token", "guess")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                {"messages": [{"from": "+911111111111", "text": "REG 500000000000003 FMB920"}]}
+                                """))
+                .andExpect(status().isUnauthorized())
+                .andExpect(header().doesNotExist(HttpHeaders.RETRY_AFTER));
+    }
+}
@@ -0,0 +1,159 @@
+package com.fleetmanagement.repository;
+
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.support.PostgresTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The user_effective_permissions triggers (V2, scoped roles excluded since V6) keep the projection equal to
+ * user_roles x role_permissions over active users, roles and permissions after every kind of change
+ * The H2 tests seed the projection by hand, so this runs against PostgreSQL
+ */
+@PostgresTest
+class UserEffectivePermissionTriggerTest {
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID tenantId;
+    private String suffix;
+    private Permission read;
+    private Permission write;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        suffix = tenantId.toString().substring(0, 8);
+        read = fixtures.permission("UEP_READ_" + suffix, Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+        write = fixtures.permission("UEP_WRITE_" + suffix, Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+    }
+
+    @Test
+    void assigningAndRemovingARoleRefreshesTheUser() {
+        Role role = fixtures.role("Editor " + suffix, tenantId, read, write);
+        User user = fixtures.user("assignee-" + suffix, tenantId);
+        entityManager.flush();
+        assertThat(codes(user)).isEmpty();
+
+        jdbcTemplate.update("INSERT INTO user_roles (user_id, role_id) VALUES (?, ?)", user.getId(), role.getId());
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+
+        jdbcTemplate.update("DELETE FROM user_roles WHERE user_id = ? AND role_id = ?", user.getId(), role.getId());
+        assertThat(codes(user)).isEmpty();
+    }
+
+    @Test
+    void addingAndRemovingRolePermissionsRefreshesEveryHolder() {
+        Role role = fixtures.role("Reader " + suffix, tenantId, read);
+        User first = fixtures.user("first-" + suffix, tenantId, role);
+        User second = fixtures.user("second-" + suffix, tenantId, role);
+        entityManager.flush();
+        assertThat(codes(first)).containsExactly(read.getCode());
+
+        jdbcTemplate.update("INSERT INTO role_permissions (role_id, permission_id) VALUES (?, ?)",
+                role.getId(), write.getId());
+        assertThat(codes(first)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+        assertThat(codes(second)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+
+        jdbcTemplate.update("DELETE FROM role_permissions WHERE role_id = ? AND permission_id = ?",
+                role.getId(), read.getId());
+        assertThat(codes(first)).containsExactly(write.getCode());
+        assertThat(codes(second)).containsExactly(write.getCode());
+    }
+
+    @Test
+    void deactivatingARoleDropsOnlyWhatNoOtherRoleGrants() {
+        Role reader = fixtures.role("Reader " + suffix, tenantId, read);
+        Role editor = fixtures.role("Editor " + suffix, tenantId, read, write);
+        User user = fixtures.user("holder-" + suffix, tenantId, reader, editor);
+        entityManager.flush();
+
+        jdbcTemplate.update("UPDATE roles SET active = false WHERE id = ?", editor.getId());
+        assertThat(codes(user)).containsExactly(read.getCode());
+
+        jdbcTemplate.update("UPDATE roles SET active = true WHERE id = ?", editor.getId());
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+    }
+
+    @Test
+    void deactivatingAPermissionDropsItFromEveryHolder() {
+        User user = fixtures.user("holder-" + suffix, tenantId, fixtures.role("Editor " + suffix, tenantId, read, write));
+        entityManager.flush();
+
+        jdbcTemplate.update("UPDATE permissions SET active = false WHERE id = ?", write.getId());
+        assertThat(codes(user)).containsExactly(read.getCode());
+
+        jdbcTemplate.update("UPDATE permissions SET active = true WHERE id = ?", write.getId());
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+    }
+
+    @Test
+    void deactivatingAUserEmptiesItsProjection() {
+        User user = fixtures.user("holder-" + suffix, tenantId, fixtures.role("Editor " + suffix, tenantId, read, write));
+        entityManager.flush();
+
+        jdbcTemplate.update("UPDATE users SET active = false WHERE id = ?", user.getId());
+        assertThat(codes(user)).isEmpty();
+
+        jdbcTemplate.update("UPDATE users SET active = true WHERE id = ?", user.getId());
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+    }
+
+    @Test
+    void renamingAPermissionRenamesItInPlace() {
+        User user = fixtures.user("holder-" + suffix, tenantId, fixtures.role("Reader " + suffix, tenantId, read));
+        entityManager.flush();
+
+        jdbcTemplate.update("UPDATE permissions SET code = ? WHERE id = ?", "UEP_VIEW_" + suffix, read.getId());
+        assertThat(codes(user)).containsExactly("UEP_VIEW_" + suffix);
+    }
+
+    @Test
+    void bindingARoleToAScopeDropsItFromTheProjection() {
+        ScopeNode fleet = fixtures.scope(tenantId, null, Role.ScopeType.FLEET, "Fleet " + suffix);
+        Role role = fixtures.role("Editor " + suffix, tenantId, read, write);
+        User user = fixtures.user("holder-" + suffix, tenantId, role);
+        entityManager.flush();
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+
+        jdbcTemplate.update("UPDATE roles SET scope_type = 'FLEET', scope_id = ? WHERE id = ?", fleet.getId(), role.getId());
+        assertThat(codes(user)).isEmpty();
+
+        jdbcTemplate.update("UPDATE roles SET scope_type = 'TENANT', scope_id = NULL WHERE id = ?", role.getId());
+        assertThat(codes(user)).containsExactlyInAnyOrder(read.getCode(), write.getCode());
+    }
+
+    @Test
+    void scopedRolesNeverEnterTheProjection() {
+        ScopeNode fleet = fixtures.scope(tenantId, null, Role.ScopeType.FLEET, "Fleet " + suffix);
+        Role scoped = fixtures.scopedRole("Fleet editor " + suffix, tenantId, Role.ScopeType.FLEET, fleet.getId(), write);
+        User user = fixtures.user("holder-" + suffix, tenantId, fixtures.role("Reader " + suffix, tenantId, read), scoped);
+        entityManager.flush();
+
+        assertThat(codes(user)).containsExactly(read.getCode());
+    }
+
+    private List<String> codes(User user) {
+        return jdbcTemplate.queryForList(
+                "SELECT permission_code FROM user_effective_permissions WHERE user_id = ?", String.class, user.getId());
+    }
+}
@@ -0,0 +1,116 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.config.SchedulingConfig;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.service.PermissionService;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Committed role changes reach the in-memory graph through the change feed within a bounded delay,
+ * without any eviction from the writing side
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "app.permissions.graph.enabled=true",
+        "app.permissions.graph.poll-interval=50ms"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        SchedulingConfig.class,
+        AuthorizationChangeFeed.class,
+        PermissionServiceConfig.class
+})
+class AuthorizationGraphConsistencyTest {
+
+    private static final Duration CONVERGENCE_BOUND = Duration.ofSeconds(2);
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private AuthorizationGraph authorizationGraph;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void roleChangesConvergeWithinTheBound() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        UUID tenantId = UUID.randomUUID();
+
+        User user = transaction.execute(status -> {
+            Permission read = fixtures.permission("DEVICE_READ", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+            fixtures.permission("DEVICE_UPDATE", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+            User operator = fixtures.user("operator", tenantId, fixtures.role("Operator", tenantId, read));
+            logChange(tenantId);
+            return operator;
+        });
+        UUID roleId = user.getRoles().iterator().next().getId();
+
+        awaitConvergence(() -> authorizationGraph.snapshot(user.getId()) != null
+                && permissionService.hasPermission(user.getId(), "DEVICE_READ", tenantId));
+
+        // Swap the role's permissions behind the service's back - only the change feed can tell
+        transaction.executeWithoutResult(status -> {
+            Role role = entityManager.find(Role.class, roleId);
+            role.setPermissions(new HashSet<>(Set.of(
+                    fixtures.permission("DEVICE_UPDATE", Permission.PermissionCategory.DEVICE_MANAGEMENT))));
+            logChange(tenantId);
+        });
+
+        awaitConvergence(() -> permissionService.hasPermission(user.getId(), "DEVICE_UPDATE", tenantId)
+                && !permissionService.hasPermission(user.getId(), "DEVICE_READ", tenantId));
+
+        transaction.executeWithoutResult(status -> {
+            entityManager.find(User.class, user.getId()).setActive(false);
+            logChange(tenantId);
+        });
+
+        awaitConvergence(() -> !authorizationGraph.snapshot(user.getId()).active());
+        assertThat(permissionService.hasPermission(user.getId(), "DEVICE_UPDATE", tenantId)).isFalse();
+    }
+
+    private static void awaitConvergence(Callable<Boolean> converged) {
+        await().atMost(CONVERGENCE_BOUND).pollInterval(Duration.ofMillis(10)).until(converged);
+    }
+
+    /**
+     * authz_change_log is written by PostgreSQL triggers; H2 has none, so record the change directly
+     */
+    private void logChange(UUID tenantId) {
+        entityManager.flush();
+        entityManager.createNativeQuery(
+                        "INSERT INTO authz_change_log (tenant_id, full_reload, changed_at) VALUES (?, FALSE, CURRENT_TIMESTAMP)")
+                .setParameter(1, tenantId)
+                .executeUpdate();
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.fleetmanagement.security;
+
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.service.JwtService;
+import com.fleetmanagement.service.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Claims are trusted only for a token issued by this process at the user's current authorization version;
+ * anything else is resolved again from the database
+ */
+class JwtAuthenticationFilterTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID tenantId = UUID.randomUUID();
+
+    private JwtService jwtService;
+    private AuthorizationVersionRegistry versionRegistry;
+    private UserDetailsServiceImpl userDetailsService;
+    private JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpirationInMs", 3_600_000L);
+        jwtService.init();
+
+        versionRegistry = new AuthorizationVersionRegistry();
+        userDetailsService = mock(UserDetailsServiceImpl.class);
+        // The database only knows about DEVICE_READ - the tokens below claim VEHICLE_READ as well
+        when(userDetailsService.loadUserById(userId)).thenReturn(principal(
+                List.of(new SimpleGrantedAuthority("DEVICE_READ")), null, null));
+
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, versionRegistry,
+                new VerifiedTokenCache(100, new SimpleMeterRegistry()));
+        ReflectionTestUtils.setField(filter, "claimsTrusted", true);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void currentVersionUsesTheClaims() throws Exception {
+        String token = issue(versionRegistry.currentVersion(userId), versionRegistry.epoch());
+
+        assertThat(authenticate(token)).containsExactlyInAnyOrder("DEVICE_READ", "VEHICLE_READ");
+        verify(userDetailsService, never()).loadUserById(any());
+    }
+
+    @Test
+    void bumpedVersionFallsBackToTheDatabase() throws Exception {
+        String token = issue(versionRegistry.currentVersion(userId), versionRegistry.epoch());
+        versionRegistry.invalidateUser(userId);
+
+        assertThat(authenticate(token)).containsExactly("DEVICE_READ");
+        verify(userDetailsService).loadUserById(userId);
+    }
+
+    @Test
+    void missingVersionFallsBackToTheDatabase() throws Exception {
+        String token = issue(null, versionRegistry.epoch());
+
+        assertThat(authenticate(token)).containsExactly("DEVICE_READ");
+        verify(userDetailsService).loadUserById(userId);
+    }
+
+    @Test
+    void versionOfAnotherProcessFallsBackToTheDatabase() throws Exception {
+        // Another replica starts at the same counter - only the epoch tells the versions apart
+        AuthorizationVersionRegistry otherReplica = new AuthorizationVersionRegistry();
+        String token = issue(otherReplica.currentVersion(userId), otherReplica.epoch());
+        assertThat(otherReplica.currentVersion(userId)).isEqualTo(versionRegistry.currentVersion(userId));
+
+        assertThat(authenticate(token)).containsExactly("DEVICE_READ");
+        verify(userDetailsService).loadUserById(userId);
+    }
+
+    private String issue(Long version, String epoch) {
+        UserLoginResponse user = principal(List.of(
+                new SimpleGrantedAuthority("DEVICE_READ"), new SimpleGrantedAuthority("VEHICLE_READ")), version, epoch);
+        return jwtService.generateToken(user, userId);
+    }
+
+    private UserLoginResponse principal(List<? extends GrantedAuthority> authorities, Long version, String epoch) {
+        return new UserLoginResponse(userId, "driver", "n/a", tenantId, authorities, version, epoch);
+    }
+
+    private List<String> authenticate(String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/devices");
+        request.addHeader("Authorization", "Bearer " + token);
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication).isNotNull();
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).toList();
+    }
+}
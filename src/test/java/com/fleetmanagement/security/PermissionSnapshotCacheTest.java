@@ -0,0 +1,68 @@
+package com.fleetmanagement.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A load that raced with an eviction is handed to its caller but never left behind in the cache
+ */
+class PermissionSnapshotCacheTest {
+
+    private final PermissionSnapshotCache cache =
+            new PermissionSnapshotCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry());
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void undisturbedLoadIsCached() {
+        cache.get(userId, this::load);
+        cache.get(userId, this::load);
+
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void loadRacingWithAnEvictionIsDiscarded() {
+        // The invalidation commits while the old state is being read
+        PermissionSnapshot raced = cache.get(userId, id -> {
+            PermissionSnapshot stale = load(id);
+            cache.evictAll(Set.of(id));
+            return stale;
+        });
+        assertThat(raced).isNotNull();
+
+        cache.get(userId, this::load);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void bulkLoadRacingWithAnEvictionIsDiscarded() {
+        UUID other = UUID.randomUUID();
+        Function<Set<UUID>, Map<UUID, PermissionSnapshot>> racingLoader = ids -> {
+            ids.forEach(id -> loads.incrementAndGet());
+            cache.evict(other);
+            return Map.of(userId, PermissionSnapshot.inactive(userId), other, PermissionSnapshot.inactive(other));
+        };
+
+        assertThat(cache.getAll(Set.of(userId, other), racingLoader)).containsOnlyKeys(userId, other);
+
+        cache.get(userId, this::load);
+        cache.get(other, this::load);
+        assertThat(loads).hasValue(4);
+    }
+
+    private PermissionSnapshot load(UUID id) {
+        loads.incrementAndGet();
+        return PermissionSnapshot.inactive(id);
+    }
+}
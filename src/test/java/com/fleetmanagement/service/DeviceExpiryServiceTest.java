@@ -0,0 +1,90 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.event.DeviceExpiryEvent;
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The sweep expires due devices chunk by chunk and notifies devices about to expire exactly once
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "app.expiry.chunk-size=2",
+        "app.expiry.notice-period=7d"
+})
+@RecordApplicationEvents
+@Import(DeviceExpiryService.class)
+class DeviceExpiryServiceTest {
+
+    @Autowired
+    private DeviceExpiryService deviceExpiryService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    @Test
+    void dueDevicesExpireAndUpcomingOnesAreNotifiedOnce() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID tenantId = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            persistDevice("30000000000000" + i, tenantId, now.minusDays(i + 1), Device.DeviceStatus.ACTIVE, null);
+        }
+        Device decommissioned = persistDevice("300000000000010", tenantId, now.minusDays(1), Device.DeviceStatus.DECOMMISSIONED, null);
+        Device expiringSoon = persistDevice("300000000000011", tenantId, now.plusDays(3), Device.DeviceStatus.ACTIVE, null);
+        Device alreadyNotified = persistDevice("300000000000012", tenantId, now.plusDays(2), Device.DeviceStatus.ACTIVE, now.minusDays(1));
+        Device later = persistDevice("300000000000013", tenantId, now.plusDays(30), Device.DeviceStatus.ACTIVE, null);
+        entityManager.flush();
+
+        DeviceExpiryService.Sweep sweep = deviceExpiryService.sweep();
+
+        assertThat(sweep.expired()).isEqualTo(5);
+        assertThat(sweep.notified()).isEqualTo(1);
+        assertThat(deviceExpiryService.sweep()).isEqualTo(new DeviceExpiryService.Sweep(0, 0));
+
+        entityManager.clear();
+        assertThat(deviceRepository.countByStatus(Device.DeviceStatus.EXPIRED)).isEqualTo(5);
+        assertThat(deviceRepository.findById(decommissioned.getId()).orElseThrow().getStatus())
+                .isEqualTo(Device.DeviceStatus.DECOMMISSIONED);
+        assertThat(deviceRepository.findById(expiringSoon.getId()).orElseThrow().getExpiryNotifiedAt()).isNotNull();
+        assertThat(deviceRepository.findById(later.getId()).orElseThrow().getExpiryNotifiedAt()).isNull();
+
+        assertThat(events.stream(DeviceExpiryEvent.class).filter(event -> event.kind() == DeviceExpiryEvent.Kind.EXPIRED))
+                .hasSize(5)
+                .allMatch(event -> tenantId.equals(event.tenantId()));
+        assertThat(events.stream(DeviceExpiryEvent.class).filter(event -> event.kind() == DeviceExpiryEvent.Kind.EXPIRING_SOON))
+                .extracting(DeviceExpiryEvent::deviceId)
+                .containsExactly(expiringSoon.getId())
+                .doesNotContain(alreadyNotified.getId());
+    }
+
+    private Device persistDevice(String imei, UUID tenantId, LocalDateTime expiryAt, Device.DeviceStatus status,
+                                 LocalDateTime expiryNotifiedAt) {
+        return fixtures.device(imei, tenantId, device -> device
+                .status(status)
+                .expiryAt(expiryAt)
+                .expiryNotifiedAt(expiryNotifiedAt));
+    }
+}
@@ -0,0 +1,88 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Vehicle;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IMEIs resolve to their device, vehicle and tenant from memory, and the table stays exact under churn
+ */
+@JpaTest
+@Import(DeviceImeiIndex.class)
+class DeviceImeiIndexTest {
+
+    @Autowired
+    private DeviceImeiIndex imeiIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void loadedDevicesResolveToTheirVehicleAndTenant() {
+        UUID tenantId = UUID.randomUUID();
+        Device mounted = fixtures.device("500000000000001", tenantId);
+        Device spare = fixtures.device("500000000000002", null);
+        fixtures.device("IMEI-LEGACY-01", tenantId);
+        Vehicle vehicle = fixtures.vehicle("KA-01-5001", tenantId, details -> details.device(mounted));
+        entityManager.flush();
+
+        imeiIndex.load();
+
+        assertThat(imeiIndex.resolve(mounted.getImei()))
+                .isEqualTo(new ImeiTable.Resolution(mounted.getId(), vehicle.getId(), tenantId));
+        assertThat(imeiIndex.resolve(spare.getImei()))
+                .isEqualTo(new ImeiTable.Resolution(spare.getId(), null, null));
+        assertThat(imeiIndex.tenantOf(mounted.getImei())).isEqualTo(tenantId);
+        // IMEIs other than 15 digits are not indexed - callers fall back to the database
+        assertThat(imeiIndex.contains("IMEI-LEGACY-01")).isFalse();
+        assertThat(imeiIndex.resolve("500000000000003")).isNull();
+    }
+
+    @Test
+    void tableMatchesAHashMapThroughGrowthAndRemovals() {
+        ImeiTable table = new ImeiTable(0);
+        Map<Long, ImeiTable.Resolution> expected = new HashMap<>();
+        UUID[] tenants = {null, UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID()};
+        Random random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            // Few distinct IMEIs, so the same keys are inserted, replaced and removed many times
+            long imei = 350_000_000_000_000L + random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                assertThat(table.remove(imei)).isEqualTo(expected.remove(imei) != null);
+            } else {
+                ImeiTable.Resolution resolution = new ImeiTable.Resolution(
+                        UUID.randomUUID(), random.nextBoolean() ? UUID.randomUUID() : null, tenants[random.nextInt(4)]);
+                table.put(imei, resolution.deviceId(), resolution.vehicleId(), resolution.tenantId());
+                expected.put(imei, resolution);
+            }
+        }
+
+        assertThat(table.size()).isEqualTo(expected.size());
+        for (int i = 0; i < 20_000; i++) {
+            long imei = 350_000_000_000_000L + i;
+            assertThat(table.get(imei)).isEqualTo(expected.get(imei));
+        }
+        assertThat(ImeiTable.key("350000000000001")).isEqualTo(350_000_000_000_001L);
+        assertThat(ImeiTable.key("35000000000000A")).isNegative();
+        // Only 15-digit IMEIs are keyed, so a leading zero cannot collide with a shorter number
+        assertThat(ImeiTable.key("035000000000001")).isEqualTo(35_000_000_000_001L);
+        assertThat(ImeiTable.key("35000000000001")).isNegative();
+        assertThat(ImeiTable.key("3500000000000001")).isNegative();
+    }
+}
@@ -0,0 +1,118 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.event.DeviceLivenessEvent;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Devices go OFFLINE when their window ends without a heartbeat and come back with the next one
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "app.liveness.offline-after=400ms",
+        "app.liveness.tick=20ms"
+})
+@RecordApplicationEvents
+@Import(DeviceLivenessTracker.class)
+class DeviceLivenessTrackerTest {
+
+    private static final Duration DETECTION_BOUND = Duration.ofSeconds(3);
+
+    @Autowired
+    private DeviceLivenessTracker tracker;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ApplicationEvents events;
+
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+    }
+
+    @Test
+    void silentDevicesGoOfflineAndComeBackWithTheirNextHeartbeat() {
+        Device reporting = persistDevice("200000000000001", LocalDateTime.now());
+        Device silent = persistDevice("200000000000002", LocalDateTime.now().minusHours(1));
+        entityManager.flush();
+        tracker.load();
+
+        assertThat(tracker.onlineCount(tenantId)).isEqualTo(1);
+        assertThat(tracker.trackedCount(tenantId)).isEqualTo(2);
+
+        tracker.touch(silent.getImei(), LocalDateTime.now());
+        tracker.advance();
+        assertThat(tracker.onlineCount(tenantId)).isEqualTo(2);
+        assertThat(transitions(silent, DeviceLivenessEvent.State.ONLINE)).isEqualTo(1);
+
+        await().atMost(DETECTION_BOUND).pollInterval(Duration.ofMillis(20)).pollInSameThread().until(() -> {
+            tracker.advance();
+            return tracker.onlineCount(tenantId) == 0;
+        });
+        assertThat(transitions(reporting, DeviceLivenessEvent.State.OFFLINE)).isEqualTo(1);
+        assertThat(transitions(silent, DeviceLivenessEvent.State.OFFLINE)).isEqualTo(1);
+        assertThat(tracker.trackedCount(tenantId)).isEqualTo(2);
+
+        // A device registered after the load is tracked from its first heartbeat
+        Device installed = persistDevice("200000000000003", null);
+        entityManager.flush();
+        tracker.touch(installed.getImei(), LocalDateTime.now());
+        tracker.advance();
+        assertThat(tracker.onlineCount(tenantId)).isEqualTo(1);
+        assertThat(tracker.trackedCount(tenantId)).isEqualTo(3);
+        assertThat(transitions(installed, DeviceLivenessEvent.State.ONLINE)).isEqualTo(1);
+    }
+
+    @Test
+    void heartbeatsWrittenByAnotherInstanceKeepTheDeviceOnline() throws InterruptedException {
+        Device device = persistDevice("200000000000004", LocalDateTime.now());
+        entityManager.flush();
+        tracker.load();
+
+        // Heard from only through the table, as after another instance's heartbeat flush
+        for (int i = 0; i < 4; i++) {
+            Thread.sleep(200);
+            entityManager.createQuery("UPDATE Device d SET d.lastHeartbeat = :now WHERE d.id = :id")
+                    .setParameter("now", LocalDateTime.now())
+                    .setParameter("id", device.getId())
+                    .executeUpdate();
+            tracker.advance();
+        }
+
+        assertThat(tracker.onlineCount(tenantId)).isEqualTo(1);
+        assertThat(transitions(device, DeviceLivenessEvent.State.OFFLINE)).isZero();
+    }
+
+    private long transitions(Device device, DeviceLivenessEvent.State state) {
+        return events.stream(DeviceLivenessEvent.class)
+                .filter(event -> event.deviceId().equals(device.getId()) && event.state() == state)
+                .count();
+    }
+
+    private Device persistDevice(String imei, LocalDateTime lastHeartbeat) {
+        return fixtures.device(imei, tenantId, device -> device.lastHeartbeat(lastHeartbeat));
+    }
+}
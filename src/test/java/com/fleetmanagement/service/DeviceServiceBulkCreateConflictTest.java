@@ -0,0 +1,171 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.BulkDeviceRequestDto;
+import com.fleetmanagement.dto.request.DeviceRequestDto;
+import com.fleetmanagement.dto.response.BulkDeviceResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.mapper.DeviceMapper;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.PostgresTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A lot that may partly fail reports every item on its own - including an IMEI registered by someone else
+ * between the uniqueness check and the insert, which must not take the rest of the lot down with it
+ * The insert uses ON CONFLICT (imei), so this runs against PostgreSQL
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.jdbc.batch_size=2")
+@Import({
+        DeviceService.class,
+        DeviceMapper.class,
+        DeviceLivenessTracker.class,
+        DeviceImeiIndex.class,
+        PermissionServiceConfig.class
+})
+class DeviceServiceBulkCreateConflictTest {
+
+    private static final String REGISTERED_IMEI = "700000000000000";
+    private static final String RACED_IMEI = "700000000000002";
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private UUID tenantId;
+    private User caller;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        tenantId = UUID.randomUUID();
+
+        // The effective permission projection is filled by the triggers
+        caller = transaction.execute(status -> {
+            Permission deviceRegister = fixtures.permission("DEVICE_REGISTER", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+            fixtures.device(REGISTERED_IMEI, tenantId);
+            return fixtures.user("installer-" + tenantId.toString().substring(0, 8), tenantId,
+                    fixtures.role("Installer " + tenantId, tenantId, deviceRegister));
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM devices WHERE imei LIKE '7000000000000%'");
+        jdbcTemplate.update("DELETE FROM users WHERE tenant_id = ?", tenantId);
+        jdbcTemplate.update("DELETE FROM roles WHERE tenant_id = ?", tenantId);
+    }
+
+    @Test
+    void createsValidItemsAndReportsFailuresPerItem() {
+        BulkDeviceResponseDto response = deviceService.createDevices(caller.getId(), lot(
+                device("700000000000001", tenantId),
+                device("700000000000002", tenantId),
+                device(REGISTERED_IMEI, tenantId),
+                device("700000000000001", tenantId),
+                device("700000000000003", tenantId),
+                device("700000000000004", UUID.randomUUID())));
+
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getFailed()).isEqualTo(3);
+        assertThat(response.getResults())
+                .extracting(BulkDeviceResponseDto.Result::isSuccess)
+                .containsExactly(true, true, false, false, true, false);
+        assertThat(response.getResults().get(0).getDevice().getId()).isNotNull();
+        assertThat(response.getResults().get(0).getDevice().getInstalledAt()).isNotNull();
+        assertThat(response.getResults().get(3).getError()).contains("Duplicate IMEI");
+        assertThat(registeredImeis()).containsExactlyInAnyOrder(
+                REGISTERED_IMEI, "700000000000001", "700000000000002", "700000000000003");
+    }
+
+    @Test
+    void deviceRegisteredConcurrentlyFailsOnlyItsOwnItem() throws Exception {
+        // A rival transaction inserts the IMEI and commits only once the lot has checked its IMEIs,
+        // so the lot meets the row in its insert
+        CountDownLatch rivalInserted = new CountDownLatch(1);
+        CompletableFuture<Void> rival = CompletableFuture.runAsync(() -> transaction.executeWithoutResult(status -> {
+            fixtures.device(RACED_IMEI, tenantId);
+            entityManager.flush();
+            rivalInserted.countDown();
+            sleep(500);
+        }));
+        rivalInserted.await();
+
+        BulkDeviceResponseDto response = deviceService.createDevices(caller.getId(), lot(
+                device("700000000000001", tenantId),
+                device(RACED_IMEI, tenantId),
+                device("700000000000003", tenantId)));
+        rival.join();
+
+        assertThat(response.getCreated()).isEqualTo(2);
+        assertThat(response.getResults())
+                .extracting(BulkDeviceResponseDto.Result::isSuccess)
+                .containsExactly(true, false, true);
+        assertThat(response.getResults().get(1).getError()).isEqualTo("Device with IMEI " + RACED_IMEI + " already exists");
+        assertThat(registeredImeis()).containsExactlyInAnyOrder(
+                REGISTERED_IMEI, "700000000000001", RACED_IMEI, "700000000000003");
+    }
+
+    private List<String> registeredImeis() {
+        return jdbcTemplate.queryForList("SELECT imei FROM devices WHERE imei LIKE '7000000000000%'", String.class);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BulkDeviceRequestDto lot(DeviceRequestDto... devices) {
+        BulkDeviceRequestDto request = new BulkDeviceRequestDto();
+        request.setDevices(List.of(devices));
+        request.setAllOrNothing(false);
+        return request;
+    }
+
+    private static DeviceRequestDto device(String imei, UUID tenant) {
+        DeviceRequestDto device = new DeviceRequestDto();
+        device.setImei(imei);
+        device.setDeviceModel("GT06");
+        device.setStatus(Device.DeviceStatus.REGISTERED);
+        device.setTenantId(tenant);
+        device.setRegisteredBySms(false);
+        return device;
+    }
+}
@@ -0,0 +1,132 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.BulkDeviceRequestDto;
+import com.fleetmanagement.dto.request.DeviceRequestDto;
+import com.fleetmanagement.dto.response.BulkDeviceResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.mapper.DeviceMapper;
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk registration checks uniqueness for the whole lot at once and inserts in JDBC batches
+ * Lots that may partly fail insert with ON CONFLICT, see DeviceServiceBulkCreateConflictTest on PostgreSQL
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=2",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import({
+        DeviceService.class,
+        DeviceMapper.class,
+        DeviceLivenessTracker.class,
+        DeviceImeiIndex.class,
+        PermissionServiceConfig.class
+})
+class DeviceServiceBulkCreateTest {
+
+    private static final String REGISTERED_IMEI = "100000000000000";
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private UUID tenantId;
+    private User caller;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+
+        Permission deviceRegister = fixtures.permission("DEVICE_REGISTER", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        caller = fixtures.user("installer", tenantId, fixtures.role("Installer", tenantId, deviceRegister));
+        fixtures.grant(caller, deviceRegister);
+
+        fixtures.device(REGISTERED_IMEI, tenantId, device -> device
+                .status(Device.DeviceStatus.ACTIVE)
+                .registeredBySms(false));
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+    }
+
+    @Test
+    void allOrNothingLotIsInsertedInJdbcBatches() {
+        BulkDeviceResponseDto response = deviceService.createDevices(caller.getId(), lot(true,
+                device("100000000000001", tenantId),
+                device("100000000000002", tenantId),
+                device("100000000000003", tenantId)));
+
+        assertThat(response.getCreated()).isEqualTo(3);
+        assertThat(response.getResults()).allMatch(BulkDeviceResponseDto.Result::isSuccess);
+        assertThat(response.getResults().get(0).getDevice().getId()).isNotNull();
+        assertThat(deviceRepository.count()).isEqualTo(4);
+
+        // Snapshot + IMEI lookup + two insert batches of two and one + the final count
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(5);
+    }
+
+    @Test
+    void allOrNothingRejectsTheWholeLot() {
+        BulkDeviceResponseDto response = deviceService.createDevices(caller.getId(), lot(true,
+                device("100000000000001", tenantId),
+                device(REGISTERED_IMEI, tenantId)));
+
+        assertThat(response.getCreated()).isZero();
+        assertThat(response.getResults()).noneMatch(BulkDeviceResponseDto.Result::isSuccess);
+        assertThat(deviceRepository.count()).isEqualTo(1);
+    }
+
+    private static BulkDeviceRequestDto lot(boolean allOrNothing, DeviceRequestDto... devices) {
+        BulkDeviceRequestDto request = new BulkDeviceRequestDto();
+        request.setDevices(List.of(devices));
+        request.setAllOrNothing(allOrNothing);
+        return request;
+    }
+
+    private static DeviceRequestDto device(String imei, UUID tenant) {
+        DeviceRequestDto device = new DeviceRequestDto();
+        device.setImei(imei);
+        device.setDeviceModel("GT06");
+        device.setStatus(Device.DeviceStatus.REGISTERED);
+        device.setTenantId(tenant);
+        device.setRegisteredBySms(false);
+        return device;
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,95 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.response.DeviceResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.mapper.DeviceMapper;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Device listing filters are combined into one query and always scoped to the caller's tenant
+ */
+@JpaTest
+@Import({
+        DeviceService.class,
+        DeviceMapper.class,
+        DeviceLivenessTracker.class,
+        DeviceImeiIndex.class,
+        PermissionServiceConfig.class
+})
+class DeviceServiceFilterTest {
+
+    @Autowired
+    private DeviceService deviceService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private UUID tenantId;
+    private UUID otherTenantId;
+    private User caller;
+    private Device silent;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        otherTenantId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+
+        Permission deviceRead = fixtures.permission("DEVICE_READ", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        caller = fixtures.user("caller", tenantId, fixtures.role("Viewer", tenantId, deviceRead));
+        fixtures.grant(caller, deviceRead);
+
+        silent = persistDevice("100000000000001", tenantId, Device.DeviceStatus.ACTIVE, now.minusMinutes(30));
+        persistDevice("100000000000002", tenantId, Device.DeviceStatus.ACTIVE, now);
+        persistDevice("100000000000003", tenantId, Device.DeviceStatus.INACTIVE, now.minusMinutes(30));
+        persistDevice("100000000000004", otherTenantId, Device.DeviceStatus.ACTIVE, now.minusMinutes(30));
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void combinesAllSuppliedFiltersWithinTheCallersTenant() {
+        Page<DeviceResponseDto> devices = deviceService.getAllDevices(caller.getId(), null,
+                Device.DeviceStatus.ACTIVE, null, null, null, null, null, null,
+                LocalDateTime.now().minusMinutes(10), null, null, null, PageRequest.of(0, 20));
+
+        assertThat(devices.getContent())
+                .extracting(DeviceResponseDto::getId)
+                .containsExactly(silent.getId());
+    }
+
+    @Test
+    void rejectsAnotherTenant() {
+        assertThatThrownBy(() -> deviceService.getAllDevices(caller.getId(), null, null, otherTenantId,
+                null, null, null, null, null, null, null, null, null, PageRequest.of(0, 20)))
+                .isInstanceOf(SecurityException.class);
+    }
+
+    private Device persistDevice(String imei, UUID tenant, Device.DeviceStatus status, LocalDateTime lastHeartbeat) {
+        return fixtures.device(imei, tenant, device -> device
+                .status(status)
+                .registeredBySms(false)
+                .lastHeartbeat(lastHeartbeat));
+    }
+}
@@ -0,0 +1,110 @@
+package com.fleetmanagement.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.TestFixtures;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Exports stream every row of the tenant, across several cursor fetches, in either format,
+ * and only to callers holding the dataset's permission
+ */
+@JpaTest
+@Import(PermissionServiceConfig.class)
+class ExportServiceTest {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ExportService exportService;
+    private UUID tenantId;
+
+    @BeforeEach
+    void setUp() {
+        // Fetch size 2 forces several round trips of the cursor
+        exportService = new ExportService(dataSource, transactionManager, permissionService, objectMapper, 2);
+        tenantId = UUID.randomUUID();
+
+        persistDevice("100000000000001", tenantId, "GT06");
+        persistDevice("100000000000002", tenantId, "GT06, rev \"B\"");
+        persistDevice("100000000000003", tenantId, "GT06");
+        persistDevice("100000000000004", UUID.randomUUID(), "GT06");
+        entityManager.flush();
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerTenantRow() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(ExportService.Dataset.DEVICES, ExportService.Format.NDJSON, tenantId, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(3);
+        for (String line : lines) {
+            JsonNode device = objectMapper.readTree(line);
+            assertThat(device.get("tenantId").asText()).isEqualTo(tenantId.toString());
+            assertThat(device.get("registeredBySms").isBoolean()).isTrue();
+            assertThat(device.get("installedAt").asText()).isNotBlank();
+        }
+    }
+
+    @Test
+    void csvWritesHeaderAndEscapedRows() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.write(ExportService.Dataset.DEVICES, ExportService.Format.CSV, tenantId, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertThat(lines).hasSize(4);
+        assertThat(lines.get(0)).startsWith("id,imei,device_model,");
+        assertThat(lines).anyMatch(line -> line.contains(",\"GT06, rev \"\"B\"\"\","));
+    }
+
+    @Test
+    void callerWithoutTheDatasetPermissionIsRejected() {
+        User caller = fixtures.user("no-export", tenantId);
+        entityManager.flush();
+
+        assertThatThrownBy(() -> exportService.export(
+                caller.getId(), tenantId, ExportService.Dataset.DEVICES, ExportService.Format.CSV))
+                .isInstanceOf(SecurityException.class)
+                .hasMessageContaining("DEVICE_READ");
+    }
+
+    private void persistDevice(String imei, UUID tenant, String model) {
+        fixtures.device(imei, tenant, device -> device
+                .deviceModel(model)
+                .status(Device.DeviceStatus.ACTIVE)
+                .registeredBySms(false));
+    }
+}
@@ -0,0 +1,192 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.HeartbeatRequestDto;
+import com.fleetmanagement.dto.response.HeartbeatResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Heartbeats are coalesced per device and written in batches; the latest timestamp always wins
+ * Callers only report for the devices of their own tenant
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "app.heartbeat.batch-size=2",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({
+        HeartbeatService.class,
+        DeviceLivenessTracker.class,
+        DeviceImeiIndex.class,
+        PermissionServiceConfig.class
+})
+class HeartbeatServiceTest {
+
+    @Autowired
+    private HeartbeatService heartbeatService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceImeiIndex imeiIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private UUID tenantId;
+    private User gateway;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+        Permission deviceHeartbeat = fixtures.permission("DEVICE_HEARTBEAT", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        gateway = fixtures.user("gateway", tenantId, fixtures.role("Gateway", tenantId, deviceHeartbeat));
+        fixtures.grant(gateway, deviceHeartbeat);
+    }
+
+    @Test
+    void latestHeartbeatPerDeviceIsWritten() {
+        LocalDateTime base = LocalDateTime.now().minusHours(1).truncatedTo(ChronoUnit.SECONDS);
+        Device idle = persistDevice("100000000000001", null);
+        Device reporting = persistDevice("100000000000002", base.minusMinutes(5));
+        // Already written by another instance with a newer heartbeat than the one buffered here
+        Device ahead = persistDevice("100000000000003", base.plusMinutes(30));
+        entityManager.flush();
+
+        List<HeartbeatRequestDto.Heartbeat> heartbeats = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            heartbeats.add(heartbeat(idle.getImei(), base.plusSeconds(i * 10L)));
+            heartbeats.add(heartbeat(reporting.getImei(), base.plusSeconds(100 - i)));
+        }
+        heartbeats.add(heartbeat(ahead.getImei(), base));
+        heartbeats.add(heartbeat("999999999999999", base));
+        HeartbeatResponseDto response = heartbeatService.record(gateway.getId(), request(heartbeats));
+
+        assertThat(response.getAccepted()).isEqualTo(21);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(response.getPending()).isEqualTo(3);
+
+        assertThat(heartbeatService.flush()).isEqualTo(3);
+        assertThat(heartbeatService.flush()).isZero();
+
+        entityManager.clear();
+        assertThat(deviceRepository.findByImei(idle.getImei()).orElseThrow().getLastHeartbeat())
+                .isEqualTo(base.plusSeconds(90));
+        assertThat(deviceRepository.findByImei(reporting.getImei()).orElseThrow().getLastHeartbeat())
+                .isEqualTo(base.plusSeconds(100));
+        assertThat(deviceRepository.findByImei(ahead.getImei()).orElseThrow().getLastHeartbeat())
+                .isEqualTo(base.plusMinutes(30));
+    }
+
+    @Test
+    void futureTimestampsAreTakenAsTimeOfReceipt() {
+        Device device = persistDevice("100000000000004", null);
+        entityManager.flush();
+
+        LocalDateTime before = LocalDateTime.now();
+        heartbeatService.record(gateway.getId(), request(List.of(heartbeat(device.getImei(), before.plusDays(1)))));
+        heartbeatService.flush();
+
+        entityManager.clear();
+        LocalDateTime written = deviceRepository.findByImei(device.getImei()).orElseThrow().getLastHeartbeat();
+        assertThat(written).isBetween(before.minusSeconds(1), LocalDateTime.now());
+    }
+
+    @Test
+    void devicesOfAnotherTenantAreLeftAlone() {
+        Device foreign = fixtures.device("100000000000005", UUID.randomUUID());
+        Device own = persistDevice("100000000000006", null);
+        entityManager.flush();
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        HeartbeatResponseDto response = heartbeatService.record(gateway.getId(), request(List.of(
+                heartbeat(foreign.getImei(), now),
+                heartbeat(own.getImei(), now))));
+
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(1);
+        assertThat(heartbeatService.flush()).isEqualTo(1);
+
+        entityManager.clear();
+        assertThat(deviceRepository.findByImei(foreign.getImei()).orElseThrow().getLastHeartbeat()).isNull();
+        assertThat(deviceRepository.findByImei(own.getImei()).orElseThrow().getLastHeartbeat()).isEqualTo(now);
+    }
+
+    @Test
+    void callerWithoutDeviceHeartbeatIsRejected() {
+        User viewer = fixtures.user("viewer", tenantId);
+        Device device = persistDevice("100000000000007", null);
+        entityManager.flush();
+
+        assertThatThrownBy(() -> heartbeatService.record(viewer.getId(),
+                request(List.of(heartbeat(device.getImei(), LocalDateTime.now())))))
+                .isInstanceOf(SecurityException.class);
+    }
+
+    @Test
+    void indexedDevicesAreCheckedWithoutTheDatabase() {
+        Device device = persistDevice("100000000000008", null);
+        entityManager.flush();
+        imeiIndex.load();
+        // Resolves the caller's permissions once
+        heartbeatService.record(gateway.getId(), request(List.of(heartbeat(device.getImei(), LocalDateTime.now()))));
+
+        statistics().clear();
+        HeartbeatResponseDto response = heartbeatService.record(gateway.getId(),
+                request(List.of(heartbeat(device.getImei(), LocalDateTime.now()))));
+
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(statistics().getPrepareStatementCount()).isZero();
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Device persistDevice(String imei, LocalDateTime lastHeartbeat) {
+        return fixtures.device(imei, tenantId, device -> device.lastHeartbeat(lastHeartbeat));
+    }
+
+    private static HeartbeatRequestDto.Heartbeat heartbeat(String imei, LocalDateTime timestamp) {
+        HeartbeatRequestDto.Heartbeat heartbeat = new HeartbeatRequestDto.Heartbeat();
+        heartbeat.setImei(imei);
+        heartbeat.setTimestamp(timestamp);
+        return heartbeat;
+    }
+
+    private static HeartbeatRequestDto request(List<HeartbeatRequestDto.Heartbeat> heartbeats) {
+        HeartbeatRequestDto requestDto = new HeartbeatRequestDto();
+        requestDto.setHeartbeats(heartbeats);
+        return requestDto;
+    }
+}
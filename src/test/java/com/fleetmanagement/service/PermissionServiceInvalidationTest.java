@@ -0,0 +1,151 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.config.AppConfig;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.mapper.RoleMapper;
+import com.fleetmanagement.mapper.UserMapper;
+import com.fleetmanagement.security.AuthorizationVersionRegistry;
+import com.fleetmanagement.security.PermissionSnapshotCache;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.PostgresTest;
+import com.fleetmanagement.support.TestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Role, assignment and user changes evict the affected snapshots once they commit, so the next check sees
+ * them; a rolled-back change leaves the cache alone
+ * Snapshots are read from the trigger-maintained projection, so this runs against PostgreSQL
+ */
+@PostgresTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({
+        AppConfig.class,
+        RoleService.class,
+        RoleMapper.class,
+        UserService.class,
+        UserMapper.class,
+        PermissionServiceConfig.class
+})
+class PermissionServiceInvalidationTest {
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private RoleService roleService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionSnapshotCache snapshotCache;
+
+    @Autowired
+    private AuthorizationVersionRegistry versionRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transaction;
+    private UUID tenantId;
+    private User admin;
+    private User driver;
+    private Role reader;
+    private Role writer;
+    private Permission read;
+    private Permission write;
+
+    @BeforeEach
+    void setUp() {
+        transaction = new TransactionTemplate(transactionManager);
+        tenantId = UUID.randomUUID();
+        String suffix = tenantId.toString().substring(0, 8);
+
+        transaction.executeWithoutResult(status -> {
+            read = fixtures.permission("CACHE_READ_" + suffix, Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+            write = fixtures.permission("CACHE_WRITE_" + suffix, Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+            admin = fixtures.user("admin-" + suffix, tenantId, fixtures.role("Admin " + suffix, tenantId,
+                    fixtures.permission("ROLE_ASSIGN", Permission.PermissionCategory.USER_MANAGEMENT),
+                    fixtures.permission("USER_DELETE", Permission.PermissionCategory.USER_MANAGEMENT)));
+            reader = fixtures.role("Reader " + suffix, tenantId, read);
+            writer = fixtures.role("Writer " + suffix, tenantId, write);
+            driver = fixtures.user("driver-" + suffix, tenantId, reader);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM users WHERE tenant_id = ?", tenantId);
+        jdbcTemplate.update("DELETE FROM roles WHERE tenant_id = ?", tenantId);
+        jdbcTemplate.update("DELETE FROM permissions WHERE id IN (?, ?)", read.getId(), write.getId());
+    }
+
+    @Test
+    void updatedRolePermissionsAreSeenAfterCommit() {
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isTrue();
+        assertThat(permissionService.hasPermission(driver.getId(), write.getCode(), tenantId)).isFalse();
+
+        roleService.updatePermissions(admin.getId(), reader.getId(), Set.of(write.getId()));
+
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isFalse();
+        assertThat(permissionService.hasPermission(driver.getId(), write.getCode(), tenantId)).isTrue();
+    }
+
+    @Test
+    void assignedRolesAreSeenAfterCommit() {
+        assertThat(permissionService.hasPermission(driver.getId(), write.getCode(), tenantId)).isFalse();
+
+        userService.assignRoles(driver.getId(), Set.of(writer.getId()), admin.getId());
+
+        assertThat(permissionService.hasPermission(driver.getId(), write.getCode(), tenantId)).isTrue();
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isFalse();
+    }
+
+    @Test
+    void deletedUserLosesItsPermissionsAfterCommit() {
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isTrue();
+
+        userService.deleteUser(driver.getId(), admin.getId());
+
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isFalse();
+    }
+
+    @Test
+    void rolledBackChangeLeavesTheCachedSnapshotAlone() {
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isTrue();
+        long version = versionRegistry.currentVersion(driver.getId());
+
+        transaction.executeWithoutResult(status -> {
+            roleService.updatePermissions(admin.getId(), reader.getId(), Set.of(write.getId()));
+            userService.deleteUser(driver.getId(), admin.getId());
+            status.setRollbackOnly();
+        });
+
+        snapshotCache.get(driver.getId(), userId -> fail("snapshot was evicted by a rolled-back change"));
+        assertThat(versionRegistry.currentVersion(driver.getId())).isEqualTo(version);
+        assertThat(permissionService.hasPermission(driver.getId(), read.getCode(), tenantId)).isTrue();
+    }
+}
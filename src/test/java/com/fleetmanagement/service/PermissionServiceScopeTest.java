@@ -0,0 +1,94 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.security.ScopeHierarchy;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tenant-wide grants reach every region and fleet of the tenant; FLEET and REGIONAL roles only their subtree
+ */
+@JpaTest
+@Import(PermissionServiceConfig.class)
+class PermissionServiceScopeTest {
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private ScopeHierarchy scopeHierarchy;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    private UUID tenantId;
+    private User user;
+    private ScopeNode north;
+    private ScopeNode northFleet;
+    private ScopeNode depotFleet;
+    private ScopeNode foreignFleet;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+
+        north = fixtures.scope(tenantId, null, Role.ScopeType.REGIONAL, "North");
+        northFleet = fixtures.scope(tenantId, north.getId(), Role.ScopeType.FLEET, "North trucks");
+        depotFleet = fixtures.scope(tenantId, null, Role.ScopeType.FLEET, "Depot");
+        foreignFleet = fixtures.scope(UUID.randomUUID(), null, Role.ScopeType.FLEET, "Elsewhere");
+
+        Permission deviceRead = fixtures.permission("DEVICE_READ", Permission.PermissionCategory.DEVICE_MANAGEMENT);
+        Permission vehicleRead = fixtures.permission("VEHICLE_READ", Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+        Permission vehicleUpdate = fixtures.permission("VEHICLE_UPDATE", Permission.PermissionCategory.VEHICLE_MANAGEMENT);
+
+        Role viewer = fixtures.role("Viewer", tenantId, deviceRead);
+        Role regionalReader = fixtures.scopedRole("Regional reader", tenantId, Role.ScopeType.REGIONAL, north.getId(), vehicleRead);
+        Role fleetOperator = fixtures.scopedRole("Fleet operator", tenantId, Role.ScopeType.FLEET, northFleet.getId(), vehicleUpdate);
+
+        user = fixtures.user("dispatcher", tenantId, viewer, regionalReader, fleetOperator);
+
+        // The projection only holds tenant-wide roles
+        fixtures.grant(user, deviceRead);
+        entityManager.clear();
+        scopeHierarchy.load();
+    }
+
+    @Test
+    void tenantWideGrantsReachEveryScopeOfTheTenant() {
+        assertThat(permissionService.hasPermission(user.getId(), "DEVICE_READ", tenantId)).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "DEVICE_READ", north.getId())).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "DEVICE_READ", northFleet.getId())).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "DEVICE_READ", foreignFleet.getId())).isFalse();
+    }
+
+    @Test
+    void scopedRolesGrantOnlyWithinTheirSubtree() {
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_READ", north.getId())).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_READ", northFleet.getId())).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_READ", depotFleet.getId())).isFalse();
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_READ", tenantId)).isFalse();
+
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_UPDATE", northFleet.getId())).isTrue();
+        assertThat(permissionService.hasPermission(user.getId(), "VEHICLE_UPDATE", north.getId())).isFalse();
+        assertThat(permissionService.hasAnyPermission(user.getId(), Set.of("VEHICLE_UPDATE"), depotFleet.getId())).isFalse();
+        assertThat(permissionService.hasAllPermissions(user.getId(), Set.of("VEHICLE_READ", "VEHICLE_UPDATE", "DEVICE_READ"),
+                northFleet.getId())).isTrue();
+    }
+}
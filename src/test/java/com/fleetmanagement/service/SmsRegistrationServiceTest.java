@@ -0,0 +1,140 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.dto.request.SmsRegistrationRequestDto;
+import com.fleetmanagement.dto.response.SmsRegistrationResponseDto;
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.repository.DeviceRepository;
+import com.fleetmanagement.support.PostgresTest;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SMS registrations are queued once per IMEI, deferred when the queue is full and never overwrite a known device
+ * The batch INSERT ... ON CONFLICT (imei) is PostgreSQL-only, so this runs against PostgreSQL
+ */
+@PostgresTest
+@TestPropertySource(properties = {
+        "app.sms.gateway-token=gateway-secret",
+        "app.sms.queue-capacity=3",
+        "app.sms.batch-size=2"
+})
+@Import({
+        SmsRegistrationService.class,
+        DeviceImeiIndex.class
+})
+class SmsRegistrationServiceTest {
+
+    @Autowired
+    private SmsRegistrationService smsRegistrationService;
+
+    @Autowired
+    private DeviceRepository deviceRepository;
+
+    @Autowired
+    private DeviceImeiIndex imeiIndex;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void onlyTheConfiguredTokenIsTrusted() {
+        assertThat(smsRegistrationService.isTrustedGateway("gateway-secret")).isTrue();
+        assertThat(smsRegistrationService.isTrustedGateway("gateway-secreT")).isFalse();
+        assertThat(smsRegistrationService.isTrustedGateway(null)).isFalse();
+    }
+
+    @Test
+    void newDevicesAreRegisteredAndKnownOnesLeftAlone() {
+        Device known = fixtures.device("400000000000009", null);
+        entityManager.flush();
+
+        SmsRegistrationResponseDto response = smsRegistrationService.submit(request(
+                message("+911111111111", "REG 400000000000001 FMB920 8991000000000000001"),
+                message("+911111111111", "reg 400000000000002 TK103"),
+                message("+912222222222", "REG 400000000000001 FMB920"),
+                message("+912222222222", "HELLO"),
+                message("+913333333333", "REG 400000000000009 TK103"),
+                message("+913333333333", "REG 400000000000003 TK103")));
+
+        assertThat(response).isEqualTo(new SmsRegistrationResponseDto(3, 1, 1, 1));
+        assertThat(smsRegistrationService.flush()).isEqualTo(2);
+
+        // The deferred message goes through once the queue has room
+        response = smsRegistrationService.submit(request(message("+913333333333", "REG 400000000000003 TK103")));
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(smsRegistrationService.flush()).isEqualTo(1);
+
+        entityManager.clear();
+        Device registered = deviceRepository.findByImei("400000000000001").orElseThrow();
+        assertThat(registered.getRegisteredBySms()).isTrue();
+        assertThat(registered.getInstallerPhone()).isEqualTo("+911111111111");
+        assertThat(registered.getSimNumber()).isEqualTo("8991000000000000001");
+        assertThat(registered.getStatus()).isEqualTo(Device.DeviceStatus.REGISTERED);
+        assertThat(registered.getTenantId()).isNull();
+        assertThat(deviceRepository.findByImei("400000000000003")).isPresent();
+
+        Device unchanged = deviceRepository.findByImei(known.getImei()).orElseThrow();
+        assertThat(unchanged.getDeviceModel()).isEqualTo("GT06");
+        assertThat(unchanged.getRegisteredBySms()).isFalse();
+    }
+
+    /**
+     * Outside a transaction, like the scheduled flush, so the index is updated as soon as the rows are written
+     */
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void insertedDevicesAreIndexedAndSkippedOnesAreNot() {
+        jdbcTemplate.update("INSERT INTO devices (id, imei, device_model, status, registered_by_sms, installed_at) "
+                + "VALUES (?, '400000000000019', 'GT06', 'ACTIVE', false, now())", UUID.randomUUID());
+        try {
+            smsRegistrationService.submit(request(
+                    message("+914444444444", "REG 400000000000011 TK103"),
+                    message("+914444444444", "REG 400000000000019 TK103")));
+
+            assertThat(smsRegistrationService.flush()).isEqualTo(1);
+            UUID inserted = jdbcTemplate.queryForObject(
+                    "SELECT id FROM devices WHERE imei = '400000000000011'", UUID.class);
+            assertThat(imeiIndex.resolve("400000000000011")).isEqualTo(new ImeiTable.Resolution(inserted, null, null));
+            // Already registered, but not by this flush - left to the periodic resync
+            assertThat(imeiIndex.contains("400000000000019")).isFalse();
+
+            // A resend of an indexed IMEI is a duplicate and never reaches the database
+            SmsRegistrationResponseDto resend = smsRegistrationService.submit(request(
+                    message("+914444444444", "REG 400000000000011 TK103")));
+            assertThat(resend.getDuplicates()).isEqualTo(1);
+        } finally {
+            jdbcTemplate.update("DELETE FROM devices WHERE imei IN ('400000000000011', '400000000000019')");
+        }
+    }
+
+    private static SmsRegistrationRequestDto.Message message(String from, String text) {
+        SmsRegistrationRequestDto.Message message = new SmsRegistrationRequestDto.Message();
+        message.setFrom(from);
+        message.setText(text);
+        return message;
+    }
+
+    private static SmsRegistrationRequestDto request(SmsRegistrationRequestDto.Message... messages) {
+        SmsRegistrationRequestDto requestDto = new SmsRegistrationRequestDto();
+        requestDto.setMessages(List.of(messages));
+        return requestDto;
+    }
+}
@@ -0,0 +1,255 @@
+package com.fleetmanagement.service;
+
+import com.fleetmanagement.config.AppConfig;
+import com.fleetmanagement.dto.request.AssignmentDeltaRequest;
+import com.fleetmanagement.dto.response.AssignmentDeltaResponse;
+import com.fleetmanagement.dto.response.CursorPage;
+import com.fleetmanagement.dto.response.UserLoginResponse;
+import com.fleetmanagement.dto.response.UserResponse;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.mapper.UserMapper;
+import com.fleetmanagement.security.PermissionCheck;
+import com.fleetmanagement.support.JpaTest;
+import com.fleetmanagement.support.PermissionServiceConfig;
+import com.fleetmanagement.support.TestFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Statement budget per user endpoint
+ * The caller is resolved once per request from its AuthorizationContext, so only the data
+ * the endpoint returns is read from the database
+ */
+@JpaTest
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import({
+        AppConfig.class,
+        UserService.class,
+        UserMapper.class,
+        PermissionServiceConfig.class
+})
+class UserServiceQueryCountTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID tenantId;
+    private User caller;
+    private User target;
+    private User colleague;
+
+    @BeforeEach
+    void setUp() {
+        tenantId = UUID.randomUUID();
+
+        Permission userRead = fixtures.permission("USER_READ", Permission.PermissionCategory.USER_MANAGEMENT);
+        Role viewer = fixtures.role("Viewer", tenantId, userRead);
+
+        caller = fixtures.user("caller", tenantId, viewer);
+        target = fixtures.user("target", tenantId, viewer);
+        colleague = fixtures.user("colleague", tenantId);
+        fixtures.grant(caller, userRead);
+        fixtures.grant(target, userRead);
+
+        entityManager.flush();
+        entityManager.clear();
+
+        authenticate(caller, "USER_READ");
+        statistics().clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getUserByIdIssuesSingleStatement() {
+        userService.getUserById(target.getId(), caller.getId(), tenantId);
+
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void listUsersPagesIdsThenFetchesEachRelationOnce() {
+        // The whole tenant fits on the first page, so no count query is needed:
+        // one id page + one IN query each for roles, devices and vehicles
+        Page<UserResponse> page = userService.getAllUsers(tenantId, caller.getId(), PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).hasSize(3);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void listUsersKeepsAStableOrderAcrossPages() {
+        Sort byLastName = Sort.by("lastName");
+        Page<UserResponse> first = userService.getAllUsers(tenantId, caller.getId(), PageRequest.of(0, 2, byLastName));
+        Page<UserResponse> second = userService.getAllUsers(tenantId, caller.getId(), PageRequest.of(1, 2, byLastName));
+
+        // Every user has the same last name, so only the id tie-breaker keeps pages disjoint
+        List<UUID> ids = Stream.concat(first.stream(), second.stream())
+                .map(UserResponse::getId)
+                .toList();
+        assertThat(ids).containsExactlyInAnyOrder(caller.getId(), target.getId(), colleague.getId());
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent().get(0).getRoleIds()).isNotNull();
+    }
+
+    @Test
+    void scrollUsersSeeksWithoutCounting() {
+        // One keyset window + one IN query each for roles, devices and vehicles, never a count
+        CursorPage<UserResponse> first = userService.scrollUsers(tenantId, caller.getId(), null, 2);
+
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getNextCursor()).isNotNull();
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(4);
+
+        CursorPage<UserResponse> second = userService.scrollUsers(tenantId, caller.getId(), first.getNextCursor(), 2);
+
+        assertThat(second.getItems()).hasSize(1);
+        assertThat(second.isHasNext()).isFalse();
+        assertThat(second.getNextCursor()).isNull();
+        List<UUID> ids = Stream.concat(first.getItems().stream(), second.getItems().stream())
+                .map(UserResponse::getId)
+                .toList();
+        assertThat(ids).containsExactlyInAnyOrder(caller.getId(), target.getId(), colleague.getId());
+    }
+
+    @Test
+    void assigningVehiclesCostsTheSameStatementsForAnyLotSize() {
+        List<UUID> vehicleIds = Stream.of("KA01AA0001", "KA01AA0002", "KA01AA0003", "KA01AA0004", "KA01AA0005")
+                .map(licensePlate -> fixtures.vehicle(licensePlate, tenantId).getId())
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+        authenticate(caller, "USER_READ", "VEHICLE_ASSIGN_DEVICE");
+        statistics().clear();
+
+        UserResponse response = userService.assignVehicles(target.getId(), Set.copyOf(vehicleIds), caller.getId());
+        entityManager.flush();
+
+        // user + its roles, devices and vehicles (3) + one IN query for the vehicles + one grouped count
+        // + one insert batch for the join rows
+        assertThat(response.getVehiclesIds()).containsExactlyInAnyOrderElementsOf(vehicleIds);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(6);
+    }
+
+    @Test
+    void vehicleDeltaWritesOnlyTheChangedJoinRows() {
+        List<UUID> vehicleIds = Stream.of("KA01AA0001", "KA01AA0002", "KA01AA0003")
+                .map(licensePlate -> fixtures.vehicle(licensePlate, tenantId).getId())
+                .toList();
+        entityManager.flush();
+        entityManager.clear();
+        authenticate(caller, "USER_READ", "VEHICLE_ASSIGN_DEVICE");
+        userService.assignVehicles(target.getId(), Set.of(vehicleIds.get(0), vehicleIds.get(1)), caller.getId());
+        entityManager.flush();
+        entityManager.clear();
+        statistics().clear();
+
+        AssignmentDeltaRequest delta = new AssignmentDeltaRequest();
+        delta.setAdd(Set.of(vehicleIds.get(2)));
+        delta.setRemove(Set.of(vehicleIds.get(0)));
+        AssignmentDeltaResponse response = userService.updateVehicles(target.getId(), delta, caller.getId());
+
+        // user + one IN query for the added vehicle + one grouped count + one insert + one delete
+        assertThat(response.getAdded()).isEqualTo(1);
+        assertThat(response.getRemoved()).isEqualTo(1);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(5);
+        assertThat(userService.getUserById(target.getId(), caller.getId(), tenantId).getVehiclesIds())
+                .containsExactlyInAnyOrder(vehicleIds.get(1), vehicleIds.get(2));
+    }
+
+    @Test
+    void checksForOtherUsersAreLoadedOnceAndCached() {
+        permissionService.hasPermission(target.getId(), "USER_READ", tenantId);
+        permissionService.hasPermission(target.getId(), "USER_READ", tenantId);
+        permissionService.canAccessTenant(target.getId(), tenantId);
+
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void batchChecksLoadAllOtherUsersWithOneStatement() {
+        List<Boolean> results = permissionService.checkPermissions(caller.getId(), List.of(
+                new PermissionCheck(caller.getId(), "USER_READ", tenantId),
+                new PermissionCheck(target.getId(), "USER_READ", tenantId),
+                new PermissionCheck(colleague.getId(), "USER_READ", tenantId),
+                new PermissionCheck(target.getId(), "USER_DELETE", tenantId)));
+
+        assertThat(results).containsExactly(true, true, false, false);
+        assertThat(statistics().getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void checkingOtherUsersRequiresUserRead() {
+        assertThat(permissionService.checkPermissions(colleague.getId(), List.of(
+                new PermissionCheck(colleague.getId(), "USER_READ", tenantId)))).containsExactly(false);
+        assertThatThrownBy(() -> permissionService.checkPermissions(colleague.getId(), List.of(
+                new PermissionCheck(target.getId(), "USER_READ", tenantId))))
+                .isInstanceOf(SecurityException.class);
+    }
+
+    private void authenticate(User user, String... authorities) {
+        UserLoginResponse principal = UserLoginResponse.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .tenantId(user.getTenantId())
+                .authorities(List.of(authorities).stream().map(SimpleGrantedAuthority::new).toList())
+                .build();
+
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    private Statistics statistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,28 @@
+package com.fleetmanagement.support;
+
+import com.fleetmanagement.security.AuthorizationContextHolder;
+import com.fleetmanagement.security.AuthorizationGraph;
+import com.fleetmanagement.security.AuthorizationVersionRegistry;
+import com.fleetmanagement.security.PermissionRegistry;
+import com.fleetmanagement.security.PermissionSnapshotCache;
+import com.fleetmanagement.security.ScopeHierarchy;
+import com.fleetmanagement.service.PermissionService;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * PermissionService and the caches, registries and hierarchy it resolves grants through
+ * For @JpaTests of services that check permissions
+ */
+@TestConfiguration(proxyBeanMethods = false)
+@Import({
+        PermissionService.class,
+        PermissionSnapshotCache.class,
+        AuthorizationVersionRegistry.class,
+        AuthorizationContextHolder.class,
+        AuthorizationGraph.class,
+        PermissionRegistry.class,
+        ScopeHierarchy.class
+})
+public class PermissionServiceConfig {
+}
@@ -0,0 +1,135 @@
+package com.fleetmanagement.support;
+
+import com.fleetmanagement.entity.Device;
+import com.fleetmanagement.entity.Permission;
+import com.fleetmanagement.entity.Role;
+import com.fleetmanagement.entity.ScopeNode;
+import com.fleetmanagement.entity.User;
+import com.fleetmanagement.entity.Vehicle;
+import jakarta.persistence.EntityManager;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Test Fixtures
+ * Persists the permissions, roles, users, scopes, devices and vehicles a test starts from, through the
+ * test's EntityManager - so inside its transaction
+ */
+public class TestFixtures {
+
+    private final EntityManager entityManager;
+
+    public TestFixtures(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * The permission with the code, created if it does not exist yet
+     */
+    public Permission permission(String code, Permission.PermissionCategory category) {
+        return entityManager.createQuery("SELECT p FROM Permission p WHERE p.code = :code", Permission.class)
+                .setParameter("code", code)
+                .getResultStream()
+                .findFirst()
+                .orElseGet(() -> persist(Permission.builder()
+                        .code(code)
+                        .name(code)
+                        .category(category)
+                        .build()));
+    }
+
+    /**
+     * Tenant-wide role
+     */
+    public Role role(String name, UUID tenantId, Permission... permissions) {
+        return scopedRole(name, tenantId, Role.ScopeType.TENANT, null, permissions);
+    }
+
+    public Role scopedRole(String name, UUID tenantId, Role.ScopeType scopeType, UUID scopeId, Permission... permissions) {
+        return persist(Role.builder()
+                .name(name)
+                .tenantId(tenantId)
+                .scopeType(scopeType)
+                .scopeId(scopeId)
+                .permissions(Set.of(permissions))
+                .build());
+    }
+
+    public ScopeNode scope(UUID tenantId, UUID parentId, Role.ScopeType scopeType, String name) {
+        return persist(ScopeNode.builder()
+                .tenantId(tenantId)
+                .parentId(parentId)
+                .scopeType(scopeType)
+                .name(name)
+                .build());
+    }
+
+    public User user(String username, UUID tenantId, Role... roles) {
+        return persist(User.builder()
+                .username(username)
+                .firstName(username)
+                .lastName("user")
+                .password("secret")
+                .phoneNumber("5550100")
+                .tenantId(tenantId)
+                .roles(Set.of(roles))
+                .build());
+    }
+
+    /**
+     * Seed the user's effective permissions
+     * The projection is maintained by PostgreSQL triggers; H2 has none, so the rows are inserted directly
+     */
+    public void grant(User user, Permission... permissions) {
+        entityManager.flush();
+        for (Permission permission : permissions) {
+            entityManager.createNativeQuery(
+                            "INSERT INTO user_effective_permissions (user_id, permission_id, permission_code) VALUES (?, ?, ?)")
+                    .setParameter(1, user.getId())
+                    .setParameter(2, permission.getId())
+                    .setParameter(3, permission.getCode())
+                    .executeUpdate();
+        }
+    }
+
+    public Device device(String imei, UUID tenantId) {
+        return device(imei, tenantId, device -> {
+        });
+    }
+
+    /**
+     * Device of the tenant with further fields set on its builder
+     */
+    public Device device(String imei, UUID tenantId, Consumer<Device.DeviceBuilder> details) {
+        Device.DeviceBuilder builder = Device.builder()
+                .imei(imei)
+                .deviceModel("GT06")
+                .tenantId(tenantId);
+        details.accept(builder);
+        return persist(builder.build());
+    }
+
+    public Vehicle vehicle(String licensePlate, UUID tenantId) {
+        return vehicle(licensePlate, tenantId, vehicle -> {
+        });
+    }
+
+    public Vehicle vehicle(String licensePlate, UUID tenantId, Consumer<Vehicle.VehicleBuilder> details) {
+        Vehicle.VehicleBuilder builder = Vehicle.builder()
+                .licensePlate(licensePlate)
+                .brand("Tata")
+                .model("Ace")
+                .year(2024)
+                .vehicleType(Vehicle.VehicleType.TRUCK)
+                .tenantId(tenantId);
+        details.accept(builder);
+        return persist(builder.build());
+    }
+
+    public <T> T persist(T entity) {
+        entityManager.persist(entity);
+        return entity;
+    }
+}